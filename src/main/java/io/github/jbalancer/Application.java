@@ -1,5 +1,8 @@
 package io.github.jbalancer;
 
+import io.github.jbalancer.metrics.AffinityCollector;
+import io.github.jbalancer.metrics.CheckCollector;
+import io.github.jbalancer.metrics.NodeCheckCollector;
 import io.github.jbalancer.metrics.ThreadPoolCollector;
 import io.github.jbalancer.node.discoverer.YamlNodeDiscoverer;
 import io.github.jbalancer.proxy.YamlNodesStorage;
@@ -45,6 +48,21 @@ public class Application {
         return ThreadPoolCollector.getInstance();
     }
 
+    @Bean
+    public AffinityCollector affinityCollector(JBalancer jBalancer) {
+        return new AffinityCollector(jBalancer);
+    }
+
+    @Bean
+    public CheckCollector checkCollector(JBalancer jBalancer) {
+        return new CheckCollector(jBalancer);
+    }
+
+    @Bean
+    public NodeCheckCollector nodeCheckCollector(JBalancer jBalancer) {
+        return new NodeCheckCollector(jBalancer);
+    }
+
     @Bean(destroyMethod = "close")
     public DB db() {
         return DBMaker.fileDB("balancer.db").make();
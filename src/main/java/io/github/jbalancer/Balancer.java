@@ -1,8 +1,14 @@
 package io.github.jbalancer;
 
+import io.github.jbalancer.affinity.AffinityCache;
 import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Lease;
+import io.github.jbalancer.node.NodeListener;
+import io.github.jbalancer.node.Snapshot;
+import io.github.jbalancer.strategy.Context;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 /**
@@ -24,6 +30,13 @@ public interface Balancer {
      */
     List<BalancedNode> getAll();
 
+    /**
+     * Returns current snapshot of available (enabled and active) nodes.
+     *
+     * @return current {@link Snapshot}
+     */
+    Snapshot getSnapshot();
+
     /**
      * Returns next balanced node by configured balancing strategy.
      *
@@ -38,4 +51,118 @@ public interface Balancer {
      */
     BalancedNode getBalanced(Predicate<BalancedNode> selector);
 
+    /**
+     * Returns next balanced node by configured balancing strategy and provided balancing context.
+     *
+     * @return next {@link BalancedNode}
+     */
+    BalancedNode getBalanced(Context context);
+
+    /**
+     * Returns up to {@code count} distinct balanced nodes by configured balancing strategy and provided selector
+     * as predicate. Nodes are selected in one pass over available nodes and returned in order of preference.
+     *
+     * @param count    maximum number of balanced nodes
+     * @param selector balancer nodes selector
+     * @return list of distinct {@link BalancedNode}; empty if no available node
+     */
+    List<BalancedNode> getBalanced(int count, Predicate<BalancedNode> selector);
+
+    /**
+     * Returns up to {@code count} distinct balanced nodes by configured balancing strategy and provided balancing
+     * context. Nodes are selected in one pass over available nodes and returned in order of preference.
+     *
+     * @param count   maximum number of balanced nodes
+     * @param context balancing context
+     * @return list of distinct {@link BalancedNode}; empty if no available node
+     */
+    List<BalancedNode> getBalanced(int count, Context context);
+
+    /**
+     * Returns node mapped to affinity key if it is still available and selected by context selector. Otherwise
+     * returns next balanced node by configured balancing strategy and provided balancing context and maps it
+     * to affinity key.
+     *
+     * @param affinityKey affinity key (e.g. session id); if null affinity is not used
+     * @param context     balancing context
+     * @return sticky or next {@link BalancedNode}
+     */
+    BalancedNode getBalanced(String affinityKey, Context context);
+
+    /**
+     * Acquires node mapped to affinity key or next balanced node as returned by
+     * {@link #getBalanced(String, Context)}. Acquired node is tracked as busy until returned {@link Lease} is
+     * released.
+     *
+     * @param affinityKey affinity key (e.g. session id); if null affinity is not used
+     * @param context     balancing context
+     * @return {@link Lease} of balanced node or null if no available node
+     */
+    Lease acquire(String affinityKey, Context context);
+
+    /**
+     * Returns cache of affinity key to node mappings.
+     *
+     * @return instance of {@link AffinityCache}
+     */
+    AffinityCache getAffinityCache();
+
+    /**
+     * Acquires next balanced node by configured balancing strategy. Acquired node is tracked as busy
+     * until returned {@link Lease} is released.
+     *
+     * @return {@link Lease} of next balanced node or null if no available node
+     */
+    Lease acquire();
+
+    /**
+     * Acquires next balanced node by configured balancing strategy and provided selector as predicate.
+     * Acquired node is tracked as busy until returned {@link Lease} is released.
+     *
+     * @return {@link Lease} of next balanced node or null if no available node
+     */
+    Lease acquire(Predicate<BalancedNode> selector);
+
+    /**
+     * Acquires next balanced node by configured balancing strategy and provided balancing context.
+     * Acquired node is tracked as busy until returned {@link Lease} is released.
+     *
+     * @return {@link Lease} of next balanced node or null if no available node
+     */
+    Lease acquire(Context context);
+
+    /**
+     * Records observed response latency of balanced node. Latency of nodes acquired with {@link #acquire()}
+     * is recorded automatically when {@link Lease} is released.
+     *
+     * @param node    balanced node returned by this balancer
+     * @param latency response latency
+     * @param unit    latency time unit
+     */
+    void record(BalancedNode node, long latency, TimeUnit unit);
+
+    /**
+     * Records result of request performed on balanced node. Nodes failing too many requests are temporarily
+     * ejected from balancing. Result of nodes acquired with {@link #acquire()} is recorded when {@link Lease}
+     * is released.
+     *
+     * @param node    balanced node returned by this balancer
+     * @param success {@code false} if request failed or node responded with server error
+     */
+    void record(BalancedNode node, boolean success);
+
+    /**
+     * Adds listener of state transitions of balancer nodes. Transitions caused by one check, discovery or
+     * enable/disable call are delivered in one batch after balancer snapshot reflects them.
+     *
+     * @param listener instance of {@link NodeListener}
+     */
+    void addListener(NodeListener listener);
+
+    /**
+     * Removes listener added with {@link #addListener(NodeListener)}.
+     *
+     * @param listener instance of {@link NodeListener}
+     */
+    void removeListener(NodeListener listener);
 }
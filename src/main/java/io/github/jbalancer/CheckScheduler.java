@@ -0,0 +1,402 @@
+package io.github.jbalancer;
+
+import io.github.jbalancer.node.Node;
+import io.github.jbalancer.utils.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Schedules checks of nodes of all balancers.
+ *
+ * Nodes are checked through probes shared by all nodes with same status URI (or connection URI if node has
+ * no status URI), so node present in several balancers is checked once per check period and result of check
+ * is copied to every node of probe. Probe counts nodes which use it and is removed when last node is removed
+ * from its balancer by discovery.
+ *
+ * Every probe has its own due time kept in {@link TimingWheel} advanced by single ticker thread. Probes which
+ * become due in same tick are checked in at most {@code parallelism} batches on worker executor. After check
+ * probe is rescheduled after check period randomized with {@code jitter}, so checks of nodes discovered together
+ * drift apart instead of firing in lockstep. Probe whose node is not alive after check is rescheduled with
+ * exponential backoff up to {@code maxBackoff}.
+ *
+ * New probes are scheduled at random time within one check period. Check which starts more than one check
+ * period after its due time is counted as overrun.
+ */
+public final class CheckScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CheckScheduler.class);
+
+    private static final long MAX_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int TICKS_PER_PERIOD = 16;
+    private static final int WHEEL_SIZE = 512;
+
+    private final Collection<DefaultBalancer> balancers;
+    private final Executor workers;
+    private final int parallelism;
+    private final long periodNanos;
+    private final long maxBackoffNanos;
+    private final double jitter;
+
+    // accessed only by ticker thread
+    private final TimingWheel<Probe> wheel;
+    private final Map<URI, Probe> probes = new HashMap<>();
+    private final Map<DefaultBalancer, List<Node>> checkedNodes = new IdentityHashMap<>();
+
+    private final Queue<Probe> completed = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder checkCount = new LongAdder();
+    private final LongAdder overruns = new LongAdder();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile int scheduled;
+    private volatile int subscribed;
+
+    /**
+     * @param balancers   live view of checked balancers
+     * @param workers     executor performing checks
+     * @param parallelism maximum number of concurrent check batches per tick
+     * @param period      check period
+     * @param maxBackoff  maximum check period of dead nodes
+     * @param jitter      relative randomization of check period in range [0, 1)
+     * @param unit        time unit of period and backoff
+     */
+    CheckScheduler(Collection<DefaultBalancer> balancers, Executor workers, int parallelism,
+                   long period, long maxBackoff, double jitter, TimeUnit unit) {
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Check parallelism must be positive: " + parallelism);
+        }
+        if (period <= 0) {
+            throw new IllegalArgumentException("Check period must be positive: " + period);
+        }
+        if (jitter < 0.0 || jitter >= 1.0) {
+            throw new IllegalArgumentException("Check jitter must be in range [0, 1): " + jitter);
+        }
+        this.balancers = balancers;
+        this.workers = workers;
+        this.parallelism = parallelism;
+        this.periodNanos = unit.toNanos(period);
+        this.maxBackoffNanos = Math.max(periodNanos, unit.toNanos(maxBackoff));
+        this.jitter = jitter;
+        this.wheel = new TimingWheel<>(getTickNanos(), WHEEL_SIZE, System.nanoTime());
+    }
+
+    /**
+     * Returns period in which ticker should call {@link #tick()}.
+     */
+    long getTickNanos() {
+        return Math.max(MIN_TICK_NANOS, Math.min(MAX_TICK_NANOS, periodNanos / TICKS_PER_PERIOD));
+    }
+
+    /**
+     * Updates probes of discovered nodes and dispatches checks of due probes. Must be called by single thread.
+     */
+    void tick() {
+
+        final long now = System.nanoTime();
+        rescheduleCompleted();
+        reconcile(now);
+
+        final List<Check> due = new ArrayList<>();
+        wheel.advance(now, probe -> {
+            if (isScheduled(probe)) {
+                due.add(new Check(probe));
+            }
+        });
+        dispatch(due);
+        rescheduleCompleted();
+        scheduled = wheel.size();
+
+        for (DefaultBalancer balancer : checkedNodes.keySet()) {
+            balancer.expireEjections();
+        }
+    }
+
+    private void rescheduleCompleted() {
+
+        Probe probe;
+        while (null != (probe = completed.poll())) {
+            if (isScheduled(probe)) {
+                wheel.schedule(probe, probe.due);
+            }
+        }
+    }
+
+    private boolean isScheduled(Probe probe) {
+        return probes.get(probe.key) == probe;
+    }
+
+    private void reconcile(long now) {
+
+        final Set<DefaultBalancer> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DefaultBalancer balancer : balancers) {
+            current.add(balancer);
+            final List<Node> previous = checkedNodes.getOrDefault(balancer, Collections.emptyList());
+            final List<Node> nodes = balancer.getCheckedNodes();
+            if (nodes != previous) {
+                update(balancer, previous, nodes, now);
+                checkedNodes.put(balancer, nodes);
+            }
+        }
+
+        final Iterator<Map.Entry<DefaultBalancer, List<Node>>> removed = checkedNodes.entrySet().iterator();
+        while (removed.hasNext()) {
+            final Map.Entry<DefaultBalancer, List<Node>> entry = removed.next();
+            if (!current.contains(entry.getKey())) {
+                update(entry.getKey(), entry.getValue(), Collections.emptyList(), now);
+                removed.remove();
+            }
+        }
+    }
+
+    private void update(DefaultBalancer balancer, List<Node> previous, List<Node> nodes, long now) {
+
+        final Set<Node> retained = Collections.newSetFromMap(new IdentityHashMap<>(nodes.size()));
+        retained.addAll(nodes);
+        for (Node node : previous) {
+            if (!retained.contains(node)) {
+                unsubscribe(node);
+            }
+        }
+
+        final Set<Node> existing = Collections.newSetFromMap(new IdentityHashMap<>(previous.size()));
+        existing.addAll(previous);
+        for (Node node : nodes) {
+            if (!existing.contains(node)) {
+                subscribe(balancer, node, now);
+            }
+        }
+    }
+
+    private void subscribe(DefaultBalancer balancer, Node node, long now) {
+
+        final URI key = getKey(node);
+        if (null == key) return;
+
+        Probe probe = probes.get(key);
+        if (null == probe) {
+            probe = new Probe(key);
+            probe.due = now + (long) (ThreadLocalRandom.current().nextDouble() * periodNanos);
+            probes.put(key, probe);
+            wheel.schedule(probe, probe.due);
+        }
+        probe.subscribers.put(new Subscriber(node), balancer);
+        subscribed++;
+    }
+
+    private void unsubscribe(Node node) {
+
+        final URI key = getKey(node);
+        if (null == key) return;
+
+        final Probe probe = probes.get(key);
+        if (null == probe || null == probe.subscribers.remove(new Subscriber(node))) return;
+
+        subscribed--;
+        if (probe.subscribers.isEmpty()) {
+            probes.remove(key);
+        }
+    }
+
+    private static URI getKey(Node node) {
+        return null == node.getStatus() ? node.getConnection() : node.getStatus();
+    }
+
+    private void dispatch(List<Check> due) {
+
+        if (due.isEmpty()) return;
+
+        final int batchSize = (due.size() + parallelism - 1) / parallelism;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            final List<Check> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            pending.addAndGet(batch.size());
+            workers.execute(() -> check(batch));
+        }
+    }
+
+    /**
+     * Checks first subscribed node of every probe with its balancer and copies result to remaining nodes of probe.
+     */
+    private void check(List<Check> batch) {
+
+        final long start = System.nanoTime();
+        final Map<DefaultBalancer, List<Node>> checked = new IdentityHashMap<>();
+        for (Check check : batch) {
+            recordLag(start - check.probe.due);
+            checked.computeIfAbsent(check.balancers[0], b -> new ArrayList<>()).add(check.nodes[0]);
+        }
+
+        try {
+            checked.forEach(DefaultBalancer::checkNodes);
+
+            final Map<Node, Node> sources = new IdentityHashMap<>();
+            final Map<DefaultBalancer, List<Node>> copied = new IdentityHashMap<>();
+            for (Check check : batch) {
+                for (int i = 1; i < check.nodes.length; i++) {
+                    sources.put(check.nodes[i], check.nodes[0]);
+                    copied.computeIfAbsent(check.balancers[i], b -> new ArrayList<>()).add(check.nodes[i]);
+                }
+            }
+            copied.forEach((balancer, nodes) -> balancer.updateNodes(nodes, node -> node.applyCheck(sources.get(node))));
+        } catch (Exception e) {
+            LOGGER.error("Error checking {} nodes", batch.size(), e);
+        } finally {
+            final long now = System.nanoTime();
+            for (Check check : batch) {
+                check.probe.due = now + nextDelay(check.probe, check.nodes[0]);
+                completed.add(check.probe);
+            }
+            pending.addAndGet(-batch.size());
+            checkCount.add(batch.size());
+        }
+    }
+
+    private void recordLag(long lagNanos) {
+
+        if (lagNanos > periodNanos) {
+            overruns.increment();
+        }
+        maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+    }
+
+    private long nextDelay(Probe probe, Node checked) {
+
+        probe.deadChecks = checked.isAlive() ? 0 : probe.deadChecks + 1;
+
+        long delay = periodNanos;
+        for (int i = 0; i < probe.deadChecks && delay < maxBackoffNanos; i++) {
+            delay *= 2;
+        }
+        return jitter(Math.min(delay, maxBackoffNanos));
+    }
+
+    private long jitter(long delay) {
+        return delay + (long) (delay * jitter * (2.0 * ThreadLocalRandom.current().nextDouble() - 1.0));
+    }
+
+    /**
+     * @return number of performed probe checks
+     */
+    public long getChecks() {
+        return checkCount.sum();
+    }
+
+    /**
+     * @return number of probe checks started more than one check period after their due time
+     */
+    public long getOverruns() {
+        return overruns.sum();
+    }
+
+    /**
+     * @return number of probe checks dispatched to workers and not completed
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * @return number of probes waiting for their due time
+     */
+    public int getScheduled() {
+        return scheduled;
+    }
+
+    /**
+     * @return number of nodes of all balancers updated by probes
+     */
+    public int getSubscribed() {
+        return subscribed;
+    }
+
+    /**
+     * Returns maximum delay between due time and start of probe check since last call and resets it.
+     *
+     * @return maximum check lag in nanoseconds
+     */
+    public long takeMaxLagNanos() {
+        return Math.max(0L, maxLagNanos.getAndSet(0L));
+    }
+
+    /**
+     * Check of all nodes with same status URI. Subscribers are modified only by ticker thread and kept in order of
+     * subscription, so first subscribed node is checked until it is removed and check result state stays on one
+     * node.
+     */
+    private static final class Probe {
+
+        private final URI key;
+        private final Map<Subscriber, DefaultBalancer> subscribers = new LinkedHashMap<>();
+        private volatile long due;
+        private int deadChecks;
+
+        private Probe(URI key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Subscribed node compared by identity, because equal nodes of different balancers subscribe separately.
+     */
+    private static final class Subscriber {
+
+        private final Node node;
+
+        private Subscriber(Node node) {
+            this.node = node;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Subscriber && ((Subscriber) o).node == node;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(node);
+        }
+    }
+
+    /**
+     * Dispatched probe check with nodes and their balancers copied from probe subscribers.
+     */
+    private static final class Check {
+
+        private final Probe probe;
+        private final Node[] nodes;
+        private final DefaultBalancer[] balancers;
+
+        private Check(Probe probe) {
+
+            this.probe = probe;
+            this.nodes = new Node[probe.subscribers.size()];
+            this.balancers = new DefaultBalancer[nodes.length];
+            int i = 0;
+            for (Map.Entry<Subscriber, DefaultBalancer> subscriber : probe.subscribers.entrySet()) {
+                nodes[i] = subscriber.getKey().node;
+                balancers[i++] = subscriber.getValue();
+            }
+        }
+    }
+}
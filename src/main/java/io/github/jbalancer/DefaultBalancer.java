@@ -1,18 +1,37 @@
 package io.github.jbalancer;
 
+import io.github.jbalancer.affinity.AffinityCache;
 import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.ConcurrencyLimits;
+import io.github.jbalancer.node.Lease;
 import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.NodeEvent;
+import io.github.jbalancer.node.NodeEventBus;
+import io.github.jbalancer.node.NodeListener;
 import io.github.jbalancer.node.NodeManager;
+import io.github.jbalancer.node.Snapshot;
+import io.github.jbalancer.node.Subsetting;
 import io.github.jbalancer.node.checker.Checker;
 import io.github.jbalancer.node.discoverer.Discoverer;
+import io.github.jbalancer.strategy.Context;
 import io.github.jbalancer.strategy.Strategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -24,21 +43,64 @@ class DefaultBalancer implements Balancer, NodeManager {
     private final Strategy strategy;
     private final Discoverer discoverer;
     private final Checker checker;
+    private final AffinityCache affinityCache;
+    private final Subsetting subsetting;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final int maxEjectionPercent;
 
     private final List<Node> initialNodes;
     private volatile List<Node> nodes;
+    private volatile List<Node> subset;
+    private volatile boolean initialNodesUsed;
+    private volatile Snapshot snapshot = Snapshot.empty();
+
+    /**
+     * Time ({@link System#nanoTime()}) when first ejection of current snapshot expires, valid only if current
+     * snapshot has ejected nodes.
+     */
+    private volatile long ejectionExpiry;
+    private volatile boolean ejectionPending;
+
+    private final NodeEventBus events = new NodeEventBus();
 
     DefaultBalancer(Strategy strategy, Discoverer discoverer, Checker checker, List<Node> initialNodes) {
         this(null, strategy, discoverer, checker, initialNodes);
     }
 
     DefaultBalancer(String id, Strategy strategy, Discoverer discoverer, Checker checker, List<Node> initialNodes) {
+        this(id, strategy, discoverer, checker, initialNodes, new AffinityCache(), null);
+    }
+
+    DefaultBalancer(String id, Strategy strategy, Discoverer discoverer, Checker checker, List<Node> initialNodes,
+                    AffinityCache affinityCache, Subsetting subsetting) {
+        this(id, strategy, discoverer, checker, initialNodes, affinityCache, subsetting, ConcurrencyLimits.DISABLED);
+    }
+
+    DefaultBalancer(String id, Strategy strategy, Discoverer discoverer, Checker checker, List<Node> initialNodes,
+                    AffinityCache affinityCache, Subsetting subsetting, ConcurrencyLimits concurrencyLimits) {
+        this(id, strategy, discoverer, checker, initialNodes, affinityCache, subsetting, concurrencyLimits,
+                Snapshot.DEFAULT_MAX_EJECTION_PERCENT);
+    }
+
+    /**
+     * @param subsetting         deterministic subsetting of nodes; if null balancer checks and balances all nodes
+     * @param concurrencyLimits  concurrency limit settings applied to discovered nodes if enabled
+     * @param maxEjectionPercent maximum percent of enabled and active nodes excluded from snapshot by ejection
+     */
+    DefaultBalancer(String id, Strategy strategy, Discoverer discoverer, Checker checker, List<Node> initialNodes,
+                    AffinityCache affinityCache, Subsetting subsetting, ConcurrencyLimits concurrencyLimits,
+                    int maxEjectionPercent) {
         this.id = Optional.ofNullable(id).orElseGet(() -> UUID.randomUUID().toString());
         this.strategy = strategy;
         this.discoverer = discoverer;
         this.checker = checker;
         this.initialNodes = initialNodes;
+        this.affinityCache = affinityCache;
+        this.subsetting = subsetting;
+        this.concurrencyLimits = concurrencyLimits;
+        this.maxEjectionPercent = maxEjectionPercent;
 
+        events.addListener(this::onEvents);
         discover();
     }
 
@@ -62,6 +124,47 @@ class DefaultBalancer implements Balancer, NodeManager {
         return initialNodes;
     }
 
+    /**
+     * Returns nodes checked and balanced by this balancer instance. Without subsetting all nodes are used.
+     */
+    private List<Node> getSubsetInternal() {
+
+        final List<Node> current = subset;
+        return null == current ? getAllInternal() : current;
+    }
+
+    private List<Node> subset(List<Node> nodes) {
+
+        if (null == subsetting) {
+            return nodes;
+        }
+        final List<Node> selected = subsetting.select(nodes);
+        LOGGER.debug("Balancer {} uses {} of {} nodes", id, selected.size(), nodes.size());
+        return selected;
+    }
+
+    /**
+     * Returns current snapshot. Snapshot is refreshed here when ejection of its ejected node expired, so ejected
+     * node returns to balancing even if nodes are not checked periodically.
+     */
+    @Override
+    public Snapshot getSnapshot() {
+
+        final Snapshot current = snapshot;
+        if (ejectionPending && System.nanoTime() - ejectionExpiry >= 0) {
+            return refreshExpired(current);
+        }
+        return current;
+    }
+
+    private synchronized Snapshot refreshExpired(Snapshot expired) {
+
+        if (snapshot == expired) {
+            refreshSnapshot();
+        }
+        return snapshot;
+    }
+
     @Override
     public BalancedNode getBalanced() {
         return strategy.balance(this);
@@ -72,6 +175,108 @@ class DefaultBalancer implements Balancer, NodeManager {
         return strategy.balance(this, selector);
     }
 
+    @Override
+    public BalancedNode getBalanced(Context context) {
+        return strategy.balance(this, context);
+    }
+
+    @Override
+    public List<BalancedNode> getBalanced(int count, Predicate<BalancedNode> selector) {
+        return strategy.balance(this, new Context(selector), count);
+    }
+
+    @Override
+    public List<BalancedNode> getBalanced(int count, Context context) {
+        return strategy.balance(this, context, count);
+    }
+
+    @Override
+    public BalancedNode getBalanced(String affinityKey, Context context) {
+
+        if (null == affinityKey) {
+            return getBalanced(context);
+        }
+
+        final BalancedNode sticky = affinityCache.get(affinityKey);
+        if (null != sticky && isSticky(sticky, context)) {
+            return sticky;
+        }
+
+        final BalancedNode balanced = getBalanced(context);
+        if (null != balanced) {
+            affinityCache.put(affinityKey, balanced);
+        }
+        return balanced;
+    }
+
+    /**
+     * Sticky node is used while it is available, selected by context selector and admitted by its circuit breaker.
+     * Concurrency limit is not applied to sticky node because request depends on node state.
+     */
+    private boolean isSticky(BalancedNode node, Context context) {
+
+        if (!snapshot.contains(node)) {
+            return false;
+        }
+        final Predicate<BalancedNode> selector = null == context ? null : context.getSelector();
+        return (null == selector || selector.test(node)) && node.allowRequest();
+    }
+
+    @Override
+    public Lease acquire(String affinityKey, Context context) {
+        return lease(getBalanced(affinityKey, context));
+    }
+
+    @Override
+    public AffinityCache getAffinityCache() {
+        return affinityCache;
+    }
+
+    @Override
+    public Lease acquire() {
+        return lease(getBalanced());
+    }
+
+    @Override
+    public Lease acquire(Predicate<BalancedNode> selector) {
+        return lease(getBalanced(selector));
+    }
+
+    @Override
+    public Lease acquire(Context context) {
+        return lease(getBalanced(context));
+    }
+
+    @Override
+    public void record(BalancedNode node, long latency, TimeUnit unit) {
+
+        if (node instanceof Node) {
+            ((Node) node).recordLatency(unit.toNanos(latency));
+        }
+    }
+
+    @Override
+    public void record(BalancedNode node, boolean success) {
+
+        if (node instanceof Node && ((Node) node).recordResult(success)) {
+            onEjected((Node) node);
+        }
+    }
+
+    private Lease lease(BalancedNode node) {
+
+        if (null == node) {
+            return null;
+        }
+        return ((Node) node).lease(this::onEjected);
+    }
+
+    private void onEjected(Node node) {
+
+        LOGGER.info("Balancer {} node {} ejected", id, node.getConnection());
+        refreshSnapshot();
+    }
+
     void discover() {
 
         if (null == discoverer) {
@@ -98,37 +303,222 @@ class DefaultBalancer implements Balancer, NodeManager {
             return;
         }
 
-        check(discovered);
-        nodes = Collections.unmodifiableList(discovered);
+        initialNodesUsed = false;
+        replaceNodes(discovered);
     }
 
+    /**
+     * Falls back to initial nodes. Initial nodes are merged only when balancer switches to them.
+     */
     private void discoverEmptyNodes() {
 
-        if (nodes != initialNodes) {
-            check(initialNodes);
-            nodes = initialNodes;
+        if (!initialNodesUsed) {
+            replaceNodes(initialNodes);
+            initialNodesUsed = true;
+        }
+    }
+
+    /**
+     * Merges replacement nodes into current nodes and publishes differences as events. Nodes are matched by
+     * connection and status URI. Current instance of matched node is kept with its check result, counters and
+     * statistics, only its labels are replaced if they changed. Only nodes which were not checked by this balancer
+     * yet are checked.
+     * Removed nodes leave snapshot immediately, leases acquired before removal are released on removed instances.
+     */
+    private void replaceNodes(List<Node> replacement) {
+
+        final List<Node> current = null == nodes ? Collections.<Node>emptyList() : nodes;
+        final Map<List<URI>, Node> previous = new HashMap<>();
+        for (Node node : current) {
+            previous.put(key(node), node);
+        }
+
+        final List<Node> merged = new ArrayList<>(replacement.size());
+        final List<Node> added = new ArrayList<>();
+        int relabeled = 0;
+        for (Node node : replacement) {
+            final Node matched = previous.remove(key(node));
+            if (null == matched) {
+                if (concurrencyLimits.isEnabled()) {
+                    node.setConcurrencyLimits(concurrencyLimits);
+                }
+                added.add(node);
+                merged.add(node);
+                continue;
+            }
+            if (!matched.getLabels().equals(node.getLabels())) {
+                matched.setLabels(node.getLabels());
+                relabeled++;
+            }
+            merged.add(matched);
+        }
+
+        if (null != nodes && added.isEmpty() && 0 == relabeled && previous.isEmpty()) {
+            LOGGER.debug("Balancer {} nodes unchanged", id);
+            return;
+        }
+
+        final Set<Node> checked = Collections.newSetFromMap(new IdentityHashMap<>());
+        checked.addAll(null == nodes ? Collections.<Node>emptyList() : getSubsetInternal());
+        final List<Node> mergedNodes = Collections.unmodifiableList(merged);
+        final List<Node> mergedSubset = subset(mergedNodes);
+        final List<Node> unchecked = new ArrayList<>();
+        for (Node node : mergedSubset) {
+            if (!checked.contains(node)) {
+                unchecked.add(node);
+            }
+        }
+
+        events.hold();
+        try {
+            checker.check(unchecked);
+
+            for (Node node : added) {
+                node.addListener(events);
+                events.publish(new NodeEvent(NodeEvent.Type.DISCOVERED, node));
+            }
+            for (Node removed : previous.values()) {
+                removed.removeListener(events);
+                events.publish(new NodeEvent(NodeEvent.Type.REMOVED, removed));
+            }
+
+            LOGGER.debug("Balancer {} nodes merged: {} added, {} relabeled, {} removed, {} checked", id,
+                    added.size(), relabeled, previous.size(), unchecked.size());
+            nodes = mergedNodes;
+            subset = mergedSubset;
+            refreshSnapshot();
+        } finally {
+            events.release();
         }
     }
 
+    private static List<URI> key(Node node) {
+        return Arrays.asList(node.getConnection(), node.getStatus());
+    }
+
+    /**
+     * Checks provided nodes. Transitions caused by check are delivered as one batch.
+     */
     private void check(List<Node> nodes) {
 
-        nodes.forEach(checker::check);
+        events.hold();
+        try {
+            checker.check(nodes);
+        } finally {
+            events.release();
+        }
     }
 
     void check() {
+        checkNodes(getSubsetInternal());
+    }
+
+    /**
+     * Checks provided nodes. Snapshot is refreshed by transition events of checked nodes or if ejection expired.
+     */
+    void checkNodes(List<Node> nodes) {
+
+        check(nodes);
+        expireEjections();
+    }
 
-        check(getAllInternal());
+    /**
+     * Applies action to provided nodes. Transitions caused by action are delivered as one batch.
+     */
+    void updateNodes(Collection<Node> nodes, Consumer<Node> action) {
+
+        events.hold();
+        try {
+            nodes.forEach(action);
+        } finally {
+            events.release();
+        }
+    }
+
+    /**
+     * Refreshes snapshot if ejection of any ejected node expired.
+     */
+    void expireEjections() {
+
+        if (isEjectionExpired()) {
+            refreshSnapshot();
+        }
+    }
+
+    /**
+     * Returns nodes checked by this balancer. Returned list is replaced on every discovery.
+     */
+    List<Node> getCheckedNodes() {
+        return getSubsetInternal();
+    }
+
+    private boolean isEjectionExpired() {
+
+        for (BalancedNode node : snapshot.getEjected()) {
+            if (!node.isEjected()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public void enable(Predicate<BalancedNode> selector) {
-
-        getAllInternal().stream().filter(selector).forEach(Node::enable);
+        update(selector, Node::enable);
     }
 
     @Override
     public void disable(Predicate<BalancedNode> selector) {
+        update(selector, Node::disable);
+    }
+
+    private void update(Predicate<BalancedNode> selector, Consumer<Node> action) {
+        updateNodes(getAllInternal().stream().filter(selector).collect(Collectors.toList()), action);
+    }
 
-        getAllInternal().stream().filter(selector).forEach(Node::disable);
+    @Override
+    public void addListener(NodeListener listener) {
+        events.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(NodeListener listener) {
+        events.removeListener(listener);
+    }
+
+    /**
+     * Refreshes snapshot when activeness or enablement of any node changed.
+     */
+    private void onEvents(List<NodeEvent> batch) {
+
+        for (NodeEvent event : batch) {
+            if (event.getType() != NodeEvent.Type.DISCOVERED && event.getType() != NodeEvent.Type.REMOVED) {
+                refreshSnapshot();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds snapshot of available nodes from current node list and lets strategy prepare it before it is used.
+     */
+    private synchronized void refreshSnapshot() {
+
+        final Snapshot refreshed = Snapshot.create(snapshot.getVersion() + 1, getSubsetInternal(), maxEjectionPercent);
+        try {
+            strategy.prepare(refreshed);
+        } catch (Exception e) {
+            LOGGER.error("Error preparing snapshot of balancer {}", id, e);
+        }
+
+        long remaining = Long.MAX_VALUE;
+        for (BalancedNode node : refreshed.getEjected()) {
+            remaining = Math.min(remaining, ((Node) node).getRemainingEjection(TimeUnit.NANOSECONDS));
+        }
+        ejectionPending = false;
+        ejectionExpiry = System.nanoTime() + Math.max(remaining, 0L);
+        ejectionPending = remaining != Long.MAX_VALUE;
+        snapshot = refreshed;
+        LOGGER.debug("Balancer {} snapshot refreshed: {}", id, snapshot);
     }
 }
@@ -1,11 +1,18 @@
 package io.github.jbalancer;
 
+import io.github.jbalancer.affinity.AffinityCache;
 import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.ConcurrencyLimits;
 import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.Snapshot;
+import io.github.jbalancer.node.Subsetting;
+import io.github.jbalancer.node.checker.AsyncHttpChecker;
+import io.github.jbalancer.node.checker.CheckThresholds;
 import io.github.jbalancer.node.checker.Checker;
 import io.github.jbalancer.node.checker.CheckerFactory;
-import io.github.jbalancer.node.checker.HttpClient;
 import io.github.jbalancer.node.discoverer.Discoverer;
+import io.github.jbalancer.node.resolver.CachingResolver;
+import io.github.jbalancer.node.resolver.Resolver;
 import io.github.jbalancer.strategy.Strategy;
 import io.github.jbalancer.utils.NamedThreadFactory;
 import org.slf4j.Logger;
@@ -22,36 +29,64 @@ public class JBalancer implements BalancerFactory {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JBalancer.class);
 
-    private final HttpClient httpClient = HttpClient.newInstance();
-    private final Checker checker = CheckerFactory.createDefault(httpClient);
+    private final CachingResolver resolver = CachingResolver.newInstance();
+    private final AsyncHttpChecker httpChecker;
+    private final Checker checker;
 
     private final Map<String, DefaultBalancer> balancers = new ConcurrentHashMap<>();
 
     private final ScheduledExecutorService checkService = Executors.newScheduledThreadPool(1,
             NamedThreadFactory.create("jbalancer-check"));
+    private final ExecutorService checkWorkers;
     private final ScheduledExecutorService discoverService = Executors.newScheduledThreadPool(1,
             NamedThreadFactory.create("jbalancer-discover"));
 
     private final Object createLock = new Object();
 
-    private JBalancer(long checkPeriod, long discoverPeriod) {
+    private final int affinityMaxSize;
+    private final long affinityTtl;
+    private final Subsetting subsetting;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final int maxEjectionPercent;
+    private final CheckScheduler checkScheduler;
+
+    private JBalancer(Builder builder, Subsetting subsetting) {
+
+        this.affinityMaxSize = builder.affinityMaxSize;
+        this.affinityTtl = builder.affinityTtl;
+        this.subsetting = subsetting;
+        this.concurrencyLimits = builder.concurrencyLimits;
+        this.maxEjectionPercent = builder.maxEjectionPercent;
+        this.httpChecker = new AsyncHttpChecker.Builder()
+                .setThresholds(CheckThresholds.of(builder.checkRise, builder.checkFall))
+                .build();
+        this.checker = CheckerFactory.createDefault(httpChecker, resolver);
+
+        if (builder.checkPeriod > 0) {
+            this.checkWorkers = Executors.newFixedThreadPool(builder.checkParallelism,
+                    NamedThreadFactory.create("jbalancer-check-worker-%d"));
+            this.checkScheduler = new CheckScheduler(balancers.values(), checkWorkers, builder.checkParallelism,
+                    builder.checkPeriod, builder.checkMaxBackoff, builder.checkJitter, TimeUnit.MILLISECONDS);
+        } else {
+            this.checkWorkers = null;
+            this.checkScheduler = null;
+        }
 
-        startCheck(checkPeriod);
-        startDiscover(discoverPeriod);
+        startCheck();
+        startDiscover(builder.discoverPeriod);
     }
 
-    private void startCheck(long checkPeriod) {
+    private void startCheck() {
 
-        if (checkPeriod <= 0) return;
+        if (null == checkScheduler) return;
 
         checkService.scheduleWithFixedDelay(() -> {
-            LOGGER.debug("Performing node check");
             try {
-                balancers.values().forEach(DefaultBalancer::check);
+                checkScheduler.tick();
             } catch (Exception e) {
                 LOGGER.error("Error performing node check", e);
             }
-        }, 0L, checkPeriod, TimeUnit.MILLISECONDS);
+        }, 0L, checkScheduler.getTickNanos(), TimeUnit.NANOSECONDS);
 
         LOGGER.info("JBalancer node checker started");
     }
@@ -72,6 +107,25 @@ public class JBalancer implements BalancerFactory {
         LOGGER.info("JBalancer node discoverer started");
     }
 
+    /**
+     * Returns scheduler of node checks.
+     *
+     * @return instance of {@link CheckScheduler} or null if node checks are disabled
+     */
+    public CheckScheduler getCheckScheduler() {
+        return checkScheduler;
+    }
+
+    /**
+     * Returns resolver caching addresses of checked hosts. Can be shared with
+     * {@link io.github.jbalancer.node.discoverer.ResolvingDiscoverer}.
+     *
+     * @return instance of {@link Resolver}
+     */
+    public Resolver getResolver() {
+        return resolver;
+    }
+
     /**
      * Returns {@link Balancer} instance by unique identifier.
      *
@@ -99,10 +153,10 @@ public class JBalancer implements BalancerFactory {
      */
     public void enableNodes(String balancerId, Predicate<BalancedNode> selector) {
 
-        Balancer balancer = getBalancer(balancerId);
+        DefaultBalancer balancer = balancers.get(balancerId);
         if (null == balancer) return;
 
-        balancer.getAll().stream().filter(selector).forEach(bn -> ((Node) bn).enable());
+        balancer.enable(selector);
     }
 
     /**
@@ -113,10 +167,10 @@ public class JBalancer implements BalancerFactory {
      */
     public void disableNodes(String balancerId, Predicate<BalancedNode> selector) {
 
-        Balancer balancer = getBalancer(balancerId);
+        DefaultBalancer balancer = balancers.get(balancerId);
         if (null == balancer) return;
 
-        balancer.getAll().stream().filter(selector).forEach(bn -> ((Node) bn).disable());
+        balancer.disable(selector);
     }
 
     @Override
@@ -136,7 +190,12 @@ public class JBalancer implements BalancerFactory {
                 throw new IllegalStateException("Balancer with id " + id + " already exists");
             }
 
-            DefaultBalancer balancer = new DefaultBalancer(id, strategy, discoverer, checker, nodes);
+            DefaultBalancer balancer = new DefaultBalancer(id, strategy, discoverer, checker, nodes,
+                    new AffinityCache(affinityMaxSize, affinityTtl, TimeUnit.MILLISECONDS), subsetting, concurrencyLimits,
+                    maxEjectionPercent);
+            if (null != discoverer) {
+                discoverer.watch(balancer.getId(), () -> discoverService.execute(balancer::discover));
+            }
             return balancers.computeIfAbsent(balancer.getId(), s -> balancer);
         }
     }
@@ -147,8 +206,12 @@ public class JBalancer implements BalancerFactory {
     public void destroy() {
 
         shutdownService(checkService);
+        if (null != checkWorkers) {
+            shutdownService(checkWorkers);
+        }
         shutdownService(discoverService);
-        httpClient.close();
+        httpChecker.close();
+        resolver.close();
 
         LOGGER.info("JBalancer successfully destroyed");
     }
@@ -172,6 +235,17 @@ public class JBalancer implements BalancerFactory {
 
         private long checkPeriod = 2000;
         private long discoverPeriod = 30000;
+        private int affinityMaxSize = AffinityCache.DEFAULT_MAX_SIZE;
+        private long affinityTtl = TimeUnit.MINUTES.toMillis(AffinityCache.DEFAULT_TTL_MINUTES);
+        private String instanceId;
+        private int subsetSize;
+        private int checkParallelism = 4;
+        private long checkMaxBackoff = 30000;
+        private double checkJitter = 0.1;
+        private int checkRise = 1;
+        private int checkFall = 1;
+        private ConcurrencyLimits concurrencyLimits = ConcurrencyLimits.DISABLED;
+        private int maxEjectionPercent = Snapshot.DEFAULT_MAX_EJECTION_PERCENT;
 
         public Builder checkPeriod(long value) {
 
@@ -179,14 +253,104 @@ public class JBalancer implements BalancerFactory {
             return this;
         }
 
+        /**
+         * Maximum number of node check batches performed concurrently.
+         */
+        public Builder checkParallelism(int value) {
+
+            checkParallelism = value;
+            return this;
+        }
+
+        /**
+         * Maximum check period of nodes which are not alive. Check period of such node is doubled after
+         * every check until it reaches this value.
+         */
+        public Builder checkMaxBackoff(long value) {
+
+            checkMaxBackoff = value;
+            return this;
+        }
+
+        /**
+         * Relative randomization of check period, e.g. {@code 0.1} spreads checks by 10% of check period.
+         */
+        public Builder checkJitter(double value) {
+
+            checkJitter = value;
+            return this;
+        }
+
+        /**
+         * Number of consecutive successful checks which activate node and number of consecutive failed checks
+         * which deactivate node. By default every check result changes node activeness.
+         */
+        public Builder checkThresholds(int rise, int fall) {
+
+            checkRise = rise;
+            checkFall = fall;
+            return this;
+        }
+
+        /**
+         * Enables adaptive concurrency limit of nodes. Saturated nodes are skipped by balancing strategies.
+         * Limit is disabled by default.
+         *
+         * @see ConcurrencyLimits
+         */
+        public Builder concurrencyLimits(ConcurrencyLimits value) {
+
+            concurrencyLimits = value;
+            return this;
+        }
+
+        /**
+         * Maximum percent of enabled and active nodes of balancer excluded from balancing because they are
+         * ejected by passive outlier detection. Remaining ejected nodes stay balanced. Default is
+         * {@value Snapshot#DEFAULT_MAX_EJECTION_PERCENT}.
+         */
+        public Builder maxEjectionPercent(int value) {
+
+            if (value < 0 || value > 100) {
+                throw new IllegalArgumentException("Max ejection percent must be in range [0, 100]: " + value);
+            }
+            maxEjectionPercent = value;
+            return this;
+        }
+
         public Builder discoverPeriod(long value) {
 
             discoverPeriod = value;
             return this;
         }
 
+        public Builder affinityMaxSize(int value) {
+
+            affinityMaxSize = value;
+            return this;
+        }
+
+        public Builder affinityTtl(long value) {
+
+            affinityTtl = value;
+            return this;
+        }
+
+        /**
+         * Enables deterministic subsetting: each balancer checks and balances only {@code subsetSize} nodes
+         * chosen by {@code instanceId}. Instance id must be stable and unique among balancer instances.
+         */
+        public Builder subsetting(String instanceId, int subsetSize) {
+
+            this.instanceId = instanceId;
+            this.subsetSize = subsetSize;
+            return this;
+        }
+
         public JBalancer build() {
-            return new JBalancer(checkPeriod, discoverPeriod);
+
+            final Subsetting subsetting = subsetSize > 0 ? new Subsetting(instanceId, subsetSize) : null;
+            return new JBalancer(this, subsetting);
         }
     }
 }
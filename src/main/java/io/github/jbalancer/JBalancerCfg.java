@@ -3,4 +3,42 @@ package io.github.jbalancer;
 public interface JBalancerCfg {
 
     int getPort();
+
+    /**
+     * Name of request header holding balancing key for key affine strategies.
+     *
+     * @return header name or null if balancing key is not read from header
+     */
+    default String getBalancingKeyHeader() {
+        return null;
+    }
+
+    /**
+     * Zero based index of request path segment used as balancing key for key affine strategies.
+     * Path segment is used only if request has no balancing key header.
+     *
+     * @return path segment index or negative value if balancing key is not read from path
+     */
+    default int getBalancingKeyPathSegment() {
+        return -1;
+    }
+
+    /**
+     * Name of request header holding affinity key of sticky sessions.
+     *
+     * @return header name or null if affinity key is not read from header
+     */
+    default String getAffinityHeader() {
+        return null;
+    }
+
+    /**
+     * Name of cookie holding affinity key of sticky sessions. Request without affinity key gets new affinity
+     * key set with response cookie.
+     *
+     * @return cookie name or null if sticky sessions with cookie are disabled
+     */
+    default String getAffinityCookie() {
+        return null;
+    }
 }
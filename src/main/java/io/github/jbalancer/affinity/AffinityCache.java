@@ -0,0 +1,187 @@
+package io.github.jbalancer.affinity;
+
+import io.github.jbalancer.node.BalancedNode;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of affinity key to node mappings used for sticky balancing.
+ *
+ * Cache is split into segments guarded by their own lock. Each segment holds at most its share of
+ * {@code maxSize} entries and evicts least recently used entry when full. Entry expires when it is not
+ * accessed for {@code ttl}; expired entries are removed when accessed or when they become least recently used.
+ */
+public class AffinityCache {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final long DEFAULT_TTL_MINUTES = 30L;
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AffinityCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @param maxSize maximum number of cached mappings
+     * @param ttl     time after which mapping which is not accessed expires
+     * @param unit    ttl time unit
+     */
+    public AffinityCache(int maxSize, long ttl, TimeUnit unit) {
+
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+
+        final int segmentCount = Math.min(SEGMENTS, maxSize);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * Returns node mapped to affinity key and extends mapping expiration.
+     *
+     * @param key affinity key
+     * @return mapped {@link BalancedNode} or null if there is no mapping or mapping expired
+     */
+    public BalancedNode get(String key) {
+
+        final Segment segment = segment(key);
+        final long now = System.nanoTime();
+        synchronized (segment) {
+            final Entry entry = segment.get(key);
+            if (null != entry && now - entry.expiresAt >= 0) {
+                segment.remove(key);
+                evictions.increment();
+            } else if (null != entry) {
+                entry.expiresAt = now + ttlNanos;
+                hits.increment();
+                return entry.node;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Maps affinity key to node.
+     *
+     * @param key  affinity key
+     * @param node balanced node
+     */
+    public void put(String key, BalancedNode node) {
+
+        final Segment segment = segment(key);
+        final long expiresAt = System.nanoTime() + ttlNanos;
+        synchronized (segment) {
+            segment.put(key, new Entry(node, expiresAt));
+        }
+    }
+
+    /**
+     * Removes mapping of affinity key.
+     *
+     * @param key affinity key
+     */
+    public void invalidate(String key) {
+
+        final Segment segment = segment(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * Returns current number of mappings including expired mappings which are not removed yet.
+     *
+     * @return number of mappings
+     */
+    public int size() {
+
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns number of mappings removed because cache was full or mapping expired.
+     *
+     * @return number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private Segment segment(String key) {
+
+        final int hash = key.hashCode();
+        return segments[((hash ^ (hash >>> 16)) & 0x7FFFFFFF) % segments.length];
+    }
+
+    private static final class Entry {
+
+        private final BalancedNode node;
+        private long expiresAt;
+
+        private Entry(BalancedNode node, long expiresAt) {
+            this.node = node;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final class Segment extends LinkedHashMap<String, Entry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+
+            final boolean evict = size() > capacity || System.nanoTime() - eldest.getValue().expiresAt >= 0;
+            if (evict) {
+                evictions.increment();
+            }
+            return evict;
+        }
+    }
+}
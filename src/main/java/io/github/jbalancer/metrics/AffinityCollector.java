@@ -0,0 +1,68 @@
+package io.github.jbalancer.metrics;
+
+import io.github.jbalancer.Balancer;
+import io.github.jbalancer.JBalancer;
+import io.github.jbalancer.affinity.AffinityCache;
+import io.prometheus.client.Collector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Collects affinity cache metrics of all balancers of {@link JBalancer}:
+ * <ul>
+ * <li>HITS</li>
+ * <li>MISSES</li>
+ * <li>EVICTIONS</li>
+ * <li>SIZE</li>
+ * </ul>
+ */
+public class AffinityCollector extends Collector {
+
+    private enum MetricFamily {
+        HITS("affinity_cache_hits", Type.COUNTER, "Number of requests balanced to sticky node", AffinityCache::getHits),
+        MISSES("affinity_cache_misses", Type.COUNTER, "Number of requests without valid sticky node", AffinityCache::getMisses),
+        EVICTIONS("affinity_cache_evictions", Type.COUNTER, "Number of expired or evicted sticky mappings", AffinityCache::getEvictions),
+        SIZE("affinity_cache_size", Type.GAUGE, "Number of sticky mappings", cache -> (long) cache.size());
+
+        private final String name;
+        private final Type type;
+        private final String help;
+        private final Function<AffinityCache, Long> sampleFunction;
+
+        MetricFamily(String name, Type type, String help, Function<AffinityCache, Long> sampleFunction) {
+            this.name = name;
+            this.type = type;
+            this.help = help;
+            this.sampleFunction = sampleFunction;
+        }
+
+        private MetricFamilySamples createSamples(List<MetricFamilySamples.Sample> samples) {
+            return new MetricFamilySamples(name, type, help, samples);
+        }
+    }
+
+    private final JBalancer jBalancer;
+
+    public AffinityCollector(JBalancer jBalancer) {
+        this.jBalancer = Objects.requireNonNull(jBalancer, "jBalancer must be non null");
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+
+        final List<Balancer> balancers = jBalancer.getBalancers();
+
+        List<MetricFamilySamples> familySamples = new ArrayList<>();
+        for (MetricFamily metricFamily : MetricFamily.values()) {
+            List<MetricFamilySamples.Sample> samples = new ArrayList<>();
+            balancers.forEach(b -> samples.add(new MetricFamilySamples.Sample(metricFamily.name, Collections.singletonList("balancer"),
+                    Collections.singletonList(b.getId()), metricFamily.sampleFunction.apply(b.getAffinityCache()))));
+            familySamples.add(metricFamily.createSamples(samples));
+        }
+        return familySamples;
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.jbalancer.metrics;
+
+import io.github.jbalancer.CheckScheduler;
+import io.github.jbalancer.JBalancer;
+import io.prometheus.client.Collector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Collects node check metrics of {@link JBalancer}:
+ * <ul>
+ * <li>CHECKS</li>
+ * <li>OVERRUNS</li>
+ * <li>PENDING</li>
+ * <li>SCHEDULED</li>
+ * <li>SUBSCRIBED</li>
+ * <li>MAX_LAG</li>
+ * </ul>
+ */
+public class CheckCollector extends Collector {
+
+    private enum MetricFamily {
+        CHECKS("check_total", Type.COUNTER, "Number of performed node checks", s -> (double) s.getChecks()),
+        OVERRUNS("check_overruns", Type.COUNTER, "Number of node checks started more than check period late", s -> (double) s.getOverruns()),
+        PENDING("check_pending", Type.GAUGE, "Number of node checks waiting for worker", s -> (double) s.getPending()),
+        SCHEDULED("check_scheduled", Type.GAUGE, "Number of status URIs waiting for next check", s -> (double) s.getScheduled()),
+        SUBSCRIBED("check_subscribed", Type.GAUGE, "Number of nodes updated by shared status URI checks", s -> (double) s.getSubscribed()),
+        MAX_LAG("check_max_lag_seconds", Type.GAUGE, "Maximum delay of node check start since last collection", s -> s.takeMaxLagNanos() / 1e9);
+
+        private final String name;
+        private final Type type;
+        private final String help;
+        private final Function<CheckScheduler, Double> sampleFunction;
+
+        MetricFamily(String name, Type type, String help, Function<CheckScheduler, Double> sampleFunction) {
+            this.name = name;
+            this.type = type;
+            this.help = help;
+            this.sampleFunction = sampleFunction;
+        }
+
+        private MetricFamilySamples createSamples(List<MetricFamilySamples.Sample> samples) {
+            return new MetricFamilySamples(name, type, help, samples);
+        }
+    }
+
+    private final JBalancer jBalancer;
+
+    public CheckCollector(JBalancer jBalancer) {
+        this.jBalancer = Objects.requireNonNull(jBalancer, "jBalancer must be non null");
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+
+        final CheckScheduler checkScheduler = jBalancer.getCheckScheduler();
+        if (null == checkScheduler) {
+            return Collections.emptyList();
+        }
+
+        List<MetricFamilySamples> familySamples = new ArrayList<>();
+        for (MetricFamily metricFamily : MetricFamily.values()) {
+            familySamples.add(metricFamily.createSamples(Collections.singletonList(new MetricFamilySamples.Sample(
+                    metricFamily.name, Collections.emptyList(), Collections.emptyList(),
+                    metricFamily.sampleFunction.apply(checkScheduler)))));
+        }
+        return familySamples;
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.jbalancer.metrics;
+
+import io.github.jbalancer.Balancer;
+import io.github.jbalancer.JBalancer;
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.LatencyHistogram;
+import io.prometheus.client.Collector;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Collects check time histograms of all nodes of all balancers of {@link JBalancer}:
+ * <ul>
+ * <li>CONNECT</li>
+ * <li>RESPONSE</li>
+ * </ul>
+ */
+public class NodeCheckCollector extends Collector {
+
+    private static final List<String> LABEL_NAMES = Arrays.asList("balancer", "node");
+    private static final List<String> BUCKET_LABEL_NAMES = Arrays.asList("balancer", "node", "le");
+
+    private enum MetricFamily {
+        CONNECT("node_check_connect_seconds", "Time of connecting to node status URI during check", BalancedNode::getCheckConnectTimes),
+        RESPONSE("node_check_response_seconds", "Time of receiving node check response", BalancedNode::getCheckResponseTimes);
+
+        private final String name;
+        private final String help;
+        private final Function<BalancedNode, LatencyHistogram> histogramFunction;
+
+        MetricFamily(String name, String help, Function<BalancedNode, LatencyHistogram> histogramFunction) {
+            this.name = name;
+            this.help = help;
+            this.histogramFunction = histogramFunction;
+        }
+
+        private MetricFamilySamples createSamples(List<MetricFamilySamples.Sample> samples) {
+            return new MetricFamilySamples(name, Type.HISTOGRAM, help, samples);
+        }
+
+        private void addSamples(List<MetricFamilySamples.Sample> samples, String balancerId, BalancedNode node) {
+
+            final LatencyHistogram histogram = histogramFunction.apply(node);
+            final String nodeName = nodeName(node);
+            final List<String> labelValues = Arrays.asList(balancerId, nodeName);
+            final long[] counts = histogram.getCounts();
+
+            long cumulative = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                final long upperBound = histogram.getUpperBoundNanos(i);
+                final String le = upperBound == Long.MAX_VALUE ? "+Inf" : doubleToGoString(upperBound / NANOSECONDS_PER_SECOND);
+                samples.add(new MetricFamilySamples.Sample(name + "_bucket", BUCKET_LABEL_NAMES,
+                        Arrays.asList(balancerId, nodeName, le), cumulative));
+            }
+            samples.add(new MetricFamilySamples.Sample(name + "_count", LABEL_NAMES, labelValues, cumulative));
+            samples.add(new MetricFamilySamples.Sample(name + "_sum", LABEL_NAMES, labelValues,
+                    histogram.getSumNanos() / NANOSECONDS_PER_SECOND));
+        }
+    }
+
+    private final JBalancer jBalancer;
+
+    public NodeCheckCollector(JBalancer jBalancer) {
+        this.jBalancer = Objects.requireNonNull(jBalancer, "jBalancer must be non null");
+    }
+
+    private static String nodeName(BalancedNode node) {
+
+        final URI uri = null == node.getConnection() ? node.getStatus() : node.getConnection();
+        return null == uri ? "" : uri.toString();
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+
+        final List<Balancer> balancers = jBalancer.getBalancers();
+
+        List<MetricFamilySamples> familySamples = new ArrayList<>();
+        for (MetricFamily metricFamily : MetricFamily.values()) {
+            List<MetricFamilySamples.Sample> samples = new ArrayList<>();
+            balancers.forEach(b -> b.getAll().forEach(node -> metricFamily.addSamples(samples, b.getId(), node)));
+            familySamples.add(metricFamily.createSamples(samples));
+        }
+        return familySamples;
+    }
+}
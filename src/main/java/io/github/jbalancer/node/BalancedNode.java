@@ -12,6 +12,14 @@ public interface BalancedNode {
      */
     Map<String, String> getLabels();
 
+    /**
+     * Returns balancing weight of node read from {@code weight} label. Node without valid weight label
+     * has weight {@code 1}. Node with weight {@code 0} is not balanced by weighted strategies.
+     *
+     * @return node weight
+     */
+    int getWeight();
+
     /**
      * Returns {@code true} if node is active and is safe to use. False otherwise.
      *
@@ -19,6 +27,13 @@ public interface BalancedNode {
      */
     boolean isActive();
 
+    /**
+     * Returns time elapsed since node became active. Used for slow start of newly activated nodes.
+     *
+     * @return active time in nanoseconds or {@code 0} if node is not active
+     */
+    long getActiveNanos();
+
     /**
      * Returns {@code true} if node is enabled and should be used. False otherwise.
      *
@@ -26,6 +41,77 @@ public interface BalancedNode {
      */
     boolean isEnabled();
 
+    /**
+     * Returns {@code true} if node is temporarily ejected from balancing because of failed requests.
+     *
+     * @return {@code true} or {@code false}
+     */
+    boolean isEjected();
+
+    /**
+     * Returns state of node circuit breaker.
+     *
+     * @return {@link CircuitBreaker.State}
+     */
+    CircuitBreaker.State getCircuitState();
+
+    /**
+     * Returns {@code true} if node circuit breaker admits request. Half-open circuit admits only limited number
+     * of probe requests and each admitted request consumes one probe permit, so method should be called only for
+     * node which is about to be used.
+     *
+     * @return {@code true} or {@code false}
+     */
+    boolean allowRequest();
+
+    /**
+     * Returns number of requests currently performed on node.
+     *
+     * @return number of in-flight requests
+     */
+    int getInFlight();
+
+    /**
+     * Returns adaptive limit of concurrent requests learned from observed response latency. Limit grows while
+     * recent latency is close to long term latency and shrinks when latency rises.
+     *
+     * @return maximum number of in-flight requests or {@link Integer#MAX_VALUE} if limit is disabled
+     * @see ConcurrencyLimits
+     */
+    int getConcurrencyLimit();
+
+    /**
+     * Returns {@code true} if number of in-flight requests reached concurrency limit. Saturated node is skipped
+     * by balancing strategies.
+     *
+     * @return {@code true} or {@code false}
+     */
+    boolean isSaturated();
+
+    /**
+     * Returns peak EWMA of observed response latency in nanoseconds. Value decays toward zero
+     * if no latency is recorded.
+     *
+     * @return response latency in nanoseconds or {@code 0} if latency was never recorded
+     */
+    double getLatency();
+
+    /**
+     * Returns histogram of times needed to connect to node status URI during checks. Checks reusing kept alive
+     * connection do not record connect time.
+     *
+     * @return instance of {@link LatencyHistogram}
+     */
+    LatencyHistogram getCheckConnectTimes();
+
+    /**
+     * Returns histogram of node check response times. Response time of HTTP check includes connect time if
+     * new connection was opened.
+     *
+     * @return instance of {@link LatencyHistogram}
+     */
+    LatencyHistogram getCheckResponseTimes();
+
     /**
      * Node connection {@link URI} used for connecting to serving endpoint.
      *
@@ -0,0 +1,118 @@
+package io.github.jbalancer.node;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker of requests performed on node.
+ *
+ * Closed circuit admits all requests. Circuit opens after {@value #FAILURE_THRESHOLD} consecutive failed requests
+ * and rejects all requests for open period (5 seconds by default). After that circuit is half-open and admits at most
+ * {@value #PROBES} probe requests; circuit closes when all probes succeed and opens again when any probe fails.
+ * If admitted probes don't report result within open period, probe permits are renewed.
+ * State transitions and probe permits are lock free.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    static final int FAILURE_THRESHOLD = 5;
+    static final int PROBES = 3;
+    static final long OPEN_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final long openNanos;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger(0);
+    private final AtomicInteger permits = new AtomicInteger(0);
+    private final AtomicInteger probeSuccesses = new AtomicInteger(0);
+    private final AtomicLong stamp = new AtomicLong(0L);
+
+    CircuitBreaker() {
+        this(OPEN_NANOS);
+    }
+
+    CircuitBreaker(long openNanos) {
+        this.openNanos = openNanos;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Returns {@code true} if request can be performed on node. In half-open state each admitted request
+     * consumes one probe permit.
+     *
+     * @return {@code true} or {@code false}
+     */
+    boolean allowRequest() {
+
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+
+        final long now = System.nanoTime();
+        final long since = stamp.get();
+        if (now - since < openNanos && current == State.OPEN) {
+            return false;
+        }
+        if (current == State.OPEN) {
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                probeSuccesses.set(0);
+                permits.set(PROBES);
+                stamp.set(now);
+            }
+        } else if (now - since >= openNanos && permits.get() <= 0 && stamp.compareAndSet(since, now)) {
+            permits.set(PROBES);
+        }
+
+        while (true) {
+            final int available = permits.get();
+            if (available <= 0 || state.get() != State.HALF_OPEN) {
+                return false;
+            }
+            if (permits.compareAndSet(available, available - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Records result of request performed on node.
+     *
+     * @param success {@code true} if request succeeded
+     */
+    void record(boolean success) {
+
+        switch (state.get()) {
+            case CLOSED:
+                if (success) {
+                    consecutiveFailures.set(0);
+                } else if (consecutiveFailures.incrementAndGet() >= FAILURE_THRESHOLD) {
+                    open(State.CLOSED);
+                }
+                break;
+            case HALF_OPEN:
+                if (!success) {
+                    open(State.HALF_OPEN);
+                } else if (probeSuccesses.incrementAndGet() >= PROBES && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                    consecutiveFailures.set(0);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void open(State expected) {
+
+        permits.set(0);
+        stamp.set(System.nanoTime());
+        state.compareAndSet(expected, State.OPEN);
+    }
+}
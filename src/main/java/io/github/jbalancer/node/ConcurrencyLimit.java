@@ -0,0 +1,72 @@
+package io.github.jbalancer.node;
+
+/**
+ * Adaptive limit of concurrent requests performed on node, learned with gradient of response latency.
+ *
+ * Latency samples are averaged into short term and long term moving averages. While short term latency stays
+ * within tolerance of long term latency limit grows by square root of limit, when short term latency rises limit
+ * shrinks proportionally to latency gradient (at most by half per sample). Averages instead of minimum latency
+ * keep node with mixed latencies (e.g. fast and slow endpoints) at stable limit, because both averages follow
+ * the mix. Samples are ignored when node is used below half of its limit so limit doesn't grow without evidence
+ * that node can handle it.
+ */
+class ConcurrencyLimit {
+
+    static final int MIN_LIMIT = 1;
+    static final int MAX_LIMIT = 1000;
+
+    private static final double SHORT_SMOOTHING = 0.1;
+    private static final double LONG_SMOOTHING = 0.01;
+    private static final double SMOOTHING = 0.2;
+
+    private final double tolerance;
+
+    private volatile double limit;
+    private double shortLatency;
+    private double longLatency;
+
+    ConcurrencyLimit(int initialLimit, double tolerance) {
+        this.limit = initialLimit;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Returns current limit.
+     *
+     * @return maximum number of concurrent requests
+     */
+    int get() {
+        return (int) limit;
+    }
+
+    /**
+     * Updates limit with latency sample.
+     *
+     * @param latencyNanos observed latency in nanoseconds
+     * @param inFlight     number of in-flight requests including sampled request
+     */
+    synchronized void update(long latencyNanos, int inFlight) {
+
+        if (latencyNanos <= 0) {
+            return;
+        }
+
+        if (longLatency == 0.0) {
+            shortLatency = latencyNanos;
+            longLatency = latencyNanos;
+        } else {
+            shortLatency += (latencyNanos - shortLatency) * SHORT_SMOOTHING;
+            longLatency += (latencyNanos - longLatency) * LONG_SMOOTHING;
+        }
+
+        final double current = limit;
+        if (inFlight < current / 2) {
+            return;
+        }
+
+        final double gradient = Math.max(0.5, Math.min(1.0, tolerance * longLatency / shortLatency));
+        final double estimated = current * gradient + Math.sqrt(current);
+        final double smoothed = current * (1 - SMOOTHING) + estimated * SMOOTHING;
+        limit = Math.max(MIN_LIMIT, Math.min(MAX_LIMIT, smoothed));
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.jbalancer.node;
+
+/**
+ * Settings of adaptive concurrency limit of nodes.
+ *
+ * Limit starts at {@code initialLimit} and adapts to gradient of response latency: it grows while short term
+ * latency stays within {@code tolerance} of long term latency and shrinks when short term latency rises above it.
+ * Saturated node is skipped by balancing strategies, so limit is disabled by default.
+ *
+ * @see Node#setConcurrencyLimits(ConcurrencyLimits)
+ */
+public final class ConcurrencyLimits {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final double DEFAULT_TOLERANCE = 1.5;
+
+    /**
+     * Nodes are never saturated.
+     */
+    public static final ConcurrencyLimits DISABLED = new ConcurrencyLimits(0, 0.0);
+
+    private final int initialLimit;
+    private final double tolerance;
+
+    private ConcurrencyLimits(int initialLimit, double tolerance) {
+        this.initialLimit = initialLimit;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @return adaptive limit with default settings
+     */
+    public static ConcurrencyLimits adaptive() {
+        return of(DEFAULT_INITIAL_LIMIT, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param initialLimit limit of node without latency samples
+     * @param tolerance    ratio of short term to long term latency which does not shrink limit
+     * @return instance of {@link ConcurrencyLimits}
+     */
+    public static ConcurrencyLimits of(int initialLimit, double tolerance) {
+
+        if (initialLimit < ConcurrencyLimit.MIN_LIMIT || initialLimit > ConcurrencyLimit.MAX_LIMIT) {
+            throw new IllegalArgumentException("Initial limit must be in range [" + ConcurrencyLimit.MIN_LIMIT
+                    + ", " + ConcurrencyLimit.MAX_LIMIT + "]: " + initialLimit);
+        }
+        if (tolerance < 1.0) {
+            throw new IllegalArgumentException("Tolerance must not be lower than 1: " + tolerance);
+        }
+        return new ConcurrencyLimits(initialLimit, tolerance);
+    }
+
+    public boolean isEnabled() {
+        return initialLimit > 0;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ConcurrencyLimits that = (ConcurrencyLimits) o;
+        return initialLimit == that.initialLimit && Double.compare(that.tolerance, tolerance) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * initialLimit + Double.hashCode(tolerance);
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimits{initialLimit=" + initialLimit + ", tolerance=" + tolerance + '}';
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.jbalancer.node;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Node selector which selects nodes having all provided labels with equal values.
+ *
+ * Label selectors are resolved with label index of {@link Snapshot} instead of testing every node.
+ *
+ * @see Snapshot#select(Predicate)
+ */
+public final class LabelSelector implements Predicate<BalancedNode> {
+
+    private final Map<String, String> labels;
+
+    private LabelSelector(Map<String, String> labels) {
+        this.labels = Collections.unmodifiableMap(labels);
+    }
+
+    public static LabelSelector of(String key, String value) {
+        return of(Collections.singletonMap(key, value));
+    }
+
+    public static LabelSelector of(Map<String, String> labels) {
+
+        Objects.requireNonNull(labels, "labels must be non null");
+        return new LabelSelector(new LinkedHashMap<>(labels));
+    }
+
+    /**
+     * Returns new selector which additionally requires provided label.
+     *
+     * @param key   label key
+     * @param value label value
+     * @return new {@link LabelSelector}
+     */
+    public LabelSelector and(String key, String value) {
+
+        final Map<String, String> result = new LinkedHashMap<>(labels);
+        result.put(key, value);
+        return new LabelSelector(result);
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    @Override
+    public boolean test(BalancedNode node) {
+
+        final Map<String, String> nodeLabels = node.getLabels();
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            if (!Objects.equals(label.getValue(), nodeLabels.get(label.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LabelSelector that = (LabelSelector) o;
+        return Objects.equals(labels, that.labels);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(labels);
+    }
+
+    @Override
+    public String toString() {
+        return "LabelSelector{" +
+                "labels=" + labels +
+                '}';
+    }
+}
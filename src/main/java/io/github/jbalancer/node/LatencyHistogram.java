@@ -0,0 +1,144 @@
+package io.github.jbalancer.node;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies with fixed buckets from {@code 250us} to {@code 10s} and one overflow bucket.
+ *
+ * Recording finds bucket with binary search over bucket upper bounds and increments its counter, so it does not
+ * allocate and does not lock. Counters are not read atomically together, so snapshot read during recording may
+ * miss latest values.
+ */
+public final class LatencyHistogram {
+
+    private static final long[] UPPER_BOUNDS_NANOS = {
+            TimeUnit.MICROSECONDS.toNanos(250),
+            TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MICROSECONDS.toNanos(2500),
+            TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(25),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(250),
+            TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.SECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(2500),
+            TimeUnit.SECONDS.toNanos(5),
+            TimeUnit.SECONDS.toNanos(10)
+    };
+
+    private final AtomicLongArray counts = new AtomicLongArray(UPPER_BOUNDS_NANOS.length + 1);
+    private final AtomicLong sumNanos = new AtomicLong();
+
+    /**
+     * Records one latency sample. Negative latency is recorded as {@code 0}.
+     *
+     * @param latencyNanos latency in nanoseconds
+     */
+    void record(long latencyNanos) {
+
+        final long latency = Math.max(latencyNanos, 0L);
+        counts.incrementAndGet(bucket(latency));
+        sumNanos.addAndGet(latency);
+    }
+
+    private static int bucket(long latencyNanos) {
+
+        int low = 0;
+        int high = UPPER_BOUNDS_NANOS.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (latencyNanos <= UPPER_BOUNDS_NANOS[middle]) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns number of buckets including overflow bucket.
+     *
+     * @return number of buckets
+     */
+    public int getBucketCount() {
+        return counts.length();
+    }
+
+    /**
+     * Returns inclusive upper bound of bucket.
+     *
+     * @param bucket bucket index
+     * @return upper bound in nanoseconds or {@link Long#MAX_VALUE} for overflow bucket
+     */
+    public long getUpperBoundNanos(int bucket) {
+        return bucket < UPPER_BOUNDS_NANOS.length ? UPPER_BOUNDS_NANOS[bucket] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns number of samples recorded in each bucket.
+     *
+     * @return array of bucket counts, not cumulative
+     */
+    public long[] getCounts() {
+
+        final long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return number of recorded samples
+     */
+    public long getCount() {
+
+        long count = 0L;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return sum of recorded samples in nanoseconds
+     */
+    public long getSumNanos() {
+        return sumNanos.get();
+    }
+
+    /**
+     * Returns upper bound of bucket containing provided quantile of recorded samples.
+     *
+     * @param quantile quantile in range [0, 1]
+     * @return latency in nanoseconds, {@code 0} if no sample was recorded or {@link Long#MAX_VALUE} if quantile
+     * falls into overflow bucket
+     */
+    public long getQuantileNanos(double quantile) {
+
+        final long[] snapshot = getCounts();
+        long total = 0L;
+        for (long count : snapshot) {
+            total += count;
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+
+        final long rank = Math.max(1L, (long) Math.ceil(Math.min(Math.max(quantile, 0.0), 1.0) * total));
+        long seen = 0L;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return getUpperBoundNanos(i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.jbalancer.node;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Handle of {@link Node} acquired for performing one request.
+ *
+ * Node in-flight request counter is incremented when lease is acquired and decremented when lease is released.
+ * Time between acquire and release is recorded as node response latency and request result is recorded for
+ * passive outlier detection. Failed request is recorded as penalty latency, so failing node does not look fast.
+ * Lease should be released when request completes. Subsequent releases have no effect.
+ */
+public class Lease implements AutoCloseable {
+
+    private final Node node;
+    private final Consumer<Node> ejectionListener;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+    private final long start;
+
+    Lease(Node node, Consumer<Node> ejectionListener) {
+        this.node = node;
+        this.ejectionListener = ejectionListener;
+        node.incrementInFlight();
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Returns leased node.
+     *
+     * @return leased {@link BalancedNode}
+     */
+    public BalancedNode getNode() {
+        return node;
+    }
+
+    /**
+     * Releases lease of successfully completed request.
+     *
+     * @see #release(boolean)
+     */
+    public void release() {
+        release(true);
+    }
+
+    /**
+     * Releases lease, records response latency and request result and decrements in-flight request counter
+     * of leased node.
+     *
+     * @param success {@code false} if request failed or node responded with server error
+     */
+    public void release(boolean success) {
+
+        if (released.compareAndSet(false, true)) {
+            if (success) {
+                node.recordLatency(System.nanoTime() - start);
+            } else {
+                node.recordFailedLatency(System.nanoTime() - start);
+            }
+            final boolean ejected = node.recordResult(success);
+            node.decrementInFlight();
+            if (ejected && null != ejectionListener) {
+                ejectionListener.accept(node);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+}
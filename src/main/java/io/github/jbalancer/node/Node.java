@@ -2,16 +2,51 @@ package io.github.jbalancer.node;
 
 import java.net.URI;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Represent one network node identified by connection {@link URI} and status {@link URI}.
  */
 public class Node implements BalancedNode {
 
+    /**
+     * Label holding node balancing weight.
+     */
+    public static final String WEIGHT_LABEL = "weight";
+
+    /**
+     * Weight of node without valid weight label.
+     */
+    public static final int DEFAULT_WEIGHT = 1;
+
+    /**
+     * Maximum node weight. Larger weights are limited to this value.
+     */
+    public static final int MAX_WEIGHT = 100;
+
+    /**
+     * Time after which recorded latency loses most of its weight.
+     */
+    private static final long LATENCY_DECAY_SECONDS = 10L;
+
+    /**
+     * Minimum latency recorded for failed request, so fast failures don't make node look fast.
+     */
+    private static final long FAILURE_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Check streak of node which was never checked.
+     */
+    private static final int UNCHECKED = Integer.MIN_VALUE;
+
     /**
      * Node aliveness - true or false.
      */
@@ -22,11 +57,56 @@ public class Node implements BalancedNode {
      */
     private final AtomicBoolean active = new AtomicBoolean(false);
 
+    /**
+     * Consecutive check results - positive number of successes or negative number of failures.
+     */
+    private final AtomicInteger checkStreak = new AtomicInteger(UNCHECKED);
+
+    /**
+     * {@link System#nanoTime()} when node became active.
+     */
+    private volatile long activatedAt;
+
     /**
      * Node availability - {@code true} if node can become active {@code false} if can't.
      */
     private final AtomicBoolean enabled = new AtomicBoolean(true);
 
+    /**
+     * Number of requests currently performed on node.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    /**
+     * Peak EWMA of observed response latency.
+     */
+    private final PeakEwma latency = new PeakEwma(LATENCY_DECAY_SECONDS, TimeUnit.SECONDS);
+
+    /**
+     * Settings of adaptive limit of in-flight requests.
+     */
+    private volatile ConcurrencyLimits concurrencyLimits = ConcurrencyLimits.DISABLED;
+
+    /**
+     * Adaptive limit of in-flight requests or null if limit is disabled.
+     */
+    private volatile ConcurrencyLimit concurrencyLimit;
+
+    /**
+     * Passive outlier detection from request results.
+     */
+    private final OutlierDetector outlierDetector = new OutlierDetector();
+
+    /**
+     * Circuit breaker of requests performed on node.
+     */
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * Listeners of node state transitions.
+     */
+    private final CopyOnWriteArrayList<NodeListener> listeners = new CopyOnWriteArrayList<>();
+
     /**
      * Node connection {@link URI}. {@link URI} for client connect.
      */
@@ -40,13 +120,33 @@ public class Node implements BalancedNode {
     /**
      * Set of labels for additional node description.
      */
-    private Map<String, String> labels;
+    private volatile Map<String, String> labels;
+
+    /**
+     * Balancing weight read from {@link #WEIGHT_LABEL} label.
+     */
+    private volatile int weight;
 
     /**
      * Check status message.
      */
     private volatile String checkStatus;
 
+    /**
+     * Duration of last check which reached node in nanoseconds.
+     */
+    private volatile long checkLatency;
+
+    /**
+     * Histogram of check connect times. Shared with nodes whose check result is copied from this node.
+     */
+    private volatile LatencyHistogram checkConnectTimes = new LatencyHistogram();
+
+    /**
+     * Histogram of check response times. Shared with nodes whose check result is copied from this node.
+     */
+    private volatile LatencyHistogram checkResponseTimes = new LatencyHistogram();
+
     public Node(URI connection, URI status) {
         this(Collections.emptyMap(), connection, status);
     }
@@ -55,12 +155,45 @@ public class Node implements BalancedNode {
         this.labels = Optional.ofNullable(labels).orElseGet(Collections::emptyMap);
         this.connection = connection;
         this.status = status;
+        this.weight = parseWeight(this.labels);
+    }
+
+    private static int parseWeight(Map<String, String> labels) {
+
+        final Object value = labels.get(WEIGHT_LABEL);
+        if (null == value) {
+            return DEFAULT_WEIGHT;
+        }
+
+        try {
+            return Math.min(Math.max(Integer.parseInt(String.valueOf(value).trim()), 0), MAX_WEIGHT);
+        } catch (NumberFormatException e) {
+            return DEFAULT_WEIGHT;
+        }
     }
 
     public Map<String, String> getLabels() {
         return labels;
     }
 
+    /**
+     * Replaces labels and weight of node, e.g. when discovery changed labels of known node. Node keeps its state,
+     * but equality of node changes, so node must not be used as key of hash based collection while relabeled.
+     *
+     * @param labels new labels
+     */
+    public void setLabels(Map<String, String> labels) {
+
+        final Map<String, String> replacement = Optional.ofNullable(labels).orElseGet(Collections::emptyMap);
+        this.weight = parseWeight(replacement);
+        this.labels = replacement;
+    }
+
+    @Override
+    public int getWeight() {
+        return weight;
+    }
+
     public boolean isAlive() {
         return alive.get();
     }
@@ -81,7 +214,23 @@ public class Node implements BalancedNode {
     }
 
     public void setActive(boolean active) {
-        this.active.compareAndSet(!active, active);
+
+        if (!this.active.compareAndSet(!active, active)) {
+            return;
+        }
+        if (active) {
+            activatedAt = System.nanoTime();
+        }
+        fire(active ? NodeEvent.Type.ACTIVATED : NodeEvent.Type.DEACTIVATED);
+    }
+
+    @Override
+    public long getActiveNanos() {
+
+        if (!active.get()) {
+            return 0L;
+        }
+        return Math.max(System.nanoTime() - activatedAt, 0L);
     }
 
     public boolean setActiveAndGetPrevious(boolean active) {
@@ -91,16 +240,212 @@ public class Node implements BalancedNode {
         return previous;
     }
 
+    /**
+     * Records result of one node check and changes node activeness only after {@code rise} consecutive
+     * successful checks or {@code fall} consecutive failed checks. First check of node changes activeness
+     * immediately, so new nodes are not held back by thresholds.
+     *
+     * @param success {@code true} if node passed check
+     * @param rise    number of consecutive successful checks which activate node
+     * @param fall    number of consecutive failed checks which deactivate node
+     * @return {@code true} if node activeness changed
+     */
+    public boolean recordCheck(boolean success, int rise, int fall) {
+
+        int current;
+        int next;
+        do {
+            current = checkStreak.get();
+            if (current == UNCHECKED) {
+                next = success ? rise : -fall;
+            } else if (success) {
+                next = Math.min(Math.max(current, 0) + 1, rise);
+            } else {
+                next = Math.max(Math.min(current, 0) - 1, -fall);
+            }
+        } while (!checkStreak.compareAndSet(current, next));
+
+        if (next >= rise) {
+            return !setActiveAndGetPrevious(true);
+        }
+        if (-next >= fall) {
+            return setActiveAndGetPrevious(false);
+        }
+        return false;
+    }
+
     public boolean isEnabled() {
         return enabled.get();
     }
 
     public void enable() {
-        this.enabled.compareAndSet(false, true);
+
+        if (this.enabled.compareAndSet(false, true)) {
+            fire(NodeEvent.Type.ENABLED);
+        }
     }
 
     public void disable() {
-        this.enabled.compareAndSet(true, false);
+
+        if (this.enabled.compareAndSet(true, false)) {
+            fire(NodeEvent.Type.DISABLED);
+        }
+    }
+
+    /**
+     * Adds listener of activeness and enablement transitions of this node. Listener is called on thread which
+     * changed node state. Listener added more than once is called once.
+     *
+     * @param listener instance of {@link NodeListener}
+     */
+    public void addListener(NodeListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(NodeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fire(NodeEvent.Type type) {
+
+        if (listeners.isEmpty()) {
+            return;
+        }
+        final List<NodeEvent> events = Collections.singletonList(new NodeEvent(type, this));
+        for (NodeListener listener : listeners) {
+            listener.onEvents(events);
+        }
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public double getLatency() {
+        return latency.get();
+    }
+
+    @Override
+    public int getConcurrencyLimit() {
+
+        final ConcurrencyLimit limit = concurrencyLimit;
+        return null == limit ? Integer.MAX_VALUE : limit.get();
+    }
+
+    @Override
+    public boolean isSaturated() {
+
+        final ConcurrencyLimit limit = concurrencyLimit;
+        return null != limit && inFlight.get() >= limit.get();
+    }
+
+    public ConcurrencyLimits getConcurrencyLimits() {
+        return concurrencyLimits;
+    }
+
+    /**
+     * Enables, disables or reconfigures adaptive concurrency limit of node. Learned limit is kept if settings
+     * did not change.
+     *
+     * @param limits concurrency limit settings
+     */
+    public synchronized void setConcurrencyLimits(ConcurrencyLimits limits) {
+
+        if (concurrencyLimits.equals(limits)) {
+            return;
+        }
+        concurrencyLimit = limits.isEnabled() ? new ConcurrencyLimit(limits.getInitialLimit(), limits.getTolerance()) : null;
+        concurrencyLimits = limits;
+    }
+
+    /**
+     * Records observed response latency of node. Latency updates latency average and concurrency limit.
+     *
+     * @param latencyNanos response latency in nanoseconds
+     */
+    public void recordLatency(long latencyNanos) {
+
+        latency.observe(latencyNanos);
+        final ConcurrencyLimit limit = concurrencyLimit;
+        if (null != limit) {
+            limit.update(latencyNanos, inFlight.get());
+        }
+    }
+
+    /**
+     * Records latency of failed request as penalty sample of latency average. Failed request latency is not used
+     * for concurrency limit, because time of failure says nothing about node capacity.
+     *
+     * @param latencyNanos failed request latency in nanoseconds
+     */
+    public void recordFailedLatency(long latencyNanos) {
+        latency.observe(Math.max(latencyNanos, FAILURE_LATENCY_NANOS));
+    }
+
+    @Override
+    public boolean isEjected() {
+        return outlierDetector.isEjected();
+    }
+
+    /**
+     * Returns time until ejection of node expires.
+     *
+     * @param unit time unit of returned value
+     * @return remaining ejection time or {@code 0} if node is not ejected
+     */
+    public long getRemainingEjection(TimeUnit unit) {
+        return unit.convert(outlierDetector.getRemainingEjectionNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @Override
+    public boolean allowRequest() {
+        return circuitBreaker.allowRequest();
+    }
+
+    /**
+     * Records result of request performed on node for circuit breaker and passive outlier detection.
+     *
+     * @param success {@code false} if request failed or node responded with server error
+     * @return {@code true} if node is ejected by this result
+     */
+    public boolean recordResult(boolean success) {
+
+        circuitBreaker.record(success);
+        return outlierDetector.record(success);
+    }
+
+    /**
+     * Acquires node for performing one request. Returned lease must be released when request completes.
+     *
+     * @return instance of {@link Lease}
+     */
+    public Lease lease() {
+        return lease(null);
+    }
+
+    /**
+     * Acquires node for performing one request. Returned lease must be released when request completes.
+     *
+     * @param ejectionListener called with this node when node is ejected by result of leased request; can be null
+     * @return instance of {@link Lease}
+     */
+    public Lease lease(Consumer<Node> ejectionListener) {
+        return new Lease(this, ejectionListener);
+    }
+
+    void incrementInFlight() {
+        inFlight.incrementAndGet();
+    }
+
+    void decrementInFlight() {
+        inFlight.decrementAndGet();
     }
 
     public String getCheckStatus() {
@@ -111,6 +456,60 @@ public class Node implements BalancedNode {
         this.checkStatus = checkStatus;
     }
 
+    /**
+     * Copies result of last check of other node, e.g. node with same status URI checked by other balancer.
+     * Check streak is copied too, so rise and fall thresholds hold when this node is checked next.
+     * Check time histograms of other node are shared with this node.
+     *
+     * @param checked checked node
+     */
+    public void applyCheck(Node checked) {
+
+        checkStreak.set(checked.checkStreak.get());
+        checkConnectTimes = checked.checkConnectTimes;
+        checkResponseTimes = checked.checkResponseTimes;
+        setCheckLatency(checked.getCheckLatency());
+        setCheckStatus(checked.getCheckStatus());
+        setAlive(checked.isAlive());
+        setActive(checked.isActive());
+    }
+
+    public long getCheckLatency() {
+        return checkLatency;
+    }
+
+    public void setCheckLatency(long checkLatency) {
+        this.checkLatency = checkLatency;
+    }
+
+    /**
+     * Records time of establishing connection to status URI during check.
+     *
+     * @param connectNanos connect time in nanoseconds
+     */
+    public void recordCheckConnectTime(long connectNanos) {
+        checkConnectTimes.record(connectNanos);
+    }
+
+    /**
+     * Records time from sending check request to receiving complete response.
+     *
+     * @param responseNanos response time in nanoseconds
+     */
+    public void recordCheckResponseTime(long responseNanos) {
+        checkResponseTimes.record(responseNanos);
+    }
+
+    @Override
+    public LatencyHistogram getCheckConnectTimes() {
+        return checkConnectTimes;
+    }
+
+    @Override
+    public LatencyHistogram getCheckResponseTimes() {
+        return checkResponseTimes;
+    }
+
     @Override
     public URI getConnection() {
         return connection;
@@ -0,0 +1,75 @@
+package io.github.jbalancer.node;
+
+import java.util.Objects;
+
+/**
+ * State transition of one {@link Node}.
+ */
+public final class NodeEvent {
+
+    public enum Type {
+
+        /**
+         * Node became active.
+         */
+        ACTIVATED,
+
+        /**
+         * Node became inactive.
+         */
+        DEACTIVATED,
+
+        /**
+         * Node was enabled.
+         */
+        ENABLED,
+
+        /**
+         * Node was disabled.
+         */
+        DISABLED,
+
+        /**
+         * Node was added to balancer by discovery.
+         */
+        DISCOVERED,
+
+        /**
+         * Node was removed from balancer by discovery.
+         */
+        REMOVED
+    }
+
+    private final Type type;
+    private final BalancedNode node;
+    private final long timestamp;
+
+    public NodeEvent(Type type, BalancedNode node) {
+        this.type = Objects.requireNonNull(type, "type must be non null");
+        this.node = node;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public BalancedNode getNode() {
+        return node;
+    }
+
+    /**
+     * @return time of transition in milliseconds since epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "NodeEvent{" +
+                "type=" + type +
+                ", node=" + node +
+                '}';
+    }
+}
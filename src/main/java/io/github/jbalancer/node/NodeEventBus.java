@@ -0,0 +1,144 @@
+package io.github.jbalancer.node;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers {@link NodeEvent} to registered listeners in batches.
+ *
+ * Published events are added to lock-free queue. Thread which publishes event drains queue and delivers events in
+ * batches of at most {@code maxBatchSize} events unless other thread is already draining, in which case that
+ * thread delivers published event too. Events published while bus is held are queued and delivered when holding
+ * call releases its hold, so burst of transitions (e.g. check of all nodes) is delivered as one batch. Holds are
+ * counted per thread: event published by thread which holds nothing is delivered immediately and each holding
+ * call delivers queued events on its own outermost release, regardless of holds of other threads, so slow call
+ * does not delay transitions of concurrent calls.
+ */
+public final class NodeEventBus implements NodeListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NodeEventBus.class);
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+
+    private final Queue<NodeEvent> queue = new ConcurrentLinkedQueue<>();
+    private final List<NodeListener> listeners = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<int[]> threadHolds = new ThreadLocal<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final int maxBatchSize;
+
+    public NodeEventBus() {
+        this(DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public NodeEventBus(int maxBatchSize) {
+
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void addListener(NodeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(NodeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Publishes one event.
+     *
+     * @param event published event
+     */
+    public void publish(NodeEvent event) {
+
+        queue.offer(event);
+        if (!isHeld()) {
+            drain();
+        }
+    }
+
+    @Override
+    public void onEvents(List<NodeEvent> events) {
+
+        events.forEach(queue::offer);
+        if (!isHeld()) {
+            drain();
+        }
+    }
+
+    /**
+     * Defers delivery of published events until {@link #release()}. Hold must be released by same thread.
+     */
+    public void hold() {
+
+        int[] held = threadHolds.get();
+        if (null == held) {
+            held = new int[1];
+            threadHolds.set(held);
+        }
+        held[0]++;
+    }
+
+    /**
+     * Releases hold and delivers queued events if no other hold of current thread remains.
+     */
+    public void release() {
+
+        if (--threadHolds.get()[0] == 0) {
+            threadHolds.remove();
+            drain();
+        }
+    }
+
+    /**
+     * Returns {@code true} if calling thread holds bus. Hold counter of thread exists only while thread holds bus.
+     */
+    private boolean isHeld() {
+        return null != threadHolds.get();
+    }
+
+    private void drain() {
+
+        while (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+            try {
+                List<NodeEvent> batch;
+                while (!(batch = poll()).isEmpty()) {
+                    deliver(Collections.unmodifiableList(batch));
+                }
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    private List<NodeEvent> poll() {
+
+        final List<NodeEvent> batch = new ArrayList<>();
+        NodeEvent event;
+        while (batch.size() < maxBatchSize && null != (event = queue.poll())) {
+            batch.add(event);
+        }
+        return batch;
+    }
+
+    private void deliver(List<NodeEvent> batch) {
+
+        for (NodeListener listener : listeners) {
+            try {
+                listener.onEvents(batch);
+            } catch (Exception e) {
+                LOGGER.error("Error delivering {} node events", batch.size(), e);
+            }
+        }
+    }
+}
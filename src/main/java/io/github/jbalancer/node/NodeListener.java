@@ -0,0 +1,16 @@
+package io.github.jbalancer.node;
+
+import java.util.List;
+
+/**
+ * Receives batches of {@link NodeEvent} in order of transitions. Listener is called on thread which caused or
+ * delivers transitions, so it must not block.
+ */
+@FunctionalInterface
+public interface NodeListener {
+
+    /**
+     * @param events non empty unmodifiable list of events
+     */
+    void onEvents(List<NodeEvent> events);
+}
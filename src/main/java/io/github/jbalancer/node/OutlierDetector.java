@@ -0,0 +1,113 @@
+package io.github.jbalancer.node;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passive outlier detection from results of requests performed on node.
+ *
+ * Node is ejected when it fails {@value #CONSECUTIVE_FAILURES} consecutive requests or when at least half of last
+ * {@value #WINDOW} requests failed (with at least {@value #MIN_REQUESTS} requests in window). Ejection period
+ * doubles with each subsequent ejection up to {@link #MAX_EJECTION_NANOS} and is reset when node is not ejected
+ * for longer than maximum ejection period. Results recorded while node is ejected are ignored.
+ */
+class OutlierDetector {
+
+    static final int CONSECUTIVE_FAILURES = 5;
+    static final int WINDOW = 100;
+    static final int MIN_REQUESTS = 20;
+    static final long BASE_EJECTION_NANOS = TimeUnit.SECONDS.toNanos(10);
+    static final long MAX_EJECTION_NANOS = TimeUnit.SECONDS.toNanos(300);
+
+    private static final double FAILURE_RATE = 0.5;
+
+    private final boolean[] window = new boolean[WINDOW];
+    private int position;
+    private int requests;
+    private int failures;
+    private int consecutiveFailures;
+    private int ejections;
+
+    private volatile boolean ejected;
+    private volatile long ejectedUntil;
+
+    /**
+     * Records result of one request.
+     *
+     * @param success {@code true} if request succeeded
+     * @return {@code true} if node is ejected by this result
+     */
+    synchronized boolean record(boolean success) {
+
+        final long now = System.nanoTime();
+        if (isEjected(now)) {
+            return false;
+        }
+
+        if (requests == WINDOW && window[position]) {
+            failures--;
+        }
+        window[position] = !success;
+        position = (position + 1) % WINDOW;
+        requests = Math.min(requests + 1, WINDOW);
+        if (success) {
+            consecutiveFailures = 0;
+            return false;
+        }
+        failures++;
+        consecutiveFailures++;
+
+        if (consecutiveFailures >= CONSECUTIVE_FAILURES || (requests >= MIN_REQUESTS && failures >= FAILURE_RATE * requests)) {
+            eject(now);
+            return true;
+        }
+        return false;
+    }
+
+    private void eject(long now) {
+
+        if (ejected && now - ejectedUntil > MAX_EJECTION_NANOS) {
+            ejections = 0;
+        }
+        ejections++;
+        ejectedUntil = now + Math.min(BASE_EJECTION_NANOS << Math.min(ejections - 1, 30), MAX_EJECTION_NANOS);
+        ejected = true;
+
+        position = 0;
+        requests = 0;
+        failures = 0;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Returns {@code true} if node is ejected at this moment.
+     *
+     * @return {@code true} or {@code false}
+     */
+    boolean isEjected() {
+        return isEjected(System.nanoTime());
+    }
+
+    private boolean isEjected(long now) {
+        return ejected && now - ejectedUntil < 0;
+    }
+
+    /**
+     * Returns time until ejection expires.
+     *
+     * @return remaining ejection nanoseconds or {@code 0} if node is not ejected
+     */
+    long getRemainingEjectionNanos() {
+
+        final long now = System.nanoTime();
+        return isEjected(now) ? ejectedUntil - now : 0L;
+    }
+
+    /**
+     * Returns number of ejections since ejection period was last reset.
+     *
+     * @return number of ejections
+     */
+    int getEjections() {
+        return ejections;
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.jbalancer.node;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Peak exponentially weighted moving average of observed latency.
+ *
+ * Latency above current average replaces average immediately so latency spikes are visible at once.
+ * Lower latency is blended into average with weight depending on time elapsed from previous observation.
+ * Average read decays toward zero with time so node without recent observations is eventually retried.
+ */
+class PeakEwma {
+
+    private final double decayNanos;
+
+    private volatile double value;
+    private volatile long stamp = System.nanoTime();
+
+    PeakEwma(long decay, TimeUnit unit) {
+        this.decayNanos = unit.toNanos(decay);
+    }
+
+    /**
+     * Observes latency sample.
+     *
+     * @param latencyNanos observed latency in nanoseconds
+     */
+    synchronized void observe(long latencyNanos) {
+
+        final long now = System.nanoTime();
+        if (latencyNanos > value) {
+            value = latencyNanos;
+        } else {
+            final double weight = weight(now);
+            value = value * weight + latencyNanos * (1.0 - weight);
+        }
+        stamp = now;
+    }
+
+    /**
+     * Returns current average in nanoseconds decayed to current time.
+     *
+     * @return average latency in nanoseconds or {@code 0} if no observations
+     */
+    double get() {
+
+        final double current = value;
+        if (current == 0.0) {
+            return 0.0;
+        }
+        return current * weight(System.nanoTime());
+    }
+
+    private double weight(long now) {
+        return Math.exp(-Math.max(now - stamp, 0L) / decayNanos);
+    }
+}
@@ -0,0 +1,348 @@
+package io.github.jbalancer.node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Immutable and versioned view of available nodes. Node is available if it is enabled, active and not ejected.
+ *
+ * Snapshot is rebuilt by balancer only when state of some node changes so strategies can perform
+ * balancing over snapshot nodes without copying or filtering node list on every call. Data derived from
+ * snapshot nodes (e.g. balancing schedules) can be attached to snapshot and is computed once per snapshot.
+ *
+ * Nodes ejected by passive outlier detection are not available, but at most {@code maxEjectionPercent} of
+ * enabled and active nodes are excluded from snapshot so ejection can't remove all nodes.
+ *
+ * Snapshot maintains inverted index of node labels so nodes selected with {@link LabelSelector} are resolved
+ * with bitset intersection. Label selections are cached in snapshot. Selections with other predicates create
+ * transient snapshots which are used for one balancing and don't cache attachments.
+ */
+public final class Snapshot {
+
+    private static final BalancedNode[] NO_NODES = new BalancedNode[0];
+    private static final Object POSITIONS_KEY = new Object();
+    private static final Snapshot EMPTY = new Snapshot(0L, NO_NODES, NO_NODES, NO_NODES, false);
+
+    /**
+     * Default maximum percent of enabled and active nodes excluded from snapshot because of ejection.
+     */
+    public static final int DEFAULT_MAX_EJECTION_PERCENT = 50;
+
+    /**
+     * Maximum number of attachments (including cached label selections) per snapshot.
+     */
+    private static final int MAX_ATTACHMENTS = 256;
+
+    private final long version;
+    private final BalancedNode[] nodes;
+    private final List<BalancedNode> nodeList;
+    private final BalancedNode[] ejected;
+    private final BalancedNode[] unavailable;
+    private final boolean transientSnapshot;
+    private final ConcurrentMap<Object, Object> attachments = new ConcurrentHashMap<>(4);
+
+    /**
+     * Label key to label value to bitset of node positions.
+     */
+    private volatile Map<String, Map<String, BitSet>> labelIndex;
+
+    private Snapshot(long version, BalancedNode[] nodes, BalancedNode[] ejected, BalancedNode[] unavailable,
+                     boolean transientSnapshot) {
+        this.version = version;
+        this.nodes = nodes;
+        this.nodeList = Collections.unmodifiableList(Arrays.asList(nodes));
+        this.ejected = ejected;
+        this.unavailable = unavailable;
+        this.transientSnapshot = transientSnapshot;
+    }
+
+    /**
+     * Returns empty snapshot with version {@code 0}.
+     *
+     * @return empty {@link Snapshot}
+     */
+    public static Snapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates new snapshot containing only available (enabled, active and not ejected) nodes from provided list
+     * with {@link #DEFAULT_MAX_EJECTION_PERCENT}.
+     *
+     * @param version snapshot version
+     * @param nodes   list of all nodes
+     * @return instance of {@link Snapshot}
+     */
+    public static Snapshot create(long version, List<? extends BalancedNode> nodes) {
+        return create(version, nodes, DEFAULT_MAX_EJECTION_PERCENT);
+    }
+
+    /**
+     * Creates new snapshot containing only available (enabled, active and not ejected) nodes from provided list.
+     * Ejected nodes are excluded in list order until {@code maxEjectionPercent} of enabled and active nodes
+     * is excluded; remaining ejected nodes stay available.
+     *
+     * @param version            snapshot version
+     * @param nodes              list of all nodes
+     * @param maxEjectionPercent maximum percent of enabled and active nodes excluded because of ejection
+     * @return instance of {@link Snapshot}
+     */
+    public static Snapshot create(long version, List<? extends BalancedNode> nodes, int maxEjectionPercent) {
+
+        int usable = 0;
+        for (BalancedNode node : nodes) {
+            if (node.isEnabled() && node.isActive()) {
+                usable++;
+            }
+        }
+
+        int ejections = usable * maxEjectionPercent / 100;
+        final List<BalancedNode> available = new ArrayList<>(usable);
+        final List<BalancedNode> ejected = new ArrayList<>();
+        final List<BalancedNode> unavailable = new ArrayList<>();
+        for (BalancedNode node : nodes) {
+            if (!node.isEnabled()) continue;
+
+            if (!node.isActive()) {
+                unavailable.add(node);
+            } else if (ejections > 0 && node.isEjected()) {
+                ejected.add(node);
+                unavailable.add(node);
+                ejections--;
+            } else {
+                available.add(node);
+            }
+        }
+        final Snapshot snapshot = new Snapshot(version, available.toArray(NO_NODES), ejected.toArray(NO_NODES),
+                unavailable.toArray(NO_NODES), false);
+        snapshot.getLabelIndex();
+        return snapshot;
+    }
+
+    /**
+     * Snapshot version. Each snapshot rebuild increments version.
+     *
+     * @return snapshot version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public boolean isEmpty() {
+        return nodes.length == 0;
+    }
+
+    /**
+     * Returns {@code true} if snapshot is created for single balancing by selecting nodes with arbitrary
+     * predicate. Attachments of transient snapshot are computed on every call so strategies should avoid
+     * expensive attachments for transient snapshots.
+     *
+     * @return {@code true} or {@code false}
+     */
+    public boolean isTransient() {
+        return transientSnapshot;
+    }
+
+    /**
+     * Returns available node at provided position.
+     *
+     * @param index node position in snapshot
+     * @return instance of {@link BalancedNode}
+     */
+    public BalancedNode get(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * Returns {@code true} if node is available in this snapshot. Node positions are indexed once per snapshot.
+     *
+     * @param node balanced node
+     * @return {@code true} or {@code false}
+     */
+    public boolean contains(BalancedNode node) {
+
+        final Map<BalancedNode, Integer> positions = getAttachment(POSITIONS_KEY, Snapshot::createPositions);
+        return positions.containsKey(node);
+    }
+
+    private static Map<BalancedNode, Integer> createPositions(Snapshot snapshot) {
+
+        final Map<BalancedNode, Integer> positions = new IdentityHashMap<>(snapshot.nodes.length);
+        for (int i = 0; i < snapshot.nodes.length; i++) {
+            positions.put(snapshot.nodes[i], i);
+        }
+        return positions;
+    }
+
+    /**
+     * Returns unmodifiable list of available nodes. Returned list is not a copy.
+     *
+     * @return list of available {@link BalancedNode}
+     */
+    public List<BalancedNode> getNodes() {
+        return nodeList;
+    }
+
+    /**
+     * Returns enabled and active nodes excluded from this snapshot because they are ejected.
+     *
+     * @return list of ejected {@link BalancedNode}
+     */
+    public List<BalancedNode> getEjected() {
+        return Collections.unmodifiableList(Arrays.asList(ejected));
+    }
+
+    /**
+     * Returns enabled nodes excluded from this snapshot because they are not active or are ejected.
+     * Together with snapshot nodes they describe healthy and total capacity of enabled nodes.
+     * Unavailable nodes of selected snapshot are selected with same selector.
+     *
+     * @return list of unavailable {@link BalancedNode}
+     */
+    public List<BalancedNode> getUnavailable() {
+        return Collections.unmodifiableList(Arrays.asList(unavailable));
+    }
+
+    /**
+     * Returns data attached to snapshot under provided key. If there is no attached data it is computed
+     * with provided factory and attached to snapshot.
+     *
+     * @param key     attachment key
+     * @param factory function computing attachment from this snapshot
+     * @param <T>     attachment type
+     * @return attached data
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getAttachment(Object key, Function<Snapshot, T> factory) {
+
+        Object attachment = attachments.get(key);
+        if (null != attachment) {
+            return (T) attachment;
+        }
+
+        if (transientSnapshot || attachments.size() >= MAX_ATTACHMENTS) {
+            return factory.apply(this);
+        }
+        return (T) attachments.computeIfAbsent(key, k -> factory.apply(this));
+    }
+
+    /**
+     * Returns snapshot of same version containing only nodes selected with selector predicate.
+     *
+     * {@link LabelSelector} is resolved with label index and result is cached in this snapshot.
+     * Other predicates are tested against every node and result is transient snapshot.
+     *
+     * @param selector node selector predicate; if null this snapshot is returned
+     * @return snapshot of selected nodes
+     */
+    public Snapshot select(Predicate<BalancedNode> selector) {
+
+        if (null == selector) {
+            return this;
+        }
+
+        if (selector instanceof LabelSelector && !transientSnapshot) {
+            final LabelSelector labelSelector = (LabelSelector) selector;
+            if (labelSelector.getLabels().isEmpty()) {
+                return this;
+            }
+            if (!labelSelector.getLabels().containsValue(null)) {
+                return getAttachment(labelSelector, s -> selectIndexed(labelSelector));
+            }
+        }
+
+        final List<BalancedNode> selected = new ArrayList<>();
+        for (BalancedNode node : nodes) {
+            if (selector.test(node)) {
+                selected.add(node);
+            }
+        }
+        return new Snapshot(version, selected.toArray(NO_NODES), NO_NODES, selectUnavailable(selector), true);
+    }
+
+    private BalancedNode[] selectUnavailable(Predicate<BalancedNode> selector) {
+
+        if (unavailable.length == 0) {
+            return NO_NODES;
+        }
+        final List<BalancedNode> selected = new ArrayList<>();
+        for (BalancedNode node : unavailable) {
+            if (selector.test(node)) {
+                selected.add(node);
+            }
+        }
+        return selected.toArray(NO_NODES);
+    }
+
+    private Snapshot selectIndexed(LabelSelector selector) {
+
+        final Map<String, Map<String, BitSet>> index = getLabelIndex();
+
+        BitSet selected = null;
+        for (Map.Entry<String, String> label : selector.getLabels().entrySet()) {
+            final BitSet positions = index.getOrDefault(label.getKey(), Collections.emptyMap()).get(label.getValue());
+            if (null == positions) {
+                return new Snapshot(version, NO_NODES, NO_NODES, selectUnavailable(selector), false);
+            }
+            if (null == selected) {
+                selected = (BitSet) positions.clone();
+            } else {
+                selected.and(positions);
+            }
+        }
+
+        final BalancedNode[] result = new BalancedNode[selected.cardinality()];
+        int count = 0;
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            result[count++] = nodes[i];
+        }
+        return new Snapshot(version, result, NO_NODES, selectUnavailable(selector), false);
+    }
+
+    private Map<String, Map<String, BitSet>> getLabelIndex() {
+
+        Map<String, Map<String, BitSet>> index = labelIndex;
+        if (null == index) {
+            index = createLabelIndex();
+            labelIndex = index;
+        }
+        return index;
+    }
+
+    private Map<String, Map<String, BitSet>> createLabelIndex() {
+
+        final Map<String, Map<String, BitSet>> index = new HashMap<>();
+        for (int i = 0; i < nodes.length; i++) {
+            for (Map.Entry<String, String> label : nodes[i].getLabels().entrySet()) {
+                if (null == label.getValue()) continue;
+
+                index.computeIfAbsent(label.getKey(), k -> new HashMap<>())
+                        .computeIfAbsent(label.getValue(), v -> new BitSet(nodes.length))
+                        .set(i);
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "Snapshot{" +
+                "version=" + version +
+                ", size=" + nodes.length +
+                '}';
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.jbalancer.node;
+
+import io.github.jbalancer.utils.Hashing;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Deterministic subsetting of nodes for one balancer instance.
+ *
+ * Each node is scored with rendezvous hash of instance id and node connection and instance uses {@code size}
+ * best scored nodes. Subset depends only on instance id and node membership, so it is stable between restarts
+ * and membership change replaces at most added or removed nodes. Different instances choose different subsets
+ * so every node is used by approximately {@code instances * size / nodes} instances.
+ */
+public final class Subsetting {
+
+    private static final long NODE_SEED = 0x9E3779B97F4A7C15L;
+
+    private final String instanceId;
+    private final int size;
+    private final long instanceHash;
+
+    /**
+     * @param instanceId unique and stable identifier of balancer instance
+     * @param size       number of nodes in subset
+     */
+    public Subsetting(String instanceId, int size) {
+
+        Objects.requireNonNull(instanceId, "instanceId must be non null");
+        if (size < 1) {
+            throw new IllegalArgumentException("Subset size must be positive: " + size);
+        }
+        this.instanceId = instanceId;
+        this.size = size;
+        this.instanceHash = Hashing.hash(instanceId, 0L);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Selects subset of provided nodes. Selected nodes keep their order from provided list.
+     *
+     * @param nodes all nodes
+     * @param <T>   node type
+     * @return subset of nodes; provided list if it is not larger than subset size
+     */
+    public <T extends BalancedNode> List<T> select(List<T> nodes) {
+
+        if (nodes.size() <= size) {
+            return nodes;
+        }
+
+        final long[] scores = new long[nodes.size()];
+        final PriorityQueue<Integer> best = new PriorityQueue<>(size + 1,
+                (first, second) -> Long.compareUnsigned(scores[first], scores[second]));
+        for (int i = 0; i < nodes.size(); i++) {
+            scores[i] = score(nodes.get(i));
+            best.add(i);
+            if (best.size() > size) {
+                best.poll();
+            }
+        }
+
+        final boolean[] selected = new boolean[nodes.size()];
+        for (Integer index : best) {
+            selected[index] = true;
+        }
+        final List<T> subset = new ArrayList<>(size);
+        for (int i = 0; i < nodes.size(); i++) {
+            if (selected[i]) {
+                subset.add(nodes.get(i));
+            }
+        }
+        return subset;
+    }
+
+    private long score(BalancedNode node) {
+
+        final URI connection = node.getConnection();
+        final String name = String.valueOf(null == connection ? node.getStatus() : connection);
+        return Hashing.mix(instanceHash ^ Hashing.hash(name, NODE_SEED));
+    }
+
+    @Override
+    public String toString() {
+        return "Subsetting{" +
+                "instanceId='" + instanceId + '\'' +
+                ", size=" + size +
+                '}';
+    }
+}
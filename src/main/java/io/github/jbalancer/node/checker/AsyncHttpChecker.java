@@ -0,0 +1,269 @@
+package io.github.jbalancer.node.checker;
+
+import io.github.jbalancer.node.Node;
+import io.netty.channel.Channel;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.DefaultAsyncHttpClient;
+import org.asynchttpclient.DefaultAsyncHttpClientConfig;
+import org.asynchttpclient.HttpResponseBodyPart;
+import org.asynchttpclient.HttpResponseHeaders;
+import org.asynchttpclient.HttpResponseStatus;
+import org.asynchttpclient.handler.ExtendedAsyncHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ *  Checks and updates {@link Node} state based on HTTP response and status without blocking on each node.
+ *
+ *  If HTTP status URI returns code 200 node is active and alive. Otherwise node is not active.
+ *  If HTTP status URI is not reachable then node is not active and not alive.
+ *
+ *  All nodes of one check are requested concurrently with {@link AsyncHttpClient} and connections are kept
+ *  alive between checks. Number of concurrent requests is limited with {@code maxConcurrentChecks}, so pool
+ *  holds at most one connection per concurrently checked node and idle connections are reused by next check
+ *  of same node. Duration of every completed check is recorded as node check latency and response time and
+ *  duration of every new connection is recorded as node check connect time. Activeness changes according to
+ *  {@link CheckThresholds}.
+ *
+ *  @see Node#getCheckLatency()
+ */
+public class AsyncHttpChecker implements Checker, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncHttpChecker.class);
+
+    private final AsyncHttpClient asyncHttpClient;
+    private final int connectionTimeout;
+    private final int requestTimeout;
+    private final int maxConcurrentChecks;
+    private final CheckThresholds thresholds;
+
+    AsyncHttpChecker(AsyncHttpClient asyncHttpClient, int connectionTimeout, int requestTimeout,
+                     int maxConcurrentChecks) {
+        this(asyncHttpClient, connectionTimeout, requestTimeout, maxConcurrentChecks, CheckThresholds.NONE);
+    }
+
+    AsyncHttpChecker(AsyncHttpClient asyncHttpClient, int connectionTimeout, int requestTimeout,
+                     int maxConcurrentChecks, CheckThresholds thresholds) {
+
+        if (maxConcurrentChecks < 1) {
+            throw new IllegalArgumentException("maxConcurrentChecks must be positive");
+        }
+        this.asyncHttpClient = asyncHttpClient;
+        this.connectionTimeout = connectionTimeout;
+        this.requestTimeout = requestTimeout;
+        this.maxConcurrentChecks = maxConcurrentChecks;
+        this.thresholds = thresholds;
+    }
+
+    public static AsyncHttpChecker newInstance() {
+        return new AsyncHttpChecker.Builder().build();
+    }
+
+    @Override
+    public void check(Node node) {
+
+        if (null == node) {
+            LOGGER.debug("Node is null");
+            return;
+        }
+        check(Collections.singletonList(node));
+    }
+
+    @Override
+    public void check(Collection<Node> nodes) {
+
+        final Semaphore permits = new Semaphore(maxConcurrentChecks);
+        try {
+            for (Node node : nodes) {
+                if (null == node) continue;
+
+                final URI status = node.getStatus();
+                if (null == status) {
+                    LOGGER.warn("Node status URI is null: {}", node.toString());
+                    continue;
+                }
+
+                permits.acquire();
+                execute(node, status, permits);
+            }
+
+            final long checkTimeout = (long) connectionTimeout + requestTimeout;
+            if (!permits.tryAcquire(maxConcurrentChecks, checkTimeout, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Node checks not completed in {} ms", checkTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Node check interrupted", e);
+        }
+    }
+
+    private void execute(Node node, URI status, Semaphore permits) {
+
+        final CheckHandler handler = new CheckHandler(node, permits);
+        try {
+            asyncHttpClient.prepareHead(status.toString()).execute(handler);
+        } catch (Exception e) {
+            handler.onThrowable(e);
+        }
+    }
+
+    private static void failed(Node node, Throwable t, CheckThresholds thresholds) {
+
+        node.setCheckStatus(t.getClass().getSimpleName() + ":" + t.getMessage());
+        if (t instanceof ConnectException) {
+            thresholds.record(node, false);
+            node.setAlive(false);
+        } else if (!(t instanceof TimeoutException)) {
+            LOGGER.error("Error checking node: {}", node, t);
+        }
+    }
+
+    int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    CheckThresholds getThresholds() {
+        return thresholds;
+    }
+
+    @Override
+    public void close() {
+
+        try {
+            asyncHttpClient.close();
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Updates node with result of one check and records its connect and response time.
+     */
+    private final class CheckHandler extends ExtendedAsyncHandler<Void> {
+
+        private final Node node;
+        private final Semaphore permits;
+        private final long start = System.nanoTime();
+        private volatile long connectStart;
+        private volatile int statusCode;
+
+        private CheckHandler(Node node, Semaphore permits) {
+            this.node = node;
+            this.permits = permits;
+        }
+
+        @Override
+        public void onTcpConnectAttempt(InetSocketAddress remoteAddress) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void onTcpConnectSuccess(InetSocketAddress remoteAddress, Channel connection) {
+            node.recordCheckConnectTime(System.nanoTime() - connectStart);
+        }
+
+        @Override
+        public State onStatusReceived(HttpResponseStatus responseStatus) {
+
+            statusCode = responseStatus.getStatusCode();
+            return State.CONTINUE;
+        }
+
+        @Override
+        public State onHeadersReceived(HttpResponseHeaders headers) {
+            return State.CONTINUE;
+        }
+
+        @Override
+        public State onBodyPartReceived(HttpResponseBodyPart bodyPart) {
+            return State.CONTINUE;
+        }
+
+        @Override
+        public Void onCompleted() {
+
+            final long latency = System.nanoTime() - start;
+            node.setCheckLatency(latency);
+            node.recordCheckResponseTime(latency);
+            thresholds.record(node, statusCode == 200);
+            node.setAlive(true);
+            node.setCheckStatus(null);
+            permits.release();
+            return null;
+        }
+
+        @Override
+        public void onThrowable(Throwable t) {
+
+            failed(node, t, thresholds);
+            permits.release();
+        }
+    }
+
+    public static class Builder {
+
+        private int connectionTimeout = 2000;
+        private int requestTimeout = 2000;
+        private int maxConcurrentChecks = 1024;
+        private int idleTimeout = 60000;
+        private CheckThresholds thresholds = CheckThresholds.NONE;
+
+        public Builder setConnectionTimeout(int value) {
+            connectionTimeout = value;
+            return this;
+        }
+
+        public Builder setRequestTimeout(int value) {
+            requestTimeout = value;
+            return this;
+        }
+
+        public Builder setMaxConcurrentChecks(int value) {
+            maxConcurrentChecks = value;
+            return this;
+        }
+
+        /**
+         * Time after which idle kept alive connection is closed. Should be longer than check period.
+         */
+        public Builder setIdleTimeout(int value) {
+            idleTimeout = value;
+            return this;
+        }
+
+        /**
+         * Rise and fall thresholds of node activeness. Every check result changes activeness by default.
+         */
+        public Builder setThresholds(CheckThresholds value) {
+            thresholds = value;
+            return this;
+        }
+
+        public AsyncHttpChecker build() {
+
+            final DefaultAsyncHttpClientConfig config = new DefaultAsyncHttpClientConfig.Builder()
+                    .setConnectTimeout(connectionTimeout)
+                    .setRequestTimeout(requestTimeout)
+                    .setReadTimeout(requestTimeout)
+                    .setKeepAlive(true)
+                    .setPooledConnectionIdleTimeout(idleTimeout)
+                    .setFollowRedirect(false)
+                    .setAcceptAnyCertificate(true)
+                    .setThreadPoolName("jbalancer-http-check")
+                    .build();
+            return new AsyncHttpChecker(new DefaultAsyncHttpClient(config), connectionTimeout, requestTimeout,
+                    maxConcurrentChecks, thresholds);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.jbalancer.node.checker;
+
+import io.github.jbalancer.node.Node;
+
+/**
+ *  Rise and fall thresholds of node health state transitions.
+ *
+ *  Node becomes active after {@code rise} consecutive successful checks and becomes inactive after
+ *  {@code fall} consecutive failed checks, so single failed or successful check of flapping node does not
+ *  change its state. Consecutive results are tracked per node.
+ *
+ *  @see Node#recordCheck(boolean, int, int)
+ */
+public final class CheckThresholds {
+
+    /**
+     * Every check result changes node state.
+     */
+    public static final CheckThresholds NONE = new CheckThresholds(1, 1);
+
+    private final int rise;
+    private final int fall;
+
+    private CheckThresholds(int rise, int fall) {
+        this.rise = rise;
+        this.fall = fall;
+    }
+
+    /**
+     * @param rise number of consecutive successful checks which activate node
+     * @param fall number of consecutive failed checks which deactivate node
+     * @return instance of {@link CheckThresholds}
+     */
+    public static CheckThresholds of(int rise, int fall) {
+
+        if (rise < 1 || fall < 1) {
+            throw new IllegalArgumentException("Rise and fall thresholds must be positive: " + rise + "/" + fall);
+        }
+        if (rise == 1 && fall == 1) {
+            return NONE;
+        }
+        return new CheckThresholds(rise, fall);
+    }
+
+    public int getRise() {
+        return rise;
+    }
+
+    public int getFall() {
+        return fall;
+    }
+
+    /**
+     * Records check result of node.
+     *
+     * @param node    checked node
+     * @param success {@code true} if node passed check
+     * @return {@code true} if node activeness changed
+     */
+    boolean record(Node node, boolean success) {
+        return node.recordCheck(success, rise, fall);
+    }
+
+    @Override
+    public String toString() {
+        return "CheckThresholds{rise=" + rise + ", fall=" + fall + '}';
+    }
+}
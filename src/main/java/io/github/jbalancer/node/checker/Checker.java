@@ -2,6 +2,8 @@ package io.github.jbalancer.node.checker;
 
 import io.github.jbalancer.node.Node;
 
+import java.util.Collection;
+
 public interface Checker {
 
     /**
@@ -11,4 +13,17 @@ public interface Checker {
      * @param node instance of {@link Node}
      */
     void check(Node node);
+
+    /**
+     * Checks and updates state of all provided nodes and returns when every node is checked.
+     * Default implementation checks nodes one by one; implementations may check nodes concurrently.
+     *
+     * @param nodes collection of {@link Node}
+     */
+    default void check(Collection<Node> nodes) {
+
+        for (Node node : nodes) {
+            check(node);
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package io.github.jbalancer.node.checker;
 
+import io.github.jbalancer.node.resolver.Resolver;
+
 public class CheckerFactory {
 
     /**
@@ -12,4 +14,33 @@ public class CheckerFactory {
     public static Checker createDefault(HttpClient httpClient) {
         return new SchemaAwareChecker(new TcpChecker(httpClient.getConnectionTimeout()), new HttpChecker(httpClient));
     }
+
+    /**
+     * Creates new instance of {@link SchemaAwareChecker} which checks HTTP nodes with provided
+     * {@link AsyncHttpChecker}. TCP nodes are checked with same {@link CheckThresholds}. Provided checker is not
+     * closed by returned checker.
+     *
+     * @see Checker
+     * @param httpChecker instance of {@link AsyncHttpChecker}
+     * @return instance of {@link Checker}
+     */
+    public static Checker createDefault(AsyncHttpChecker httpChecker) {
+        return createDefault(httpChecker, Resolver.SYSTEM);
+    }
+
+    /**
+     * Creates new instance of {@link SchemaAwareChecker} which checks HTTP nodes with provided
+     * {@link AsyncHttpChecker} and resolves hosts of TCP nodes with provided {@link Resolver}.
+     *
+     * @see Checker
+     * @param httpChecker instance of {@link AsyncHttpChecker}
+     * @param resolver    resolver of TCP status hosts, e.g. {@link io.github.jbalancer.node.resolver.CachingResolver}
+     * @return instance of {@link Checker}
+     */
+    public static Checker createDefault(AsyncHttpChecker httpChecker, Resolver resolver) {
+
+        final TcpChecker tcpChecker = new TcpChecker(httpChecker.getConnectionTimeout(),
+                TcpChecker.DEFAULT_MAX_PENDING_CONNECTS, httpChecker.getThresholds(), resolver);
+        return new SchemaAwareChecker(tcpChecker, httpChecker);
+    }
 }
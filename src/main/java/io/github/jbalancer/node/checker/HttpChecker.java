@@ -16,15 +16,23 @@ import java.net.URI;
  *
  *  If HTTP status URI returns code 200 node is active and alive. Otherwise node is not active.
  *  If HTTP status URI is not reachable then node is not active and not alive.
+ *  Activeness changes according to {@link CheckThresholds}. Duration of every check which received response
+ *  is recorded as node check response time.
  */
 public class HttpChecker implements Checker {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpChecker.class);
 
     private final HttpClient httpClient;
+    private final CheckThresholds thresholds;
 
     HttpChecker(HttpClient httpClient) {
+        this(httpClient, CheckThresholds.NONE);
+    }
+
+    HttpChecker(HttpClient httpClient, CheckThresholds thresholds) {
         this.httpClient = httpClient;
+        this.thresholds = thresholds;
     }
 
     @Override
@@ -41,12 +49,16 @@ public class HttpChecker implements Checker {
             return;
         }
 
+        final long start = System.nanoTime();
         try (CloseableHttpResponse response = httpClient.httpClient().execute(new HttpHead(status))) {
-            node.setActive(response.getStatusLine().getStatusCode() == 200);
+            final long latency = System.nanoTime() - start;
+            node.setCheckLatency(latency);
+            node.recordCheckResponseTime(latency);
+            thresholds.record(node, response.getStatusLine().getStatusCode() == 200);
             node.setAlive(true);
             node.setCheckStatus(null);
         } catch (HttpHostConnectException e) {
-            node.setActive(false);
+            thresholds.record(node, false);
             node.setAlive(false);
             node.setCheckStatus(e.getClass().getSimpleName() + ":" + e.getMessage());
         } catch (SocketTimeoutException | ConnectTimeoutException e) {
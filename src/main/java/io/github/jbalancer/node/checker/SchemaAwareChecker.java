@@ -3,19 +3,25 @@ package io.github.jbalancer.node.checker;
 import io.github.jbalancer.node.Node;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  *  Checks and updates {@link Node} state based node status URI schema.
  *
  *  If URI schema is {@code tcp} then {@link TcpChecker} is used.
- *  If URI schema is {@code http} or {@code https} then {@link HttpChecker} is used.
+ *  If URI schema is {@code http} or {@code https} then HTTP checker ({@link HttpChecker} or
+ *  {@link AsyncHttpChecker}) is used.
+ *
+ *  When checking multiple nodes all {@code tcp} nodes and all {@code http} nodes are checked together.
  */
 public class SchemaAwareChecker implements Checker {
 
     private final TcpChecker tcpChecker;
-    private final HttpChecker httpChecker;
+    private final Checker httpChecker;
 
-    SchemaAwareChecker(TcpChecker tcpChecker, HttpChecker httpChecker) {
+    SchemaAwareChecker(TcpChecker tcpChecker, Checker httpChecker) {
         this.tcpChecker = tcpChecker;
         this.httpChecker = httpChecker;
     }
@@ -23,14 +29,9 @@ public class SchemaAwareChecker implements Checker {
     @Override
     public void check(Node node) {
 
-        URI status = node.getStatus();
-        if (null == status) {
-            status = node.getConnection();
-        }
-
-        if (null == status) return;
+        String scheme = getScheme(node);
+        if (null == scheme) return;
 
-        String scheme = status.getScheme();
         if (scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https")) {
             httpChecker.check(node);
             return;
@@ -40,4 +41,40 @@ public class SchemaAwareChecker implements Checker {
             tcpChecker.check(node);
         }
     }
+
+    @Override
+    public void check(Collection<Node> nodes) {
+
+        final List<Node> tcpNodes = new ArrayList<>();
+        final List<Node> httpNodes = new ArrayList<>();
+        for (Node node : nodes) {
+            final String scheme = getScheme(node);
+            if (null == scheme) continue;
+
+            if (scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https")) {
+                httpNodes.add(node);
+            } else if (scheme.equalsIgnoreCase("tcp")) {
+                tcpNodes.add(node);
+            }
+        }
+
+        if (!tcpNodes.isEmpty()) {
+            tcpChecker.check(tcpNodes);
+        }
+        if (!httpNodes.isEmpty()) {
+            httpChecker.check(httpNodes);
+        }
+    }
+
+    private static String getScheme(Node node) {
+
+        URI status = node.getStatus();
+        if (null == status) {
+            status = node.getConnection();
+        }
+
+        if (null == status) return null;
+
+        return status.getScheme();
+    }
 }
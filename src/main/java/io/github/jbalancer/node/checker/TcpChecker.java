@@ -1,32 +1,74 @@
 package io.github.jbalancer.node.checker;
 
 import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.resolver.Resolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.net.ConnectException;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.net.URI;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  *  Checks and updates {@link Node} state based on TCP connection aliveness.
  *
  *  If TCP status URI is reachable node is active and alive. Otherwise node is not active and not alive.
+ *
+ *  Nodes are checked with non-blocking connects completed by single {@link Selector}, so checking many nodes
+ *  takes about one connection timeout regardless of number of unreachable nodes. At most
+ *  {@code maxPendingConnects} connects are pending at once; remaining nodes are connected as pending
+ *  connects complete. Activeness changes according to {@link CheckThresholds}. Duration of every successful
+ *  connect is recorded as node check connect time. Status host is resolved with {@link Resolver} and first
+ *  resolved address is connected.
  */
 public class TcpChecker implements Checker {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TcpChecker.class);
 
+    static final int DEFAULT_MAX_PENDING_CONNECTS = 1024;
+
     private final int connectionTimeout;
+    private final int maxPendingConnects;
+    private final CheckThresholds thresholds;
+    private final Resolver resolver;
 
     TcpChecker() {
         this(2000);
     }
 
     TcpChecker(int connectionTimeout) {
+        this(connectionTimeout, DEFAULT_MAX_PENDING_CONNECTS);
+    }
+
+    TcpChecker(int connectionTimeout, int maxPendingConnects) {
+        this(connectionTimeout, maxPendingConnects, CheckThresholds.NONE);
+    }
+
+    TcpChecker(int connectionTimeout, int maxPendingConnects, CheckThresholds thresholds) {
+        this(connectionTimeout, maxPendingConnects, thresholds, Resolver.SYSTEM);
+    }
+
+    TcpChecker(int connectionTimeout, int maxPendingConnects, CheckThresholds thresholds, Resolver resolver) {
+
+        if (maxPendingConnects < 1) {
+            throw new IllegalArgumentException("maxPendingConnects must be positive");
+        }
         this.connectionTimeout = connectionTimeout;
+        this.maxPendingConnects = maxPendingConnects;
+        this.thresholds = thresholds;
+        this.resolver = resolver;
     }
 
     @Override
@@ -36,29 +78,182 @@ public class TcpChecker implements Checker {
             LOGGER.debug("Node is null");
             return;
         }
+        check(Collections.singletonList(node));
+    }
+
+    @Override
+    public void check(Collection<Node> nodes) {
 
-        final URI status = node.getStatus();
-        if (null == status) {
+        final Deque<Node> queue = new ArrayDeque<>(nodes.size());
+        for (Node node : nodes) {
+            if (null != node && null != node.getStatus()) {
+                queue.add(node);
+            }
+        }
+        if (queue.isEmpty()) {
             return;
         }
 
-        try (Socket socket = new Socket()) {
-            socket.connect(new InetSocketAddress(status.getHost(), status.getPort()), connectionTimeout);
-            node.setActive(true);
-            node.setAlive(true);
-            node.setCheckStatus(null);
-        } catch (ConnectException e) {
+        try (Selector selector = Selector.open()) {
+            new Cycle(selector, queue).run();
+        } catch (IOException e) {
+            LOGGER.error("Error checking {} nodes", queue.size(), e);
+        }
+    }
+
+    private void connected(Node node, long start) {
+
+        final long latency = System.nanoTime() - start;
+        node.setCheckLatency(latency);
+        node.recordCheckConnectTime(latency);
+        thresholds.record(node, true);
+        node.setAlive(true);
+        node.setCheckStatus(null);
+    }
+
+    private void failed(Node node, Exception e) {
+
+        if (e instanceof ConnectException) {
             final String message = Optional.ofNullable(e.getMessage()).orElse("").toLowerCase();
             if (message.contains("refused")) {
-                node.setActive(false);
+                thresholds.record(node, false);
                 node.setAlive(false);
             }
             node.setCheckStatus(e.getClass().getSimpleName() + ":" + e.getMessage());
-        } catch (Exception e) {
-            node.setActive(false);
-            node.setAlive(false);
-            node.setCheckStatus(e.getClass().getSimpleName() + ":" + e.getMessage());
-            LOGGER.error("Error checking node: {}", node, e);
+            return;
+        }
+        thresholds.record(node, false);
+        node.setAlive(false);
+        node.setCheckStatus(e.getClass().getSimpleName() + ":" + e.getMessage());
+        LOGGER.error("Error checking node: {}", node, e);
+    }
+
+    private void timedOut(Node node) {
+
+        thresholds.record(node, false);
+        node.setAlive(false);
+        node.setCheckStatus("SocketTimeoutException:connect timed out");
+        LOGGER.warn("Timeout checking node: {}", node);
+    }
+
+    private static void close(SocketChannel channel) {
+
+        if (null == channel) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.debug("Error closing channel", e);
+        }
+    }
+
+    /**
+     * One check of queued nodes. Pending connects are started in queue order with same timeout, so
+     * their deadlines are ordered too and expired connects are always at head of pending deque.
+     */
+    private final class Cycle {
+
+        private final Selector selector;
+        private final Deque<Node> queue;
+        private final Deque<Pending> pending = new ArrayDeque<>();
+        private int pendingCount;
+
+        private Cycle(Selector selector, Deque<Node> queue) {
+            this.selector = selector;
+            this.queue = queue;
+        }
+
+        private void run() throws IOException {
+
+            final long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(connectionTimeout);
+            while (!queue.isEmpty() || pendingCount > 0) {
+                while (pendingCount < maxPendingConnects && !queue.isEmpty()) {
+                    connect(queue.poll(), timeoutNanos);
+                }
+
+                expire(System.nanoTime());
+                if (pendingCount == 0) continue;
+
+                final long waitNanos = pending.peek().deadline - System.nanoTime();
+                selector.select(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+
+                final Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    final SelectionKey key = selected.next();
+                    selected.remove();
+                    finish((Pending) key.attachment());
+                }
+            }
+        }
+
+        private void connect(Node node, long timeoutNanos) {
+
+            final URI status = node.getStatus();
+            final long start = System.nanoTime();
+            SocketChannel channel = null;
+            try {
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                final InetAddress address = resolver.resolve(status.getHost()).get(0);
+                if (channel.connect(new InetSocketAddress(address, status.getPort()))) {
+                    close(channel);
+                    connected(node, start);
+                    return;
+                }
+                final Pending connect = new Pending(node, channel, start, start + timeoutNanos);
+                channel.register(selector, SelectionKey.OP_CONNECT, connect);
+                pending.add(connect);
+                pendingCount++;
+            } catch (Exception e) {
+                close(channel);
+                failed(node, e);
+            }
+        }
+
+        private void finish(Pending connect) {
+
+            if (connect.done) return;
+            try {
+                if (!connect.channel.finishConnect()) return;
+                complete(connect);
+                connected(connect.node, connect.start);
+            } catch (Exception e) {
+                complete(connect);
+                failed(connect.node, e);
+            }
+        }
+
+        private void expire(long now) {
+
+            while (!pending.isEmpty() && (pending.peek().done || pending.peek().deadline - now <= 0)) {
+                final Pending connect = pending.poll();
+                if (!connect.done) {
+                    complete(connect);
+                    timedOut(connect.node);
+                }
+            }
+        }
+
+        private void complete(Pending connect) {
+
+            connect.done = true;
+            pendingCount--;
+            close(connect.channel);
+        }
+    }
+
+    private static final class Pending {
+
+        private final Node node;
+        private final SocketChannel channel;
+        private final long start;
+        private final long deadline;
+        private boolean done;
+
+        private Pending(Node node, SocketChannel channel, long start, long deadline) {
+            this.node = node;
+            this.channel = channel;
+            this.start = start;
+            this.deadline = deadline;
         }
     }
 }
@@ -16,4 +16,15 @@ public interface Discoverer {
      * @return list of discovered {@link Node}
      */
     List<Node> discover(String balancerId);
+
+    /**
+     * Registers callback which is called when nodes of balancer changed and should be discovered immediately.
+     * Callback must be called from discoverer thread and must not be called from {@link #discover(String)}.
+     * Discoverers which are only polled ignore callback.
+     *
+     * @param balancerId unique identifier of balancer
+     * @param onChange   callback performing discovery of balancer
+     */
+    default void watch(String balancerId, Runnable onChange) {
+    }
 }
@@ -0,0 +1,111 @@
+package io.github.jbalancer.node.discoverer;
+
+import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.resolver.Resolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Expands nodes discovered by delegate {@link Discoverer} into one node per address of node connection host.
+ *
+ * Host of connection URI is replaced with resolved address and host of status URI is replaced too if it is same
+ * as connection host. Expanded nodes keep labels of discovered node and get {@link #HOST_LABEL} label with
+ * resolved host name. Nodes whose host is address literal are not changed and nodes whose host can not be resolved
+ * are kept unexpanded, so their checks fail.
+ *
+ * Nodes are expanded on every discovery, also when delegate does not discover changes, so changes of DNS records
+ * are discovered too. Use caching {@link Resolver} to avoid lookup of every host on every discovery.
+ */
+public class ResolvingDiscoverer implements Discoverer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResolvingDiscoverer.class);
+
+    /**
+     * Label holding host name of expanded node.
+     */
+    public static final String HOST_LABEL = "host";
+
+    private static final Pattern IPV4_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    private final Discoverer delegate;
+    private final Resolver resolver;
+
+    private final Map<String, List<Node>> discovered = new HashMap<>();
+    private final Map<String, List<Node>> expanded = new HashMap<>();
+
+    public ResolvingDiscoverer(Discoverer delegate, Resolver resolver) {
+        this.delegate = delegate;
+        this.resolver = resolver;
+    }
+
+    @Override
+    public synchronized List<Node> discover(String balancerId) {
+
+        List<Node> nodes = delegate.discover(balancerId);
+        if (null == nodes) {
+            nodes = discovered.get(balancerId);
+            if (null == nodes) return null;
+        } else {
+            discovered.put(balancerId, nodes);
+        }
+
+        final List<Node> expandedNodes = new ArrayList<>();
+        for (Node node : nodes) {
+            expand(node, expandedNodes);
+        }
+
+        if (expandedNodes.equals(expanded.get(balancerId))) {
+            return null;
+        }
+        expanded.put(balancerId, expandedNodes);
+        return expandedNodes;
+    }
+
+    @Override
+    public void watch(String balancerId, Runnable onChange) {
+        delegate.watch(balancerId, onChange);
+    }
+
+    private void expand(Node node, List<Node> expandedNodes) {
+
+        final URI connection = node.getConnection();
+        final String host = null == connection ? null : connection.getHost();
+        if (null == host || isLiteral(host)) {
+            expandedNodes.add(node);
+            return;
+        }
+
+        try {
+            final URI status = node.getStatus();
+            final boolean sameHost = null != status && host.equalsIgnoreCase(status.getHost());
+            for (InetAddress address : resolver.resolve(host)) {
+                final Map<String, String> labels = new HashMap<>(node.getLabels());
+                labels.put(HOST_LABEL, host);
+                expandedNodes.add(new Node(labels, replaceHost(connection, address),
+                        sameHost ? replaceHost(status, address) : status));
+            }
+        } catch (UnknownHostException | URISyntaxException e) {
+            LOGGER.warn("Node {} not expanded: {}", connection, e.getMessage());
+            expandedNodes.add(node);
+        }
+    }
+
+    private static boolean isLiteral(String host) {
+        return host.startsWith("[") || host.indexOf(':') >= 0 || IPV4_LITERAL.matcher(host).matches();
+    }
+
+    private static URI replaceHost(URI uri, InetAddress address) throws URISyntaxException {
+        return new URI(uri.getScheme(), uri.getUserInfo(), address.getHostAddress(), uri.getPort(), uri.getPath(),
+                uri.getQuery(), uri.getFragment());
+    }
+}
@@ -1,32 +1,86 @@
 package io.github.jbalancer.node.discoverer;
 
 import io.github.jbalancer.node.Node;
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Discovers nodes from YAML files. For each balancer exists YAML file in {@code nodeDirectory}.
  * Files are named with balancer ids.
  *
+ * Modification time and size of every successfully parsed balancer file are remembered, so unchanged file is
+ * not read again. File which can't be read or parsed (e.g. file caught in the middle of write) is read again on
+ * next discovery.
+ *
+ * In watch mode node directory is watched with {@link WatchService} and watched balancers are discovered as
+ * soon as their file changes. Burst of changes of one file is debounced: balancer is discovered when file did not
+ * change for debounce period, but at latest after ten debounce periods since first change of burst. Remembered
+ * state of changed file is forgotten, so change which keeps modification time and size is not missed.
+ *
  * @see YamlNodeDiscoverer
  */
-public class YamlFileNodeDiscoverer implements Discoverer {
+public class YamlFileNodeDiscoverer implements Discoverer, Closeable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(YamlFileNodeDiscoverer.class);
 
+    private static final String FILE_SUFFIX = ".yml";
+    private static final int MAX_DEBOUNCE_PERIODS = 10;
+
     private final File nodeDirectory;
 
-    private volatile long lastModified = 0L;
+    private final ConcurrentMap<String, FileState> fileStates = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Runnable> watchers = new ConcurrentHashMap<>();
+
+    private final WatchService watchService;
+    private final long debounceNanos;
 
     public YamlFileNodeDiscoverer(File nodeDirectory) {
+
+        this.nodeDirectory = setupNodeDirectory(nodeDirectory);
+        this.watchService = null;
+        this.debounceNanos = 0L;
+    }
+
+    /**
+     * Creates discoverer in watch mode.
+     *
+     * @param nodeDirectory  directory of balancer files
+     * @param debounceMillis time without changes of file after which balancer is discovered
+     * @throws IOException if directory can not be watched
+     */
+    public YamlFileNodeDiscoverer(File nodeDirectory, long debounceMillis) throws IOException {
+
         this.nodeDirectory = setupNodeDirectory(nodeDirectory);
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(debounceMillis, 0L));
+        this.watchService = nodeDirectory.toPath().getFileSystem().newWatchService();
+        nodeDirectory.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
 
+        final Thread thread = new Thread(this::watchDirectory, "jbalancer-file-watch");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     private File setupNodeDirectory(File directory) {
@@ -60,27 +114,155 @@ public class YamlFileNodeDiscoverer implements Discoverer {
             return null;
         }
 
-        if (lastModified == nodeFile.lastModified()) {
-            LOGGER.debug("Nodes file unchanged");
+        try {
+            final FileState state = FileState.read(nodeFile.toPath());
+            if (state.equals(fileStates.get(balancerId))) {
+                LOGGER.debug("Nodes file unchanged");
+                return null;
+            }
+
+            final String yamlNodes = new String(Files.readAllBytes(nodeFile.toPath()), Charset.defaultCharset());
+            final List<Node> nodes = new YamlNodeDiscoverer(s -> yamlNodes).discover(balancerId);
+            if (null != nodes) {
+                fileStates.put(balancerId, state);
+            }
+            return nodes;
+        } catch (Exception e) {
+            LOGGER.error("Error reading nodes from file: {}", nodeFile.getAbsolutePath(), e);
             return null;
         }
+    }
 
+    @Override
+    public void watch(String balancerId, Runnable onChange) {
+
+        if (null == watchService) return;
+
+        watchers.put(balancerId, onChange);
+    }
+
+    private void watchDirectory() {
+
+        final Map<String, long[]> pending = new HashMap<>();
         try {
-            lastModified = nodeFile.lastModified();
-            return new YamlNodeDiscoverer(s -> {
-                try {
-                    return FileUtils.readFileToString(nodeFile, Charset.defaultCharset());
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
+            while (true) {
+                final WatchKey key = pending.isEmpty() ? watchService.take()
+                        : watchService.poll(Math.max(nextDeadline(pending) - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+                if (null != key) {
+                    collectChanges(key, pending);
+                    key.reset();
                 }
-            }).discover(balancerId);
-        } catch (Exception e) {
-            LOGGER.error("Error reading nodes from file: {}", nodeFile.getAbsolutePath(), e);
-            return null;
+                notifyWatchers(pending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.debug("Node directory watch closed");
+        }
+    }
+
+    /**
+     * Adds changed balancers to pending balancers. Pending balancer is mapped to time of first change and time of
+     * notification.
+     */
+    private void collectChanges(WatchKey key, Map<String, long[]> pending) {
+
+        final long now = System.nanoTime();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                watchers.keySet().forEach(balancerId -> debounce(pending, balancerId, now));
+                continue;
+            }
+
+            final String fileName = String.valueOf(event.context());
+            if (fileName.endsWith(FILE_SUFFIX)) {
+                debounce(pending, fileName.substring(0, fileName.length() - FILE_SUFFIX.length()), now);
+            }
+        }
+    }
+
+    private void debounce(Map<String, long[]> pending, String balancerId, long now) {
+
+        final long[] times = pending.computeIfAbsent(balancerId, id -> new long[]{now, now});
+        times[1] = Math.min(now + debounceNanos, times[0] + MAX_DEBOUNCE_PERIODS * debounceNanos);
+    }
+
+    private static long nextDeadline(Map<String, long[]> pending) {
+
+        long deadline = Long.MAX_VALUE;
+        for (long[] times : pending.values()) {
+            deadline = Math.min(deadline, times[1]);
+        }
+        return deadline;
+    }
+
+    private void notifyWatchers(Map<String, long[]> pending) {
+
+        final long now = System.nanoTime();
+        final Iterator<Map.Entry<String, long[]>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, long[]> entry = iterator.next();
+            if (entry.getValue()[1] - now > 0) continue;
+
+            iterator.remove();
+            fileStates.remove(entry.getKey());
+            final Runnable watcher = watchers.get(entry.getKey());
+            if (null == watcher) continue;
+
+            try {
+                watcher.run();
+            } catch (Exception e) {
+                LOGGER.error("Error notifying change of nodes file of balancer {}", entry.getKey(), e);
+            }
         }
     }
 
     private File getNodeFile(String balancerId) {
-        return new File(nodeDirectory, balancerId + ".yml");
+        return new File(nodeDirectory, balancerId + FILE_SUFFIX);
+    }
+
+    /**
+     * Stops watching node directory.
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (null != watchService) {
+            watchService.close();
+        }
+    }
+
+    private static final class FileState {
+
+        private final FileTime lastModified;
+        private final long size;
+        private final Object fileKey;
+
+        private FileState(FileTime lastModified, long size, Object fileKey) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.fileKey = fileKey;
+        }
+
+        private static FileState read(Path file) throws IOException {
+
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileState(attributes.lastModifiedTime(), attributes.size(), attributes.fileKey());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FileState fileState = (FileState) o;
+            return size == fileState.size &&
+                    Objects.equals(lastModified, fileState.lastModified) &&
+                    Objects.equals(fileKey, fileState.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lastModified, size, fileKey);
+        }
     }
 }
@@ -8,6 +8,7 @@ import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
 
 import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -27,6 +28,7 @@ import java.util.stream.Collectors;
  *   status: tcp://127.0.0.1:3001
  *   labels:
  *     label-key: label-value
+ *     weight: 4
  * </code>
  */
 public class YamlNodeDiscoverer implements Discoverer {
@@ -60,7 +62,7 @@ public class YamlNodeDiscoverer implements Discoverer {
             YamlNodes fileNodes = (YamlNodes) createYaml().load(yamlSource.apply(balancerId));
             List<YamlNode> nodes = fileNodes.getNodes();
             return nodes.stream()
-                    .map(fe -> new Node(fe.getLabels(), URI.create(fe.getConnection()), URI.create(fe.getStatus())))
+                    .map(fe -> new Node(toLabels(fe.getLabels()), URI.create(fe.getConnection()), URI.create(fe.getStatus())))
                     .collect(Collectors.toList());
         } catch (Exception e) {
             LOGGER.error("Error loading nodes from YAML", e);
@@ -68,6 +70,19 @@ public class YamlNodeDiscoverer implements Discoverer {
         }
     }
 
+    /**
+     * YAML scalar label values (e.g. {@code weight: 4}) are loaded as numbers or booleans so they are
+     * converted to strings.
+     */
+    private static Map<String, String> toLabels(Map<?, ?> labels) {
+
+        if (null == labels) return null;
+
+        final Map<String, String> result = new LinkedHashMap<>();
+        labels.forEach((k, v) -> result.put(String.valueOf(k), null == v ? null : String.valueOf(v)));
+        return result;
+    }
+
     private Yaml createYaml() {
         return new Yaml(nodesConstructor);
     }
@@ -0,0 +1,186 @@
+package io.github.jbalancer.node.resolver;
+
+import io.github.jbalancer.utils.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Security;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches addresses resolved by delegate {@link Resolver}.
+ *
+ * Resolved addresses are cached for {@code ttl} and failed resolutions for {@code negativeTtl}. Host which is
+ * resolved after its addresses expired gets cached addresses immediately and addresses are refreshed in
+ * background, so only first resolution of host waits for lookup. If background refresh fails, cached addresses
+ * are kept and refresh is retried after {@code negativeTtl}.
+ *
+ * Default TTLs follow JVM {@code networkaddress.cache.ttl} and {@code networkaddress.cache.negative.ttl}
+ * security properties when they are set to non negative values, because TTLs of DNS records are not exposed
+ * by {@link InetAddress}.
+ */
+public class CachingResolver implements Resolver, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingResolver.class);
+
+    public static final long DEFAULT_TTL_SECONDS = 30L;
+    public static final long DEFAULT_NEGATIVE_TTL_SECONDS = 10L;
+
+    private final Resolver delegate;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final ExecutorService refreshService;
+
+    private final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    CachingResolver(Resolver delegate, long ttl, long negativeTtl, TimeUnit unit, ExecutorService refreshService) {
+
+        if (ttl < 0 || negativeTtl < 0) {
+            throw new IllegalArgumentException("TTL must not be negative: " + ttl + "/" + negativeTtl);
+        }
+        this.delegate = delegate;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.negativeTtlNanos = unit.toNanos(negativeTtl);
+        this.refreshService = refreshService;
+    }
+
+    public static CachingResolver newInstance() {
+        return new CachingResolver.Builder().build();
+    }
+
+    @Override
+    public List<InetAddress> resolve(String host) throws UnknownHostException {
+
+        final long now = System.nanoTime();
+        final Entry entry = cache.get(host);
+        if (null == entry || (null == entry.addresses && now - entry.expiresAt >= 0)) {
+            return load(host, now).get();
+        }
+        if (now - entry.expiresAt >= 0) {
+            refresh(host, entry);
+        }
+        return entry.get();
+    }
+
+    private Entry load(String host, long now) {
+
+        Entry entry;
+        try {
+            entry = new Entry(Collections.unmodifiableList(delegate.resolve(host)), null, now + ttlNanos);
+        } catch (UnknownHostException e) {
+            entry = new Entry(null, e, now + negativeTtlNanos);
+        }
+        cache.put(host, entry);
+        return entry;
+    }
+
+    private void refresh(String host, Entry stale) {
+
+        if (!stale.refreshing.compareAndSet(false, true)) return;
+
+        try {
+            refreshService.execute(() -> {
+                final long now = System.nanoTime();
+                try {
+                    cache.put(host, new Entry(Collections.unmodifiableList(delegate.resolve(host)), null, now + ttlNanos));
+                } catch (Exception e) {
+                    LOGGER.warn("Error refreshing addresses of {}, cached addresses kept: {}", host, e.getMessage());
+                    cache.put(host, new Entry(stale.addresses, null, now + negativeTtlNanos));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stale.refreshing.set(false);
+        }
+    }
+
+    /**
+     * @return number of cached hosts
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void close() {
+        refreshService.shutdownNow();
+    }
+
+    private static final class Entry {
+
+        private final List<InetAddress> addresses;
+        private final UnknownHostException failure;
+        private final long expiresAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(List<InetAddress> addresses, UnknownHostException failure, long expiresAt) {
+            this.addresses = addresses;
+            this.failure = failure;
+            this.expiresAt = expiresAt;
+        }
+
+        private List<InetAddress> get() throws UnknownHostException {
+
+            if (null == addresses) {
+                throw failure;
+            }
+            return addresses;
+        }
+    }
+
+    public static class Builder {
+
+        private Resolver delegate = Resolver.SYSTEM;
+        private long ttl = securityProperty("networkaddress.cache.ttl", DEFAULT_TTL_SECONDS);
+        private long negativeTtl = securityProperty("networkaddress.cache.negative.ttl", DEFAULT_NEGATIVE_TTL_SECONDS);
+
+        private static long securityProperty(String name, long defaultValue) {
+
+            try {
+                final String value = Security.getProperty(name);
+                final long parsed = null == value ? -1L : Long.parseLong(value.trim());
+                return parsed < 0 ? defaultValue : parsed;
+            } catch (NumberFormatException | SecurityException e) {
+                return defaultValue;
+            }
+        }
+
+        public Builder setDelegate(Resolver value) {
+            delegate = value;
+            return this;
+        }
+
+        /**
+         * Time in seconds for which resolved addresses are used without refresh.
+         */
+        public Builder setTtl(long value) {
+            ttl = value;
+            return this;
+        }
+
+        /**
+         * Time in seconds for which failed resolution is cached.
+         */
+        public Builder setNegativeTtl(long value) {
+            negativeTtl = value;
+            return this;
+        }
+
+        public CachingResolver build() {
+
+            final ExecutorService refreshService = Executors.newSingleThreadExecutor(
+                    NamedThreadFactory.create("jbalancer-resolver"));
+            return new CachingResolver(delegate, ttl, negativeTtl, TimeUnit.SECONDS, refreshService);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.jbalancer.node.resolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resolves host name of node {@link java.net.URI} to network addresses.
+ */
+@FunctionalInterface
+public interface Resolver {
+
+    /**
+     * Resolves host names with {@link InetAddress#getAllByName(String)}.
+     */
+    Resolver SYSTEM = host -> Arrays.asList(InetAddress.getAllByName(host));
+
+    /**
+     * Resolves host name or address literal.
+     *
+     * @param host host name or address literal
+     * @return non empty list of addresses
+     * @throws UnknownHostException if host can not be resolved
+     */
+    List<InetAddress> resolve(String host) throws UnknownHostException;
+}
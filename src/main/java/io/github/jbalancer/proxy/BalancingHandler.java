@@ -2,8 +2,11 @@ package io.github.jbalancer.proxy;
 
 import io.github.jbalancer.Balancer;
 import io.github.jbalancer.JBalancer;
+import io.github.jbalancer.JBalancerCfg;
 import io.github.jbalancer.metrics.ThreadPoolCollector;
 import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Lease;
+import io.github.jbalancer.strategy.Context;
 import io.netty.handler.codec.http.HttpHeaders;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -20,6 +23,7 @@ import javax.servlet.AsyncContext;
 import javax.servlet.AsyncEvent;
 import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -32,13 +36,16 @@ public class BalancingHandler extends AbstractHandler {
 
     private static final String BALANCER_ID_HEADER = "X-Balancer-Id";
 
+    private final JBalancerCfg jBalancerCfg;
     private final AsyncHttpClient asyncHttpClient;
     private final JBalancer jBalancer;
     private final ExecutorService proxyExecutor = Executors.newCachedThreadPool();
 
-    public BalancingHandler(AsyncHttpClient asyncHttpClient,
+    public BalancingHandler(JBalancerCfg jBalancerCfg,
+                            AsyncHttpClient asyncHttpClient,
                             JBalancer jBalancer,
                             ThreadPoolCollector threadPoolCollector) {
+        this.jBalancerCfg = jBalancerCfg;
         this.asyncHttpClient = asyncHttpClient;
         this.jBalancer = jBalancer;
         threadPoolCollector.register("balancing_executor", (ThreadPoolExecutor) proxyExecutor);
@@ -47,20 +54,41 @@ public class BalancingHandler extends AbstractHandler {
     @Override
     public void handle(String s, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
 
+        Lease acquired = null;
+        Cookie newAffinityCookie = null;
         RequestBuilder requestBuilder;
         try {
 
-            final String mapping = getMapping(request);
-            if (null == mapping) return;
+            final Balancer balancer = getBalancer(request);
+            if (null == balancer) return;
 
             baseRequest.setHandled(true);
 
+            String affinityKey = getAffinityKey(request);
+            if (null == affinityKey && null != jBalancerCfg.getAffinityCookie()) {
+                affinityKey = UUID.randomUUID().toString();
+                newAffinityCookie = createAffinityCookie(affinityKey);
+            }
+
+            acquired = balancer.acquire(affinityKey, new Context(null, getBalancingKey(request)));
+            if (null == acquired && !balancer.getSnapshot().isEmpty()) {
+                LOGGER.debug("All nodes of balancer {} saturated or failing", balancer.getId());
+                response.sendError(503, "All nodes saturated or failing for balancer " + balancer.getId());
+                return;
+            }
+            if (null == acquired) {
+                throw new IllegalStateException("No available nodes for balancer " + balancer.getId());
+            }
+
             requestBuilder = new RequestBuilder()
                     .setMethod(request.getMethod())
-                    .setUrl(mapping)
+                    .setUrl(getMapping(request, acquired.getNode()))
                     .setHeaders(extractHeaders(request, true))
                     .setBody(request.getInputStream());
         } catch (Exception e) {
+            if (null != acquired) {
+                acquired.release();
+            }
             if (LOGGER.isTraceEnabled()) {
                 LOGGER.error(e.getMessage(), e);
             } else {
@@ -69,6 +97,8 @@ public class BalancingHandler extends AbstractHandler {
             response.sendError(500, e.getMessage());
             return;
         }
+        final Lease lease = acquired;
+        final Cookie affinityCookie = newAffinityCookie;
         AsyncContext asyncContext = request.startAsync();
         asyncContext.addListener(new AsyncListener() {
             @Override
@@ -105,6 +135,7 @@ public class BalancingHandler extends AbstractHandler {
             @Override
             public void onThrowable(Throwable t) {
 
+                lease.release(false);
                 CompletableFuture.runAsync(() -> {
                     try {
                         response.sendError(500, t.getMessage());
@@ -123,10 +154,14 @@ public class BalancingHandler extends AbstractHandler {
             @Override
             public Object onCompleted(Response proxyResponse) throws Exception {
 
+                lease.release(proxyResponse.getStatusCode() < 500);
                 CompletableFuture.runAsync(() -> {
                     try {
                         response.setStatus(proxyResponse.getStatusCode());
                         copyResponseHeaders(proxyResponse, response);
+                        if (null != affinityCookie) {
+                            response.addCookie(affinityCookie);
+                        }
                         IOUtils.copy(proxyResponse.getResponseBodyAsStream(), response.getOutputStream());
                         response.getOutputStream().flush();
                     } catch (Exception e) {
@@ -150,7 +185,7 @@ public class BalancingHandler extends AbstractHandler {
         });
     }
 
-    private String getMapping(HttpServletRequest request) {
+    private Balancer getBalancer(HttpServletRequest request) {
 
         final String balancerId = request.getHeader(BALANCER_ID_HEADER);
 
@@ -162,16 +197,64 @@ public class BalancingHandler extends AbstractHandler {
         if (null == balancer) {
             throw new IllegalStateException("Missing balancer with id " + balancerId);
         }
+        return balancer;
+    }
+
+    private String getBalancingKey(HttpServletRequest request) {
+
+        final String keyHeader = jBalancerCfg.getBalancingKeyHeader();
+        if (null != keyHeader) {
+            final String key = request.getHeader(keyHeader);
+            if (null != key) return key;
+        }
+
+        final int keySegment = jBalancerCfg.getBalancingKeyPathSegment();
+        if (keySegment < 0) {
+            return null;
+        }
+
+        final String[] segments = StringUtils.split(getTargetPath(request), '/');
+        return keySegment < segments.length ? segments[keySegment] : null;
+    }
+
+    private String getAffinityKey(HttpServletRequest request) {
+
+        final String affinityHeader = jBalancerCfg.getAffinityHeader();
+        if (null != affinityHeader) {
+            final String key = request.getHeader(affinityHeader);
+            if (null != key) return key;
+        }
 
-        BalancedNode node = balancer.getBalanced();
-        if (null == node) {
-            throw new IllegalStateException("No available nodes for balancer " + balancerId);
+        final String affinityCookie = jBalancerCfg.getAffinityCookie();
+        if (null == affinityCookie || null == request.getCookies()) {
+            return null;
+        }
+
+        for (Cookie cookie : request.getCookies()) {
+            if (affinityCookie.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
         }
+        return null;
+    }
+
+    private Cookie createAffinityCookie(String affinityKey) {
+
+        final Cookie cookie = new Cookie(jBalancerCfg.getAffinityCookie(), affinityKey);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        return cookie;
+    }
+
+    private String getTargetPath(HttpServletRequest request) {
+        return StringUtils.removeStart(request.getRequestURI(), request.getContextPath() + request.getServletPath());
+    }
+
+    private String getMapping(HttpServletRequest request, BalancedNode node) {
 
         final String target = node.getConnection().toString();
-        if (null == target) return null;
 
-        String targetPath = StringUtils.removeStart(request.getRequestURI(), request.getContextPath() + request.getServletPath());
+        String targetPath = getTargetPath(request);
         return target + targetPath + Optional.ofNullable(request.getQueryString()).map(qs -> "?" + qs).orElse(StringUtils.EMPTY);
     }
 
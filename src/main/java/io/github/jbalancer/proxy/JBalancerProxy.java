@@ -64,7 +64,7 @@ public class JBalancerProxy {
     }
 
     private BalancingHandler createBalancingHandler(JBalancerCfg cfg) {
-        return new BalancingHandler(httpClient, jBalancer, threadPoolCollector);
+        return new BalancingHandler(cfg, httpClient, jBalancer, threadPoolCollector);
     }
 
     @PostConstruct
@@ -19,4 +19,9 @@ public class ANode {
     private boolean enabled;
 
     private String checkStatus;
+
+    private double checkConnectMillisP50;
+    private double checkConnectMillisP99;
+    private double checkResponseMillisP50;
+    private double checkResponseMillisP99;
 }
@@ -2,6 +2,7 @@ package io.github.jbalancer.proxy.dashboard;
 
 import io.github.jbalancer.Balancer;
 import io.github.jbalancer.JBalancer;
+import io.github.jbalancer.node.LatencyHistogram;
 import io.github.jbalancer.node.Node;
 import io.github.jbalancer.node.discoverer.YamlNodeDiscoverer;
 import io.github.jbalancer.proxy.YamlNodesStorage;
@@ -74,7 +75,20 @@ public class DashboardController {
                 node.isAlive(),
                 node.isActive(),
                 node.isEnabled(),
-                node.getCheckStatus()
+                node.getCheckStatus(),
+                quantileMillis(node.getCheckConnectTimes(), 0.5),
+                quantileMillis(node.getCheckConnectTimes(), 0.99),
+                quantileMillis(node.getCheckResponseTimes(), 0.5),
+                quantileMillis(node.getCheckResponseTimes(), 0.99)
         );
     }
+
+    /**
+     * Returns quantile of histogram in milliseconds. Quantile in overflow bucket is reported as largest bucket bound.
+     */
+    private static double quantileMillis(LatencyHistogram histogram, double quantile) {
+
+        final long maxNanos = histogram.getUpperBoundNanos(histogram.getBucketCount() - 2);
+        return Math.min(histogram.getQuantileNanos(quantile), maxNanos) / 1e6;
+    }
 }
@@ -0,0 +1,225 @@
+package io.github.jbalancer.strategy;
+
+import io.github.jbalancer.Balancer;
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Snapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Base balancing strategy which resolves candidate nodes from balancer {@link Snapshot} and context selector.
+ * Implementations only choose one node from non empty candidate snapshot.
+ *
+ * Nodes which reached their concurrency limit or whose circuit breaker rejects request are skipped. If chosen
+ * node is skipped, first node which is accepted is balanced instead; if no candidate node is accepted no node
+ * is balanced. Batch of nodes is refilled the same way until it is complete or candidates are exhausted. Nodes
+ * are accepted only until batch is complete, so circuit breaker permits are not taken for unused nodes.
+ *
+ * @see BalancedNode#isSaturated()
+ * @see BalancedNode#allowRequest()
+ */
+public abstract class AbstractStrategy implements Strategy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractStrategy.class);
+
+    private volatile SlowStart slowStart = SlowStart.NONE;
+
+    /**
+     * Sets slow start of newly activated nodes. Strategies which support slow start reduce share of
+     * node during slow start window.
+     *
+     * @param slowStart instance of {@link SlowStart}; null disables slow start
+     */
+    public void setSlowStart(SlowStart slowStart) {
+        this.slowStart = null == slowStart ? SlowStart.NONE : slowStart;
+    }
+
+    public SlowStart getSlowStart() {
+        return slowStart;
+    }
+
+    /**
+     * Randomly admits node with probability of its slow start factor, so node in slow start receives
+     * proportionally reduced share of requests.
+     *
+     * @param node chosen node
+     * @return {@code true} if node is admitted
+     */
+    protected boolean admitSlowStart(BalancedNode node) {
+
+        final double factor = slowStart.factor(node);
+        return factor >= 1.0 || ThreadLocalRandom.current().nextDouble() < factor;
+    }
+
+    @Override
+    public void prepare(Snapshot snapshot) {
+
+        if (null != snapshot && !snapshot.isEmpty()) {
+            prepareCandidates(snapshot);
+        }
+    }
+
+    /**
+     * Prepares per snapshot state of strategy. Default implementation does nothing.
+     *
+     * @param candidates non empty snapshot of available nodes
+     */
+    protected void prepareCandidates(Snapshot candidates) {
+    }
+
+    @Override
+    public BalancedNode balance(Balancer balancer, Context context) {
+
+        if (null == balancer) {
+            LOGGER.debug("Balancer is null; returned null node");
+            return null;
+        }
+
+        final Snapshot candidates = balancer.getSnapshot().select(getSelector(context));
+        if (candidates.isEmpty()) {
+            LOGGER.debug("No available nodes; returned null node");
+            return null;
+        }
+
+        final BalancedNode balanced = balance(candidates, context);
+        if (null == balanced || accept(balanced)) {
+            return balanced;
+        }
+        return balanceAccepted(candidates, balanced);
+    }
+
+    private static boolean accept(BalancedNode node) {
+        return !node.isSaturated() && node.allowRequest();
+    }
+
+    private static BalancedNode balanceAccepted(Snapshot candidates, BalancedNode rejected) {
+
+        final int size = candidates.size();
+        final int start = size == 1 ? 0 : ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < size; i++) {
+            int index = start + i;
+            if (index >= size) index -= size;
+
+            final BalancedNode node = candidates.get(index);
+            if (node != rejected && accept(node)) {
+                return node;
+            }
+        }
+        LOGGER.debug("All nodes saturated or rejected by circuit breaker; returned null node");
+        return null;
+    }
+
+    @Override
+    public List<BalancedNode> balance(Balancer balancer, Context context, int count) {
+
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        if (null == balancer || count == 0) {
+            return Collections.emptyList();
+        }
+
+        final Snapshot candidates = balancer.getSnapshot().select(getSelector(context));
+        if (candidates.isEmpty()) {
+            LOGGER.debug("No available nodes; returned empty nodes");
+            return Collections.emptyList();
+        }
+
+        final BalancedNode[] preferred = balance(candidates, context, Math.min(count, candidates.size()));
+        final List<BalancedNode> balanced = new ArrayList<>(preferred.length);
+        for (BalancedNode node : preferred) {
+            if (accept(node)) {
+                balanced.add(node);
+            }
+        }
+        if (balanced.size() < preferred.length) {
+            refillAccepted(candidates, preferred, balanced);
+        }
+        return Collections.unmodifiableList(balanced);
+    }
+
+    /**
+     * Adds accepted candidate nodes which were not preferred to balanced nodes until there are as many balanced
+     * nodes as preferred nodes.
+     */
+    private static void refillAccepted(Snapshot candidates, BalancedNode[] preferred, List<BalancedNode> balanced) {
+
+        final Set<BalancedNode> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+        skipped.addAll(Arrays.asList(preferred));
+
+        final int size = candidates.size();
+        final int start = ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < size && balanced.size() < preferred.length; i++) {
+            int index = start + i;
+            if (index >= size) index -= size;
+
+            final BalancedNode node = candidates.get(index);
+            if (!skipped.contains(node) && accept(node)) {
+                balanced.add(node);
+            }
+        }
+        if (balanced.size() < preferred.length) {
+            LOGGER.debug("Only {} of {} nodes accepted", balanced.size(), preferred.length);
+        }
+    }
+
+    /**
+     * Chooses one node from candidate nodes.
+     *
+     * @param candidates non empty snapshot of available and selected nodes
+     * @param context    instance of balancing context as {@link Context}; can be null
+     * @return balanced node as {@link BalancedNode}
+     */
+    protected abstract BalancedNode balance(Snapshot candidates, Context context);
+
+    /**
+     * Chooses up to {@code count} distinct nodes from candidate nodes in order of preference.
+     *
+     * Default implementation chooses first node with {@link #balance(Snapshot, Context)} and remaining
+     * nodes in snapshot order following first node. Implementations should override it with selection
+     * specific to strategy.
+     *
+     * @param candidates non empty snapshot of available and selected nodes
+     * @param context    instance of balancing context as {@link Context}; can be null
+     * @param count      number of nodes; positive and not greater than number of candidates
+     * @return array of distinct balanced nodes
+     */
+    protected BalancedNode[] balance(Snapshot candidates, Context context, int count) {
+
+        final BalancedNode first = balance(candidates, context);
+        final int start = Math.max(0, candidates.getNodes().indexOf(first));
+        return sequence(candidates, start, count);
+    }
+
+    /**
+     * Returns {@code count} candidate nodes in snapshot order starting at {@code start} position.
+     */
+    static BalancedNode[] sequence(Snapshot candidates, int start, int count) {
+
+        final int size = candidates.size();
+        final BalancedNode[] balanced = new BalancedNode[count];
+        for (int i = 0; i < count; i++) {
+            int index = start + i;
+            if (index >= size) index -= size;
+            balanced[i] = candidates.get(index);
+        }
+        return balanced;
+    }
+
+    private static Predicate<BalancedNode> getSelector(Context context) {
+
+        if (null == context) {
+            return null;
+        }
+        return context.getSelector();
+    }
+}
@@ -13,12 +13,28 @@ import java.util.function.Predicate;
 public class Context {
 
     private final Predicate<BalancedNode> selector;
+    private final String key;
 
     public Context(Predicate<BalancedNode> selector) {
+        this(selector, null);
+    }
+
+    public Context(Predicate<BalancedNode> selector, String key) {
         this.selector = selector;
+        this.key = key;
     }
 
     public Predicate<BalancedNode> getSelector() {
         return selector;
     }
+
+    /**
+     * Returns routing key of balanced request. Key affine strategies balance requests with same key to same node.
+     *
+     * @return routing key or null if request has no key
+     * @see MaglevStrategy
+     */
+    public String getKey() {
+        return key;
+    }
 }
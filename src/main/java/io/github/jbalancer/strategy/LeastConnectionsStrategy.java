@@ -0,0 +1,81 @@
+package io.github.jbalancer.strategy;
+
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Snapshot;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Balancing strategy which chooses node with least number of in-flight requests.
+ *
+ * Nodes are scanned from random position so ties between equally loaded nodes are spread
+ * across nodes without shared state between balancing threads.
+ *
+ * Load of nodes in slow start is increased by inverse of their slow start factor, so node in slow start is chosen
+ * only if it has considerably fewer in-flight requests than other nodes.
+ *
+ * @see BalancedNode#getInFlight()
+ */
+public class LeastConnectionsStrategy extends AbstractStrategy {
+
+    @Override
+    protected BalancedNode balance(Snapshot candidates, Context context) {
+
+        final int size = candidates.size();
+        final int start = size == 1 ? 0 : ThreadLocalRandom.current().nextInt(size);
+
+        final SlowStart slowStart = getSlowStart();
+        BalancedNode least = null;
+        double leastLoad = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int index = start + i;
+            if (index >= size) index -= size;
+
+            final BalancedNode node = candidates.get(index);
+            final double factor = slowStart.factor(node);
+            final int inFlight = node.getInFlight();
+            final double load = (inFlight + 1) / factor;
+            if (load < leastLoad) {
+                least = node;
+                leastLoad = load;
+                if (inFlight == 0 && factor >= 1.0) break;
+            }
+        }
+        return least;
+    }
+
+    /**
+     * Selects {@code count} nodes with least load in one pass. Load is computed as for single node including slow
+     * start. Selected nodes are kept in array ordered by load so each node is compared only with currently
+     * selected nodes.
+     */
+    @Override
+    protected BalancedNode[] balance(Snapshot candidates, Context context, int count) {
+
+        final int size = candidates.size();
+        final int start = size == 1 ? 0 : ThreadLocalRandom.current().nextInt(size);
+
+        final SlowStart slowStart = getSlowStart();
+        final BalancedNode[] least = new BalancedNode[count];
+        final double[] leastLoad = new double[count];
+        int selected = 0;
+        for (int i = 0; i < size; i++) {
+            int index = start + i;
+            if (index >= size) index -= size;
+
+            final BalancedNode node = candidates.get(index);
+            final double load = (node.getInFlight() + 1) / slowStart.factor(node);
+            if (selected == count && load >= leastLoad[count - 1]) continue;
+
+            int position = selected < count ? selected++ : count - 1;
+            while (position > 0 && leastLoad[position - 1] > load) {
+                least[position] = least[position - 1];
+                leastLoad[position] = leastLoad[position - 1];
+                position--;
+            }
+            least[position] = node;
+            leastLoad[position] = load;
+        }
+        return least;
+    }
+}
@@ -0,0 +1,218 @@
+package io.github.jbalancer.strategy;
+
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Snapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Balancing strategy which keeps requests in highest priority tier and spills them to lower tiers only when
+ * healthy capacity of higher tiers is not sufficient.
+ *
+ * Node tier is read from {@link #PRIORITY_LABEL} label (lower value is higher priority, default {@code 0}).
+ * If local zone is defined, nodes whose {@link #ZONE_LABEL} label differs from local zone are placed in tier
+ * right after local nodes of same priority, so requests leave local zone before they leave priority.
+ *
+ * Health of tier is weight of available nodes divided by weight of all enabled nodes in tier, multiplied by
+ * overprovisioning factor and limited to {@code 1}. Highest tier receives share of requests equal to its
+ * health and each next tier receives share equal to its health of remaining requests. If all tiers together
+ * are not healthy enough, shares are normalized. With default overprovisioning factor {@code 1.4} tier keeps
+ * all requests while at least about {@code 72%} of its capacity is available.
+ *
+ * Tiers are computed once per candidate snapshot and node within tier is chosen by delegate strategy
+ * over snapshot of tier nodes.
+ *
+ * @see Snapshot#getUnavailable()
+ * @see BalancedNode#getWeight()
+ */
+public class LocalityAwareStrategy extends AbstractStrategy {
+
+    public static final String ZONE_LABEL = "zone";
+    public static final String PRIORITY_LABEL = "priority";
+
+    public static final double DEFAULT_OVERPROVISIONING_FACTOR = 1.4;
+
+    private final Object tiersKey = new Object();
+
+    private final String localZone;
+    private final AbstractStrategy delegate;
+    private final double overprovisioningFactor;
+
+    public LocalityAwareStrategy(String localZone) {
+        this(localZone, new RoundRobinStrategy());
+    }
+
+    public LocalityAwareStrategy(String localZone, AbstractStrategy delegate) {
+        this(localZone, delegate, DEFAULT_OVERPROVISIONING_FACTOR);
+    }
+
+    /**
+     * @param localZone              zone of this balancer; if null only priority label defines tiers
+     * @param delegate               strategy choosing node within tier
+     * @param overprovisioningFactor multiplier of tier health; must be at least {@code 1}
+     */
+    public LocalityAwareStrategy(String localZone, AbstractStrategy delegate, double overprovisioningFactor) {
+
+        if (null == delegate) {
+            throw new IllegalArgumentException("Delegate strategy must be defined");
+        }
+        if (!(overprovisioningFactor >= 1.0)) {
+            throw new IllegalArgumentException("Overprovisioning factor must be at least 1: " + overprovisioningFactor);
+        }
+        this.localZone = localZone;
+        this.delegate = delegate;
+        this.overprovisioningFactor = overprovisioningFactor;
+    }
+
+    public String getLocalZone() {
+        return localZone;
+    }
+
+    @Override
+    protected void prepareCandidates(Snapshot candidates) {
+
+        for (Snapshot tier : candidates.getAttachment(tiersKey, this::createTiers).snapshots) {
+            delegate.prepare(tier);
+        }
+    }
+
+    @Override
+    protected BalancedNode balance(Snapshot candidates, Context context) {
+
+        final Tiers tiers = candidates.getAttachment(tiersKey, this::createTiers);
+        return delegate.balance(tiers.snapshots[tiers.choose()], context);
+    }
+
+    /**
+     * Chooses nodes of randomly chosen tier first and then nodes of remaining tiers in priority order.
+     */
+    @Override
+    protected BalancedNode[] balance(Snapshot candidates, Context context, int count) {
+
+        final Tiers tiers = candidates.getAttachment(tiersKey, this::createTiers);
+        final int first = tiers.choose();
+
+        final BalancedNode[] balanced = new BalancedNode[count];
+        int size = appendTier(balanced, 0, tiers.snapshots[first], context);
+        for (int i = 0; i < tiers.snapshots.length && size < count; i++) {
+            if (i != first) {
+                size = appendTier(balanced, size, tiers.snapshots[i], context);
+            }
+        }
+        return balanced;
+    }
+
+    private int appendTier(BalancedNode[] balanced, int size, Snapshot tier, Context context) {
+
+        final int count = Math.min(balanced.length - size, tier.size());
+        final BalancedNode[] nodes = delegate.balance(tier, context, count);
+        System.arraycopy(nodes, 0, balanced, size, count);
+        return size + count;
+    }
+
+    /**
+     * Returns share of requests balanced to each tier of candidate nodes in priority order.
+     *
+     * @param candidates snapshot of available nodes
+     * @return array of tier shares; empty if there are no candidate nodes
+     */
+    public double[] getLoads(Snapshot candidates) {
+
+        if (candidates.isEmpty()) {
+            return new double[0];
+        }
+        return candidates.getAttachment(tiersKey, this::createTiers).loads.clone();
+    }
+
+    private Tiers createTiers(Snapshot candidates) {
+
+        final Map<Long, List<BalancedNode>> available = new TreeMap<>();
+        final Map<Long, Long> availableWeights = new TreeMap<>();
+        for (BalancedNode node : candidates.getNodes()) {
+            final long rank = rank(node);
+            available.computeIfAbsent(rank, r -> new ArrayList<>()).add(node);
+            availableWeights.merge(rank, (long) node.getWeight(), Long::sum);
+        }
+        final Map<Long, Long> unavailableWeights = new TreeMap<>();
+        for (BalancedNode node : candidates.getUnavailable()) {
+            unavailableWeights.merge(rank(node), (long) node.getWeight(), Long::sum);
+        }
+
+        final Snapshot[] snapshots = new Snapshot[available.size()];
+        final double[] loads = new double[available.size()];
+        double remaining = 1.0;
+        int tier = 0;
+        for (Map.Entry<Long, List<BalancedNode>> entry : available.entrySet()) {
+            final long availableWeight = availableWeights.get(entry.getKey());
+            final long totalWeight = availableWeight + unavailableWeights.getOrDefault(entry.getKey(), 0L);
+            final double health = totalWeight == 0 ? 1.0 : overprovisioningFactor * availableWeight / totalWeight;
+
+            snapshots[tier] = Snapshot.create(candidates.getVersion(), entry.getValue(), 0);
+            loads[tier] = Math.min(remaining, health);
+            remaining -= loads[tier];
+            tier++;
+        }
+
+        final double total = 1.0 - remaining;
+        for (int i = 0; i < loads.length; i++) {
+            loads[i] = total > 0.0 ? loads[i] / total : (i == 0 ? 1.0 : 0.0);
+        }
+        return new Tiers(snapshots, loads);
+    }
+
+    private long rank(BalancedNode node) {
+
+        final long priority = priority(node.getLabels().get(PRIORITY_LABEL));
+        if (null == localZone) {
+            return priority;
+        }
+        return 2 * priority + (localZone.equals(node.getLabels().get(ZONE_LABEL)) ? 0 : 1);
+    }
+
+    private static long priority(String value) {
+
+        if (null == value) {
+            return 0L;
+        }
+        try {
+            return Math.max(Integer.parseInt(value.trim()), 0);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Snapshots of tier nodes and tier shares in priority order.
+     */
+    private static final class Tiers {
+
+        private final Snapshot[] snapshots;
+        private final double[] loads;
+
+        private Tiers(Snapshot[] snapshots, double[] loads) {
+            this.snapshots = snapshots;
+            this.loads = loads;
+        }
+
+        private int choose() {
+
+            if (snapshots.length == 1) {
+                return 0;
+            }
+            double random = ThreadLocalRandom.current().nextDouble();
+            for (int i = 0; i < loads.length - 1; i++) {
+                random -= loads[i];
+                if (random < 0.0) {
+                    return i;
+                }
+            }
+            int last = loads.length - 1;
+            while (last > 0 && loads[last] == 0.0) last--;
+            return last;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package io.github.jbalancer.strategy;
+
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Snapshot;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.jbalancer.utils.Hashing.hash;
+import static io.github.jbalancer.utils.Hashing.mix;
+
+/**
+ * Consistent hashing balancing strategy based on Maglev lookup table.
+ *
+ * Requests with same context key are balanced to same node. Lookup table is computed once per node
+ * snapshot when balancer refreshes its snapshot, so membership change remaps only small part of keys.
+ * To prevent overloading of node with hot keys, load of each node is bounded with {@code loadFactor}
+ * times average number of in-flight requests. Requests over node bound spill over to next lookup table
+ * entries. Node bound is sampled with lookup table at most once per {@code 1ms}, so key balanced to its
+ * preferred node doesn't scan all nodes.
+ *
+ * If nodes are selected with arbitrary selector predicate (transient snapshot), node is chosen from
+ * selected nodes with rendezvous hashing.
+ * Requests without key are balanced randomly.
+ *
+ * @see Context#getKey()
+ */
+public class MaglevStrategy extends AbstractStrategy {
+
+    public static final int DEFAULT_TABLE_SIZE = 65537;
+    public static final double DEFAULT_LOAD_FACTOR = 1.25;
+
+    private static final long OFFSET_SEED = 0x9E3779B97F4A7C15L;
+    private static final long SKIP_SEED = 0xC2B2AE3D27D4EB4FL;
+    private static final long CAPACITY_SAMPLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int tableSize;
+    private final double loadFactor;
+
+    public MaglevStrategy() {
+        this(DEFAULT_TABLE_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param tableSize  lookup table size; must be prime number considerably larger than number of nodes
+     * @param loadFactor maximum node load relative to average load; must be at least {@code 1}
+     */
+    public MaglevStrategy(int tableSize, double loadFactor) {
+
+        if (!isPrime(tableSize)) {
+            throw new IllegalArgumentException("Table size must be prime number: " + tableSize);
+        }
+        if (loadFactor < 1.0) {
+            throw new IllegalArgumentException("Load factor must be at least 1: " + loadFactor);
+        }
+        this.tableSize = tableSize;
+        this.loadFactor = loadFactor;
+    }
+
+    @Override
+    protected void prepareCandidates(Snapshot candidates) {
+        candidates.getAttachment(this, this::createLookup);
+    }
+
+    @Override
+    protected BalancedNode balance(Snapshot candidates, Context context) {
+
+        final String key = null == context ? null : context.getKey();
+        if (null == key) {
+            return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+        }
+
+        final long keyHash = hash(key, 0L);
+        if (candidates.isTransient()) {
+            return balanceRendezvous(candidates, keyHash);
+        }
+
+        final Lookup lookup = candidates.getAttachment(this, this::createLookup);
+        return balanceTable(candidates, lookup, keyHash);
+    }
+
+    /**
+     * Balances preference list of distinct nodes. Nodes are taken in order of lookup table entries
+     * starting at key entry (table based) or in order of rendezvous score (transient snapshot), so
+     * first node is node preferred by key without load bound. Requests without key are balanced to
+     * consecutive nodes from random position.
+     */
+    @Override
+    protected BalancedNode[] balance(Snapshot candidates, Context context, int count) {
+
+        final String key = null == context ? null : context.getKey();
+        if (null == key) {
+            return sequence(candidates, ThreadLocalRandom.current().nextInt(candidates.size()), count);
+        }
+
+        final long keyHash = hash(key, 0L);
+        if (candidates.isTransient()) {
+            return balanceRendezvous(candidates, keyHash, count);
+        }
+
+        final int[] table = candidates.getAttachment(this, this::createLookup).table;
+        final boolean[] chosen = new boolean[candidates.size()];
+        final BalancedNode[] balanced = new BalancedNode[count];
+        int selected = 0;
+        int position = (int) Long.remainderUnsigned(keyHash, table.length);
+        for (int i = 0; i < table.length && selected < count; i++) {
+            final int index = table[position];
+            if (!chosen[index]) {
+                chosen[index] = true;
+                balanced[selected++] = candidates.get(index);
+            }
+            if (++position == table.length) position = 0;
+        }
+        return balanced;
+    }
+
+    private BalancedNode balanceTable(Snapshot candidates, Lookup lookup, long keyHash) {
+
+        final int[] table = lookup.table;
+        int position = (int) Long.remainderUnsigned(keyHash, table.length);
+        final BalancedNode preferred = candidates.get(table[position]);
+        if (preferred.getInFlight() == 0 || candidates.size() == 1) {
+            return preferred;
+        }
+
+        final int capacity = lookup.capacity(candidates);
+        for (int i = 0; i < table.length; i++) {
+            final BalancedNode node = candidates.get(table[position]);
+            if (node.getInFlight() < capacity) {
+                return node;
+            }
+            if (++position == table.length) position = 0;
+        }
+        return preferred;
+    }
+
+    private BalancedNode balanceRendezvous(Snapshot candidates, long keyHash) {
+
+        final int capacity = capacity(candidates);
+
+        BalancedNode best = null;
+        long bestScore = 0L;
+        BalancedNode bestBounded = null;
+        long bestBoundedScore = 0L;
+        for (int i = 0; i < candidates.size(); i++) {
+            final BalancedNode node = candidates.get(i);
+            final long score = mix(keyHash ^ hash(name(node), OFFSET_SEED));
+            if (null == best || Long.compareUnsigned(score, bestScore) > 0) {
+                best = node;
+                bestScore = score;
+            }
+            if (node.getInFlight() < capacity && (null == bestBounded || Long.compareUnsigned(score, bestBoundedScore) > 0)) {
+                bestBounded = node;
+                bestBoundedScore = score;
+            }
+        }
+        return null == bestBounded ? best : bestBounded;
+    }
+
+    private static BalancedNode[] balanceRendezvous(Snapshot candidates, long keyHash, int count) {
+
+        final long[] scores = new long[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            scores[i] = mix(keyHash ^ hash(name(candidates.get(i)), OFFSET_SEED));
+        }
+
+        final boolean[] chosen = new boolean[candidates.size()];
+        final BalancedNode[] balanced = new BalancedNode[count];
+        for (int selected = 0; selected < count; selected++) {
+            int best = -1;
+            for (int i = 0; i < scores.length; i++) {
+                if (!chosen[i] && (best < 0 || Long.compareUnsigned(scores[i], scores[best]) > 0)) {
+                    best = i;
+                }
+            }
+            chosen[best] = true;
+            balanced[selected] = candidates.get(best);
+        }
+        return balanced;
+    }
+
+    /**
+     * Maximum number of in-flight requests per node including balanced request.
+     */
+    private int capacity(Snapshot candidates) {
+
+        long total = 0L;
+        for (int i = 0; i < candidates.size(); i++) {
+            total += candidates.get(i).getInFlight();
+        }
+        return (int) Math.ceil(loadFactor * (total + 1) / candidates.size());
+    }
+
+    private Lookup createLookup(Snapshot snapshot) {
+        return new Lookup(createTable(snapshot));
+    }
+
+    /**
+     * Populates Maglev lookup table. Each node fills table entries in order of its own permutation of
+     * table positions until all entries are filled, so each node owns almost equal number of entries.
+     *
+     * @param snapshot node snapshot
+     * @return lookup table of node positions in snapshot
+     */
+    int[] createTable(Snapshot snapshot) {
+
+        final int size = snapshot.size();
+        final long[] offset = new long[size];
+        final long[] skip = new long[size];
+        final long[] next = new long[size];
+        for (int i = 0; i < size; i++) {
+            final String name = name(snapshot.get(i));
+            offset[i] = Long.remainderUnsigned(hash(name, OFFSET_SEED), tableSize);
+            skip[i] = Long.remainderUnsigned(hash(name, SKIP_SEED), tableSize - 1) + 1;
+        }
+
+        final int[] table = new int[tableSize];
+        Arrays.fill(table, -1);
+        int filled = 0;
+        while (filled < tableSize) {
+            for (int i = 0; i < size && filled < tableSize; i++) {
+                int position = (int) ((offset[i] + next[i] * skip[i]) % tableSize);
+                while (table[position] >= 0) {
+                    next[i]++;
+                    position = (int) ((offset[i] + next[i] * skip[i]) % tableSize);
+                }
+                table[position] = i;
+                next[i]++;
+                filled++;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Lookup table attached to snapshot together with sampled node bound.
+     */
+    private final class Lookup {
+
+        private final int[] table;
+
+        private volatile int capacity;
+        private volatile long sampledAt;
+
+        private Lookup(int[] table) {
+            this.table = table;
+            this.sampledAt = System.nanoTime() - CAPACITY_SAMPLE_NANOS;
+        }
+
+        /**
+         * Returns node bound sampled in last {@code 1ms}. Concurrent samples are benign, last one wins.
+         */
+        private int capacity(Snapshot candidates) {
+
+            final long now = System.nanoTime();
+            if (now - sampledAt < CAPACITY_SAMPLE_NANOS) {
+                return capacity;
+            }
+
+            final int sampled = MaglevStrategy.this.capacity(candidates);
+            capacity = sampled;
+            sampledAt = now;
+            return sampled;
+        }
+    }
+
+    private static String name(BalancedNode node) {
+
+        final URI connection = node.getConnection();
+        return String.valueOf(null == connection ? node.getStatus() : connection);
+    }
+
+    private static boolean isPrime(int value) {
+
+        if (value < 2) return false;
+        for (int divisor = 2; (long) divisor * divisor <= value; divisor++) {
+            if (value % divisor == 0) return false;
+        }
+        return true;
+    }
+}
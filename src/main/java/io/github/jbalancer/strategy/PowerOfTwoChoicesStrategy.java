@@ -0,0 +1,98 @@
+package io.github.jbalancer.strategy;
+
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Snapshot;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balancing strategy which samples two random nodes and chooses one with lower load score.
+ *
+ * Node score is peak EWMA of response latency multiplied by number of in-flight requests increased by one.
+ * Node without recorded latency scores zero when idle and is penalized when it has in-flight requests.
+ *
+ * Better scored node in slow start is chosen only with probability of its slow start factor.
+ *
+ * @see BalancedNode#getLatency()
+ * @see BalancedNode#getInFlight()
+ */
+public class PowerOfTwoChoicesStrategy extends AbstractStrategy {
+
+    private static final double PENALTY = TimeUnit.SECONDS.toNanos(60);
+
+    @Override
+    protected BalancedNode balance(Snapshot candidates, Context context) {
+
+        final int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) second++;
+
+        final BalancedNode firstNode = candidates.get(first);
+        final BalancedNode secondNode = candidates.get(second);
+        final boolean firstBetter = score(firstNode) <= score(secondNode);
+        final BalancedNode better = firstBetter ? firstNode : secondNode;
+        if (admitSlowStart(better)) {
+            return better;
+        }
+        return firstBetter ? secondNode : firstNode;
+    }
+
+    /**
+     * Samples two distinct nodes for each requested node and chooses {@code count} sampled nodes with
+     * lowest load score. If there are not enough nodes to sample, all nodes are scored.
+     */
+    @Override
+    protected BalancedNode[] balance(Snapshot candidates, Context context, int count) {
+
+        final int size = candidates.size();
+        final int samples = Math.min(size, 2 * count);
+
+        // partial Fisher-Yates shuffle of node positions
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = i;
+        }
+        final double[] scores = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            final int swap = i + random.nextInt(size - i);
+            final int position = positions[swap];
+            positions[swap] = positions[i];
+            positions[i] = position;
+            scores[i] = score(candidates.get(position));
+        }
+
+        final BalancedNode[] balanced = new BalancedNode[count];
+        for (int i = 0; i < count; i++) {
+            int best = i;
+            for (int j = i + 1; j < samples; j++) {
+                if (scores[j] < scores[best]) best = j;
+            }
+            final double score = scores[best];
+            final int position = positions[best];
+            scores[best] = scores[i];
+            positions[best] = positions[i];
+            scores[i] = score;
+            positions[i] = position;
+            balanced[i] = candidates.get(position);
+        }
+        return balanced;
+    }
+
+    static double score(BalancedNode node) {
+
+        final double latency = node.getLatency();
+        final int inFlight = node.getInFlight();
+        if (latency == 0.0 && inFlight != 0) {
+            return PENALTY + inFlight;
+        }
+        return latency * (inFlight + 1);
+    }
+}
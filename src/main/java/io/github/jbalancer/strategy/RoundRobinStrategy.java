@@ -1,64 +1,79 @@
 package io.github.jbalancer.strategy;
 
-import io.github.jbalancer.Balancer;
 import io.github.jbalancer.node.BalancedNode;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.github.jbalancer.node.Snapshot;
 
-import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Simple balancing strategy for evenly distributed node balancing.
+ *
+ * By default all balancing threads share one counter so nodes are balanced in strict order. Striped
+ * strategy ({@link #striped()}) gives each processor its own counter; each counter balances nodes in round
+ * so distribution stays even over time while threads don't contend on single counter.
+ *
+ * Share of nodes in slow start is reduced with {@link SlowStart}.
  */
-public class RoundRobinStrategy implements Strategy {
+public class RoundRobinStrategy extends AbstractStrategy {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(RoundRobinStrategy.class);
-
-    private AtomicInteger counter;
+    private final StripedCounter counter;
 
     public RoundRobinStrategy() {
-        this.counter = new AtomicInteger(0);
+        this(1);
     }
 
-    @Override
-    public BalancedNode balance(Balancer balancer, Context context) {
-
-        if (null == balancer) {
-            LOGGER.debug("Balancer is null; returned null node");
-            return null;
-        }
-
-        List<BalancedNode> available = balancer.getAll().stream()
-                .filter(getSelector(context))
-                .filter(BalancedNode::isEnabled)
-                .filter(BalancedNode::isActive)
-                .collect(Collectors.toList());
+    /**
+     * @param stripes number of independent counters; rounded up to power of two
+     */
+    public RoundRobinStrategy(int stripes) {
+        this(new StripedCounter(stripes));
+    }
 
-        if (null == available || available.isEmpty()) {
-            LOGGER.debug("No available nodes; returned null node");
-            return null;
-        }
+    private RoundRobinStrategy(StripedCounter counter) {
+        this.counter = counter;
+    }
 
-        return available.get((nextIndex(available.size())));
+    /**
+     * Creates round robin strategy with one counter per available processor.
+     *
+     * @return instance of {@link RoundRobinStrategy}
+     */
+    public static RoundRobinStrategy striped() {
+        return new RoundRobinStrategy(StripedCounter.perProcessor());
     }
 
-    private Predicate<BalancedNode> getSelector(Context context) {
+    /**
+     * Balances node at next counter position. Node in slow start which is not admitted is replaced with
+     * first admitted node from random position.
+     */
+    @Override
+    protected BalancedNode balance(Snapshot candidates, Context context) {
 
-        if (null == context) {
-            return node -> true;
+        final int size = candidates.size();
+        final BalancedNode balanced = candidates.get(counter.nextIndex(size));
+        if (size == 1 || admitSlowStart(balanced)) {
+            return balanced;
         }
 
-        Predicate<BalancedNode> selector = context.getSelector();
-        if (null == selector) {
-            return e -> true;
+        final int start = ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < size; i++) {
+            int index = start + i;
+            if (index >= size) index -= size;
+
+            final BalancedNode node = candidates.get(index);
+            if (node != balanced && admitSlowStart(node)) {
+                return node;
+            }
         }
-        return selector;
+        return balanced;
     }
 
-    private int nextIndex(int modulo) {
-        return Math.abs(counter.getAndIncrement() % modulo);
+    /**
+     * Balances consecutive nodes starting at next counter position. Counter advances by one so each node
+     * starts equal number of batches.
+     */
+    @Override
+    protected BalancedNode[] balance(Snapshot candidates, Context context, int count) {
+        return sequence(candidates, counter.nextIndex(candidates.size()), count);
     }
 }
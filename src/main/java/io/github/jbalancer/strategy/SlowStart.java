@@ -0,0 +1,98 @@
+package io.github.jbalancer.strategy;
+
+import io.github.jbalancer.node.BalancedNode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slow start of newly activated nodes.
+ *
+ * During slow start window node receives only fraction of its share of requests. Fraction grows from
+ * {@code minFactor} to full share as {@code (activeTime / window) ^ (1 / aggression)}; aggression {@code 1}
+ * ramps share linearly, larger aggression ramps share faster at the beginning of window.
+ *
+ * @see BalancedNode#getActiveNanos()
+ */
+public final class SlowStart {
+
+    /**
+     * Slow start which gives full share to nodes immediately.
+     */
+    public static final SlowStart NONE = new SlowStart(0L, 1.0, 1.0);
+
+    public static final double DEFAULT_MIN_FACTOR = 0.1;
+
+    private final long windowNanos;
+    private final double aggression;
+    private final double minFactor;
+
+    private SlowStart(long windowNanos, double aggression, double minFactor) {
+        this.windowNanos = windowNanos;
+        this.aggression = aggression;
+        this.minFactor = minFactor;
+    }
+
+    /**
+     * Creates slow start which ramps node share linearly during slow start window.
+     *
+     * @param window slow start window duration
+     * @param unit   window time unit
+     * @return instance of {@link SlowStart}
+     */
+    public static SlowStart linear(long window, TimeUnit unit) {
+        return of(window, unit, 1.0, DEFAULT_MIN_FACTOR);
+    }
+
+    /**
+     * Creates slow start.
+     *
+     * @param window     slow start window duration
+     * @param unit       window time unit
+     * @param aggression ramp curve; must be positive
+     * @param minFactor  share of newly activated node; must be in range {@code (0, 1]}
+     * @return instance of {@link SlowStart}
+     */
+    public static SlowStart of(long window, TimeUnit unit, double aggression, double minFactor) {
+
+        if (window < 0) {
+            throw new IllegalArgumentException("Slow start window must not be negative: " + window);
+        }
+        if (aggression <= 0.0) {
+            throw new IllegalArgumentException("Aggression must be positive: " + aggression);
+        }
+        if (minFactor <= 0.0 || minFactor > 1.0) {
+            throw new IllegalArgumentException("Min factor must be in range (0, 1]: " + minFactor);
+        }
+        return new SlowStart(unit.toNanos(window), aggression, minFactor);
+    }
+
+    /**
+     * Returns current share of node in range {@code [minFactor, 1]}.
+     *
+     * @param node balanced node
+     * @return node share factor
+     */
+    public double factor(BalancedNode node) {
+
+        if (windowNanos == 0L) {
+            return 1.0;
+        }
+
+        final long activeNanos = node.getActiveNanos();
+        if (activeNanos >= windowNanos) {
+            return 1.0;
+        }
+        final double progress = (double) activeNanos / windowNanos;
+        final double factor = aggression == 1.0 ? progress : Math.pow(progress, 1.0 / aggression);
+        return Math.max(minFactor, factor);
+    }
+
+    @Override
+    public String toString() {
+        return "SlowStart{" +
+                "windowNanos=" + windowNanos +
+                ", aggression=" + aggression +
+                ", minFactor=" + minFactor +
+                '}';
+    }
+}
@@ -2,13 +2,20 @@ package io.github.jbalancer.strategy;
 
 import io.github.jbalancer.Balancer;
 import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Snapshot;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Predicate;
 
 /**
  * Component for performing balancing strategy.
  *
  * @see RoundRobinStrategy
+ * @see LeastConnectionsStrategy
+ * @see PowerOfTwoChoicesStrategy
+ * @see WeightedRoundRobinStrategy
+ * @see MaglevStrategy
  */
 public interface Strategy {
 
@@ -21,6 +28,16 @@ public interface Strategy {
      */
     BalancedNode balance(Balancer balancer, Context context);
 
+    /**
+     * Prepares state which strategy keeps per node snapshot (e.g. balancing schedule), so it is not computed
+     * by first balancing over new snapshot. Called by balancer when its snapshot is refreshed, before snapshot
+     * is used for balancing.
+     *
+     * @param snapshot new snapshot of balancer nodes
+     */
+    default void prepare(Snapshot snapshot) {
+    }
+
     /**
      * Using {@code balancer} and null {@code context} performs balancing over available nodes.
      *
@@ -41,4 +58,33 @@ public interface Strategy {
     default BalancedNode balance(Balancer balancer, Predicate<BalancedNode> selector) {
         return balance(balancer, new Context(selector));
     }
+
+    /**
+     * Using {@code balancer} and {@code context} performs balancing of up to {@code count} distinct nodes
+     * over available nodes. Nodes are returned in order of preference; first node is node which would be
+     * balanced by {@link #balance(Balancer, Context)}.
+     *
+     * Default implementation repeats single node balancing and skips duplicates so strategies should provide
+     * implementation which selects all nodes in one pass.
+     *
+     * @param balancer instance of {@link Balancer}
+     * @param context  instance of balancing context as {@link Context}
+     * @param count    maximum number of balanced nodes
+     * @return list of distinct balanced nodes; empty if no available node by this strategy
+     */
+    default List<BalancedNode> balance(Balancer balancer, Context context, int count) {
+
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+
+        final List<BalancedNode> balanced = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final BalancedNode node = balance(balancer, context);
+            if (null != node && !balanced.contains(node)) {
+                balanced.add(node);
+            }
+        }
+        return balanced;
+    }
 }
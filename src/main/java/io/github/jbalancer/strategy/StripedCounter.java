@@ -0,0 +1,74 @@
+package io.github.jbalancer.strategy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter split into multiple independent sequences (stripes) to avoid contention of single shared counter.
+ *
+ * Calling thread is mapped to stripe by its id so threads of a pool are spread evenly over stripes. Every stripe
+ * is a sequence of its own starting at stripe position, so each stripe visits positions in round and distribution
+ * over all stripes stays even over time. Stripes are padded to separate cache lines.
+ */
+final class StripedCounter {
+
+    /**
+     * Number of longs between two stripes (128 bytes) so stripes don't share cache line.
+     */
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    /**
+     * @param stripes number of stripes; rounded up to power of two
+     */
+    StripedCounter(int stripes) {
+
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.cells = new AtomicLongArray(size * PADDING);
+        for (int i = 0; i < size; i++) {
+            cells.set(i * PADDING, i);
+        }
+    }
+
+    /**
+     * Creates counter with number of stripes matching number of available processors.
+     *
+     * @return instance of {@link StripedCounter}
+     */
+    static StripedCounter perProcessor() {
+        return new StripedCounter(Runtime.getRuntime().availableProcessors());
+    }
+
+    int getStripes() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns next value of calling thread stripe sequence.
+     *
+     * @return non-negative counter value
+     */
+    long next() {
+
+        final int stripe = (int) Thread.currentThread().getId() & mask;
+        return cells.getAndIncrement(stripe * PADDING) & Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns next position in range {@code [0, modulo)}.
+     *
+     * @param modulo number of positions
+     * @return next position
+     */
+    int nextIndex(int modulo) {
+        return (int) (next() % modulo);
+    }
+}
@@ -0,0 +1,239 @@
+package io.github.jbalancer.strategy;
+
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Snapshot;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Smooth weighted round robin balancing strategy.
+ *
+ * Nodes are balanced proportionally to their weight and picks of heavier nodes are interleaved with
+ * picks of lighter nodes. Schedule of one full round is computed once per node snapshot when balancer
+ * refreshes its snapshot, so each pick is constant time operation. If nodes are selected with arbitrary
+ * selector predicate (transient snapshot), node is chosen from selected nodes randomly with probability
+ * proportional to node weight.
+ *
+ * Weight of nodes in slow start is reduced with {@link SlowStart}: scheduled node in slow start is admitted only
+ * with probability of its slow start factor, otherwise next admitted node following it in schedule is balanced.
+ *
+ * @see BalancedNode#getWeight()
+ */
+public class WeightedRoundRobinStrategy extends AbstractStrategy {
+
+    private static final Object SCHEDULE_KEY = new Object();
+
+    private final StripedCounter counter = new StripedCounter(1);
+
+    @Override
+    protected void prepareCandidates(Snapshot candidates) {
+        candidates.getAttachment(SCHEDULE_KEY, WeightedRoundRobinStrategy::createSchedule);
+    }
+
+    @Override
+    protected BalancedNode balance(Snapshot candidates, Context context) {
+
+        if (candidates.isTransient()) {
+            return balanceRandom(candidates);
+        }
+
+        final int[] schedule = candidates.getAttachment(SCHEDULE_KEY, WeightedRoundRobinStrategy::createSchedule);
+        if (schedule.length == 0) {
+            return null;
+        }
+        int position = counter.nextIndex(schedule.length);
+        final BalancedNode balanced = candidates.get(schedule[position]);
+        if (admitSlowStart(balanced)) {
+            return balanced;
+        }
+
+        // scan following schedule entries locally, so shared schedule position is not advanced
+        int attempts = candidates.size() - 1;
+        for (int i = 1; i < schedule.length && attempts > 0; i++) {
+            if (++position == schedule.length) position = 0;
+            final BalancedNode node = candidates.get(schedule[position]);
+            if (node == balanced) continue;
+
+            if (admitSlowStart(node)) {
+                return node;
+            }
+            attempts--;
+        }
+        return balanced;
+    }
+
+    /**
+     * Balances distinct nodes in order of schedule starting at next counter position. Nodes with zero
+     * weight are never balanced so fewer than {@code count} nodes can be returned.
+     */
+    @Override
+    protected BalancedNode[] balance(Snapshot candidates, Context context, int count) {
+
+        if (candidates.isTransient()) {
+            return balanceRandom(candidates, count);
+        }
+
+        final int[] schedule = candidates.getAttachment(SCHEDULE_KEY, WeightedRoundRobinStrategy::createSchedule);
+        if (schedule.length == 0) {
+            return new BalancedNode[0];
+        }
+
+        final boolean[] chosen = new boolean[candidates.size()];
+        final BalancedNode[] balanced = new BalancedNode[count];
+        int selected = 0;
+        int position = counter.nextIndex(schedule.length);
+        for (int i = 0; i < schedule.length && selected < count; i++) {
+            final int index = schedule[position];
+            if (!chosen[index]) {
+                chosen[index] = true;
+                balanced[selected++] = candidates.get(index);
+            }
+            if (++position == schedule.length) position = 0;
+        }
+        return selected == count ? balanced : Arrays.copyOf(balanced, selected);
+    }
+
+    /**
+     * Chooses distinct nodes randomly with probability proportional to node weight. Weight of chosen node
+     * is excluded from next choice.
+     */
+    private static BalancedNode[] balanceRandom(Snapshot candidates, int count) {
+
+        int total = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            total += candidates.get(i).getWeight();
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final boolean[] chosen = new boolean[candidates.size()];
+        final BalancedNode[] balanced = new BalancedNode[count];
+        int selected = 0;
+        while (selected < count && total > 0) {
+            int position = random.nextInt(total);
+            for (int i = 0; i < candidates.size(); i++) {
+                if (chosen[i]) continue;
+
+                final int weight = candidates.get(i).getWeight();
+                position -= weight;
+                if (position < 0) {
+                    chosen[i] = true;
+                    total -= weight;
+                    balanced[selected++] = candidates.get(i);
+                    break;
+                }
+            }
+        }
+        return selected == count ? balanced : Arrays.copyOf(balanced, selected);
+    }
+
+    private BalancedNode balanceRandom(Snapshot candidates) {
+
+        final SlowStart slowStart = getSlowStart();
+        final double[] weights = new double[candidates.size()];
+        double total = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            final BalancedNode node = candidates.get(i);
+            weights[i] = node.getWeight() * slowStart.factor(node);
+            total += weights[i];
+        }
+        if (total == 0) {
+            return null;
+        }
+
+        double position = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < candidates.size(); i++) {
+            position -= weights[i];
+            if (position < 0) {
+                return candidates.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Computes smooth weighted round robin schedule for one full round. Round length is sum of node
+     * weights divided by their greatest common divisor. K-th pick of node with weight {@code w} is due at
+     * {@code (k - 1/2) / w} of round and picks are scheduled in order of their due time (ties in order of
+     * nodes), so picks of each node are spread evenly over round. Next due pick is taken from heap, so
+     * computing schedule takes {@code O(round length * log(nodes))}.
+     *
+     * @param snapshot node snapshot
+     * @return positions of nodes in snapshot in order of balancing
+     */
+    static int[] createSchedule(Snapshot snapshot) {
+
+        final int size = snapshot.size();
+        final int[] weights = new int[size];
+        int divisor = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = snapshot.get(i).getWeight();
+            divisor = gcd(divisor, weights[i]);
+        }
+        if (divisor == 0) {
+            return new int[0];
+        }
+
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] /= divisor;
+            total += weights[i];
+        }
+
+        // heap of nodes ordered by due time of their next pick
+        final int[] picks = new int[size];
+        final int[] heap = new int[size];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (weights[i] > 0) {
+                heap[heapSize++] = i;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(heap, heapSize, i, picks, weights);
+        }
+
+        final int[] schedule = new int[total];
+        for (int position = 0; position < total; position++) {
+            final int next = heap[0];
+            schedule[position] = next;
+            if (++picks[next] == weights[next]) {
+                heap[0] = heap[--heapSize];
+            }
+            siftDown(heap, heapSize, 0, picks, weights);
+        }
+        return schedule;
+    }
+
+    private static void siftDown(int[] heap, int heapSize, int position, int[] picks, int[] weights) {
+
+        final int node = heap[position];
+        int child = 2 * position + 1;
+        while (child < heapSize) {
+            if (child + 1 < heapSize && isDueBefore(heap[child + 1], heap[child], picks, weights)) {
+                child++;
+            }
+            if (!isDueBefore(heap[child], node, picks, weights)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+            child = 2 * position + 1;
+        }
+        heap[position] = node;
+    }
+
+    /**
+     * Compares due times {@code (2 * picks + 1) / (2 * weight)} of next picks of nodes without division,
+     * ties are ordered by node position.
+     */
+    private static boolean isDueBefore(int a, int b, int[] picks, int[] weights) {
+
+        final long compared = (2L * picks[a] + 1) * weights[b] - (2L * picks[b] + 1) * weights[a];
+        return compared < 0 || compared == 0 && a < b;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.jbalancer.utils;
+
+/**
+ * Fast non-cryptographic hashing used for consistent node placement.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Returns 64-bit FNV-1a hash of value finalized with {@link #mix(long)}.
+     *
+     * @param value hashed value
+     * @param seed  hash seed
+     * @return hash of value
+     */
+    public static long hash(String value, long seed) {
+
+        long hash = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Returns value with well distributed bits (MurmurHash3 finalizer).
+     *
+     * @param value mixed value
+     * @return mixed value
+     */
+    public static long mix(long value) {
+
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.jbalancer.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel of scheduled items. Wheel has power of two number of buckets, each covering one tick.
+ * Item is placed in bucket of its deadline tick and stays there for number of full wheel rounds remaining
+ * until deadline, so scheduling is constant time and advancing wheel visits only buckets of elapsed ticks.
+ *
+ * Items expire at tick resolution, never before their deadline tick. Wheel is not thread safe.
+ *
+ * @param <T> item type
+ */
+public final class TimingWheel<T> {
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<List<Timeout<T>>> buckets;
+    private final long startNanos;
+
+    private long tick;
+    private int size;
+
+    /**
+     * @param tickNanos  duration of one tick in nanoseconds
+     * @param wheelSize  number of buckets; rounded up to power of two
+     * @param startNanos current {@link System#nanoTime()}
+     */
+    public TimingWheel(long tickNanos, int wheelSize, long startNanos) {
+
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickNanos);
+        }
+        if (wheelSize < 1 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Wheel size must be in range [1, 2^30]: " + wheelSize);
+        }
+        final int buckets = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+        this.tickNanos = tickNanos;
+        this.mask = buckets - 1;
+        this.buckets = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            this.buckets.add(new ArrayList<>());
+        }
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Schedules item to expire at provided deadline. Deadlines in past expire on next advance.
+     *
+     * @param item          scheduled item
+     * @param deadlineNanos deadline as {@link System#nanoTime()}
+     */
+    public void schedule(T item, long deadlineNanos) {
+
+        final long deadlineTick = Math.max(tick + 1, ceilTick(deadlineNanos));
+        final long rounds = (deadlineTick - tick - 1) / buckets.size();
+        buckets.get((int) (deadlineTick & mask)).add(new Timeout<>(item, rounds));
+        size++;
+    }
+
+    /**
+     * Advances wheel to provided time and passes expired items to consumer in deadline tick order.
+     * Consumer must not schedule items to this wheel.
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     * @param expired  consumer of expired items
+     */
+    public void advance(long nowNanos, Consumer<T> expired) {
+
+        final long target = (nowNanos - startNanos) / tickNanos;
+        while (tick < target) {
+            tick++;
+            expireBucket(buckets.get((int) (tick & mask)), expired);
+        }
+    }
+
+    private void expireBucket(List<Timeout<T>> bucket, Consumer<T> expired) {
+
+        int remaining = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            final Timeout<T> timeout = bucket.get(i);
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                bucket.set(remaining++, timeout);
+            } else {
+                size--;
+                expired.accept(timeout.item);
+            }
+        }
+        bucket.subList(remaining, bucket.size()).clear();
+    }
+
+    private long ceilTick(long nanos) {
+
+        final long elapsed = nanos - startNanos;
+        return elapsed <= 0 ? 0 : (elapsed + tickNanos - 1) / tickNanos;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * @return number of scheduled items
+     */
+    public int size() {
+        return size;
+    }
+
+    private static final class Timeout<T> {
+
+        private final T item;
+        private long rounds;
+
+        private Timeout(T item, long rounds) {
+            this.item = item;
+            this.rounds = rounds;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package io.github.jbalancer;
+
+import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.checker.Checker;
+import io.github.jbalancer.strategy.RoundRobinStrategy;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CheckSchedulerTest {
+
+    private final Map<Node, AtomicInteger> checks = new ConcurrentHashMap<>();
+
+    private final List<DefaultBalancer> balancers = new ArrayList<>();
+
+    private static List<Node> createNodes(int count) {
+        return createNodes(8000, count);
+    }
+
+    private static List<Node> createNodes(int port, int count) {
+
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            URI uri = URI.create("http://local:" + (port + i));
+            nodes.add(new Node(uri, uri));
+        }
+        return nodes;
+    }
+
+    private Checker countingChecker(boolean alive) {
+
+        return node -> {
+            checks.computeIfAbsent(node, n -> new AtomicInteger()).incrementAndGet();
+            node.setAlive(alive);
+            node.setActive(alive);
+        };
+    }
+
+    private CheckScheduler givenScheduler(Checker checker, List<Node> nodes, long period, long maxBackoff) {
+
+        balancers.add(new DefaultBalancer("balancer", new RoundRobinStrategy(), null, checker, nodes));
+        checks.clear();
+        return new CheckScheduler(balancers, Runnable::run, 2, period, maxBackoff, 0.0, TimeUnit.MILLISECONDS);
+    }
+
+    private static void tickFor(CheckScheduler scheduler, long millis) throws InterruptedException {
+
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < end) {
+            scheduler.tick();
+            Thread.sleep(5);
+        }
+    }
+
+    private int checksOf(Collection<Node> nodes) {
+        return nodes.stream().mapToInt(node -> checks.getOrDefault(node, new AtomicInteger()).get()).sum();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void jitterMustBeLowerThanOne() throws Exception {
+        new CheckScheduler(Collections.emptyList(), Runnable::run, 1, 100, 100, 1.0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void checkEveryNodeOncePerPeriod() throws Exception {
+
+        List<Node> nodes = createNodes(20);
+        CheckScheduler scheduler = givenScheduler(countingChecker(true), nodes, 100, 1000);
+
+        tickFor(scheduler, 350);
+
+        for (Node node : nodes) {
+            assertThat(checks.get(node).get()).isBetween(2, 4);
+        }
+        assertThat(scheduler.getChecks()).isEqualTo(checksOf(nodes));
+        assertThat(scheduler.getScheduled()).isEqualTo(20);
+        assertThat(scheduler.getPending()).isZero();
+    }
+
+    @Test
+    public void spreadFirstChecksOverPeriod() throws Exception {
+
+        List<Node> nodes = createNodes(50);
+        CheckScheduler scheduler = givenScheduler(countingChecker(true), nodes, 200, 1000);
+
+        tickFor(scheduler, 100);
+
+        assertThat(checksOf(nodes)).isBetween(5, 45);
+    }
+
+    @Test
+    public void backOffChecksOfDeadNodes() throws Exception {
+
+        List<Node> nodes = createNodes(5);
+        CheckScheduler scheduler = givenScheduler(countingChecker(false), nodes, 20, 10000);
+
+        tickFor(scheduler, 500);
+
+        for (Node node : nodes) {
+            // checks at most at 0, 40, 120, 280 ms after first check instead of every 20 ms
+            assertThat(checks.get(node).get()).isBetween(2, 5);
+        }
+    }
+
+    @Test
+    public void scheduleDiscoveredNodesAndDropRemovedNodes() throws Exception {
+
+        List<Node> initial = createNodes(5);
+        CheckScheduler scheduler = givenScheduler(countingChecker(true), initial, 50, 1000);
+        tickFor(scheduler, 120);
+
+        List<Node> discovered = createNodes(9000, 3);
+        balancers.set(0, new DefaultBalancer("balancer", new RoundRobinStrategy(), null, countingChecker(true), discovered));
+        int initialChecks = checksOf(initial);
+        tickFor(scheduler, 200);
+
+        assertThat(checksOf(initial)).isEqualTo(initialChecks);
+        assertThat(checksOf(discovered)).isGreaterThanOrEqualTo(6);
+        assertThat(scheduler.getScheduled()).isEqualTo(3);
+    }
+
+    @Test
+    public void countOverrunsOfLateChecks() throws Exception {
+
+        List<Node> nodes = createNodes(3);
+        CheckScheduler scheduler = givenScheduler(countingChecker(true), nodes, 20, 1000);
+        scheduler.tick();
+
+        Thread.sleep(100);
+        scheduler.tick();
+
+        assertThat(scheduler.getOverruns()).isEqualTo(3);
+        assertThat(scheduler.takeMaxLagNanos()).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(scheduler.takeMaxLagNanos()).isZero();
+    }
+
+    @Test
+    public void checkNodesWithSameStatusOnceAndUpdateAllBalancers() throws Exception {
+
+        List<Node> first = createNodes(4);
+        List<Node> second = createNodes(4);
+        CheckScheduler scheduler = givenScheduler(countingChecker(false), first, 100, 10000);
+        balancers.add(new DefaultBalancer("other", new RoundRobinStrategy(), null, countingChecker(false), second));
+        second.forEach(node -> node.setAlive(true));
+        checks.clear();
+
+        tickFor(scheduler, 120);
+
+        // nodes with same status are equal, so both lists count checks of same status URIs
+        assertThat(checksOf(first)).isEqualTo(4);
+        assertThat(scheduler.getChecks()).isEqualTo(4);
+        assertThat(scheduler.getScheduled()).isEqualTo(4);
+        assertThat(scheduler.getSubscribed()).isEqualTo(8);
+        assertThat(second).allMatch(node -> !node.isAlive());
+        assertThat(balancers.get(1).getSnapshot().getNodes()).isEmpty();
+    }
+
+    @Test
+    public void keepCheckingStatusUntilLastNodeIsRemoved() throws Exception {
+
+        List<Node> first = createNodes(2);
+        List<Node> second = createNodes(2);
+        CheckScheduler scheduler = givenScheduler(countingChecker(true), first, 50, 1000);
+        balancers.add(new DefaultBalancer("other", new RoundRobinStrategy(), null, countingChecker(true), second));
+        tickFor(scheduler, 60);
+
+        balancers.remove(0);
+        tickFor(scheduler, 120);
+
+        assertThat(scheduler.getScheduled()).isEqualTo(2);
+        assertThat(scheduler.getSubscribed()).isEqualTo(2);
+        assertThat(checksOf(second)).isGreaterThanOrEqualTo(2);
+
+        balancers.clear();
+        scheduler.tick();
+        int checked = (int) scheduler.getChecks();
+        tickFor(scheduler, 100);
+
+        assertThat(scheduler.getChecks()).isEqualTo(checked);
+        assertThat(scheduler.getSubscribed()).isZero();
+    }
+
+    @Test
+    public void keepThresholdsWhenCheckedNodeOfProbeChanges() throws Exception {
+
+        AtomicReference<Boolean> result = new AtomicReference<>();
+        Checker checker = node -> {
+            if (null != result.get()) {
+                node.setAlive(result.get());
+                node.recordCheck(result.get(), 1, 3);
+            }
+        };
+        List<Node> first = createNodes(1);
+        List<Node> second = createNodes(1);
+        CheckScheduler scheduler = givenScheduler(checker, first, 50, 50);
+        balancers.add(new DefaultBalancer("other", new RoundRobinStrategy(), null, checker, second));
+        result.set(true);
+        tickFor(scheduler, 80);
+        assertThat(second.get(0).isActive()).isTrue();
+
+        balancers.remove(0);
+        result.set(false);
+        tickFor(scheduler, 80);
+
+        assertThat(second.get(0).isAlive()).isFalse();
+        assertThat(second.get(0).isActive()).isTrue();
+    }
+}
@@ -1,19 +1,33 @@
 package io.github.jbalancer;
 
+import io.github.jbalancer.affinity.AffinityCache;
 import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.ConcurrencyLimits;
+import io.github.jbalancer.node.Lease;
 import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.NodeEvent;
+import io.github.jbalancer.node.Snapshot;
+import io.github.jbalancer.node.Subsetting;
 import io.github.jbalancer.node.checker.Checker;
 import io.github.jbalancer.node.discoverer.Discoverer;
+import io.github.jbalancer.strategy.Context;
 import io.github.jbalancer.strategy.Strategy;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,11 +42,24 @@ public class DefaultBalancerTest {
     @Mock
     private Discoverer discoverer;
 
-    @Mock
-    private Checker checker;
+    private Checker checker = mock(Checker.class, (Answer<Object>) DefaultBalancerTest::checkEachNode);
 
     private DefaultBalancer balancer;
 
+    /**
+     * Default answer of checker mock which checks nodes one by one so checks can be verified per node.
+     */
+    private static Object checkEachNode(InvocationOnMock invocation) throws Throwable {
+
+        if (invocation.getArguments().length == 1 && invocation.getArguments()[0] instanceof Collection) {
+            for (Object node : (Collection<?>) invocation.getArguments()[0]) {
+                ((Checker) invocation.getMock()).check((Node) node);
+            }
+            return null;
+        }
+        return RETURNS_DEFAULTS.answer(invocation);
+    }
+
     private static Node createNode(String connection) {
         return new Node(URI.create(connection), URI.create(connection));
     }
@@ -107,6 +134,31 @@ public class DefaultBalancerTest {
         assertThat(balancer.getBalanced(e -> true)).isEqualTo(node1);
     }
 
+    @Test
+    public void acquireBalancedNode() throws Exception {
+
+        Node node1 = createNode("http://local:10");
+        when(strategy.balance(any(Balancer.class))).thenReturn(node1);
+        givenDefaultBalancer();
+
+        Lease lease = balancer.acquire();
+
+        assertThat(lease.getNode()).isEqualTo(node1);
+        assertThat(node1.getInFlight()).isEqualTo(1);
+
+        lease.release();
+
+        assertThat(node1.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void acquireNullWhenNoBalancedNode() throws Exception {
+
+        givenDefaultBalancer();
+
+        assertThat(balancer.acquire()).isNull();
+    }
+
     @Test
     public void discoverNodesWithDiscoverer() throws Exception {
 
@@ -124,6 +176,47 @@ public class DefaultBalancerTest {
         verify(checker, times(1)).check(any(Node.class));
     }
 
+    @Test
+    public void applyConcurrencyLimitsToDiscoveredNodes() throws Exception {
+
+        Node node = createNode("http://local:10");
+        when(discoverer.discover(anyString())).thenReturn(Collections.singletonList(node));
+
+        balancer = new DefaultBalancer(null, strategy, discoverer, checker, Collections.emptyList(),
+                new AffinityCache(), null, ConcurrencyLimits.adaptive());
+
+        assertThat(node.getConcurrencyLimits()).isEqualTo(ConcurrencyLimits.adaptive());
+        assertThat(node.getConcurrencyLimit()).isEqualTo(ConcurrencyLimits.DEFAULT_INITIAL_LIMIT);
+    }
+
+    @Test
+    public void checkAndBalanceOnlySubsetOfDiscoveredNodes() throws Exception {
+
+        balancer = new DefaultBalancer(null, strategy, discoverer, checker, Collections.emptyList(),
+                new AffinityCache(), new Subsetting("proxy-1", 2));
+        reset(checker);
+        doAnswer(invocation -> {
+            ((Node) invocation.getArguments()[0]).setActive(true);
+            return null;
+        }).when(checker).check(any(Node.class));
+
+        List<Node> discovered = Arrays.asList(createEnabledNode("http://local:10"), createEnabledNode("http://local:11"),
+                createEnabledNode("http://local:12"), createEnabledNode("http://local:13"));
+        when(discoverer.discover(anyString())).thenReturn(discovered);
+
+        balancer.discover();
+
+        List<Node> subset = new Subsetting("proxy-1", 2).select(discovered);
+        assertThat(balancer.getAll()).hasSize(4);
+        assertThat(balancer.getSnapshot().getNodes()).containsExactlyElementsOf(subset);
+        verify(checker, times(2)).check(any(Node.class));
+
+        reset(checker);
+        balancer.check();
+
+        verify(checker, times(2)).check(any(Node.class));
+    }
+
     @Test
     public void discoverInitialNodesWhenDiscovererReturnsEmptyList() throws Exception {
 
@@ -150,6 +243,23 @@ public class DefaultBalancerTest {
         verify(checker, times(2)).check(any(Node.class));
     }
 
+    @Test
+    public void keepInitialNodesWhileDiscovererReturnsEmptyList() throws Exception {
+
+        List<Node> initialNodes = Collections.singletonList(createNode("http://local:42"));
+        when(discoverer.discover(anyString())).thenReturn(Collections.emptyList());
+        givenDefaultBalancerWithDiscoverer(null, initialNodes);
+        List<Node> checkedNodes = balancer.getCheckedNodes();
+        Snapshot snapshot = balancer.getSnapshot();
+
+        balancer.discover();
+        balancer.discover();
+
+        assertThat(balancer.getCheckedNodes()).isSameAs(checkedNodes);
+        assertThat(balancer.getSnapshot()).isSameAs(snapshot);
+        verify(checker, times(1)).check(any(Node.class));
+    }
+
     @Test
     public void discoverInitialNodesWhenDiscovererThrowsException() throws Exception {
 
@@ -219,6 +329,236 @@ public class DefaultBalancerTest {
         assertThat(balancer.getAll().get(0).isEnabled()).isFalse();
     }
 
+    @Test
+    public void snapshotContainsOnlyAvailableNodes() throws Exception {
+
+        Node active = createNode("http://local:10");
+        Node inactive = createNode("http://local:11");
+        givenActivatingChecker(active);
+
+        givenDefaultBalancerWithoutDiscoverer(null, Arrays.asList(active, inactive));
+
+        assertThat(balancer.getSnapshot().getNodes()).containsExactly(active);
+    }
+
+    @Test
+    public void snapshotUnchangedWhenCheckDoesNotChangeNodeState() throws Exception {
+
+        Node node = createNode("http://local:10");
+        givenActivatingChecker(node);
+        givenDefaultBalancerWithoutDiscoverer(null, Collections.singletonList(node));
+        Snapshot snapshot = balancer.getSnapshot();
+
+        balancer.check();
+
+        assertThat(balancer.getSnapshot()).isSameAs(snapshot);
+    }
+
+    @Test
+    public void snapshotRefreshedWhenCheckChangesNodeState() throws Exception {
+
+        Node node = createNode("http://local:10");
+        givenActivatingChecker(node);
+        givenDefaultBalancerWithoutDiscoverer(null, Collections.singletonList(node));
+        Snapshot snapshot = balancer.getSnapshot();
+
+        doAnswer(invocation -> {
+            node.setActive(false);
+            return null;
+        }).when(checker).check(node);
+        balancer.check();
+
+        assertThat(balancer.getSnapshot().getVersion()).isGreaterThan(snapshot.getVersion());
+        assertThat(balancer.getSnapshot().isEmpty()).isTrue();
+    }
+
+    @Test
+    public void strategyPreparesRefreshedSnapshot() throws Exception {
+
+        Node node = createNode("http://local:10");
+        givenActivatingChecker(node);
+        givenDefaultBalancerWithoutDiscoverer(null, Collections.singletonList(node));
+
+        verify(strategy).prepare(balancer.getSnapshot());
+    }
+
+    @Test
+    public void snapshotRefreshedWhenNodeDisabledAndEnabled() throws Exception {
+
+        Node node = createNode("http://local:10");
+        givenActivatingChecker(node);
+        givenDefaultBalancerWithoutDiscoverer(null, Collections.singletonList(node));
+
+        balancer.disable(e -> true);
+        assertThat(balancer.getSnapshot().isEmpty()).isTrue();
+
+        balancer.enable(e -> true);
+        assertThat(balancer.getSnapshot().getNodes()).containsExactly(node);
+    }
+
+    @Test
+    public void publishCheckTransitionsInOneBatch() throws Exception {
+
+        Node node1 = createNode("http://local:10");
+        Node node2 = createNode("http://local:11");
+        givenDefaultBalancerWithoutDiscoverer(null, Arrays.asList(node1, node2));
+        List<List<NodeEvent>> batches = new ArrayList<>();
+        balancer.addListener(batches::add);
+        givenActivatingChecker(node1);
+        givenActivatingChecker(node2);
+
+        balancer.check();
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).extracting(NodeEvent::getType)
+                .containsExactly(NodeEvent.Type.ACTIVATED, NodeEvent.Type.ACTIVATED);
+        assertThat(balancer.getSnapshot().getNodes()).containsOnly(node1, node2);
+    }
+
+    @Test
+    public void refreshSnapshotWhenCheckCompletesWhileOtherCheckIsSlow() throws Exception {
+
+        Node slow = createNode("http://local:10");
+        Node dead = createNode("http://local:11");
+        givenActivatingChecker(slow);
+        givenActivatingChecker(dead);
+        givenDefaultBalancerWithoutDiscoverer(null, Arrays.asList(slow, dead));
+        assertThat(balancer.getSnapshot().getNodes()).containsOnly(slow, dead);
+
+        CountDownLatch slowCheckStarted = new CountDownLatch(1);
+        CountDownLatch slowCheckDone = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            slowCheckStarted.countDown();
+            slowCheckDone.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(checker).check(slow);
+        doAnswer(invocation -> {
+            dead.setActive(false);
+            return null;
+        }).when(checker).check(dead);
+
+        Thread slowCheck = new Thread(() -> balancer.checkNodes(Collections.singletonList(slow)));
+        slowCheck.start();
+        slowCheckStarted.await(5, TimeUnit.SECONDS);
+
+        balancer.checkNodes(Collections.singletonList(dead));
+
+        assertThat(balancer.getSnapshot().getNodes()).containsOnly(slow);
+        slowCheckDone.countDown();
+        slowCheck.join();
+    }
+
+    @Test
+    public void publishDiscoveredAndRemovedNodes() throws Exception {
+
+        Node retained = createNode("http://local:10");
+        Node removed = createNode("http://local:11");
+        when(discoverer.discover(anyString())).thenReturn(Arrays.asList(retained, removed));
+        givenDefaultBalancerWithDiscoverer(null, Collections.emptyList());
+        List<NodeEvent> events = new ArrayList<>();
+        balancer.addListener(events::addAll);
+
+        Node added = createNode("http://local:12");
+        when(discoverer.discover(anyString())).thenReturn(Arrays.asList(createNode("http://local:10"), added));
+        balancer.discover();
+
+        assertThat(events).extracting(NodeEvent::getType)
+                .containsExactly(NodeEvent.Type.DISCOVERED, NodeEvent.Type.REMOVED);
+        assertThat(events).extracting(NodeEvent::getNode).containsExactly(added, removed);
+    }
+
+    @Test
+    public void publishTransitionsOfDisabledNodes() throws Exception {
+
+        Node node = createNode("http://local:10");
+        givenDefaultBalancerWithoutDiscoverer(null, Collections.singletonList(node));
+        List<NodeEvent> events = new ArrayList<>();
+        balancer.addListener(events::addAll);
+
+        balancer.disable(n -> true);
+        balancer.disable(n -> true);
+        balancer.enable(n -> true);
+
+        assertThat(events).extracting(NodeEvent::getType)
+                .containsExactly(NodeEvent.Type.DISABLED, NodeEvent.Type.ENABLED);
+    }
+
+    @Test
+    public void keepRediscoveredNodesAndCheckOnlyAddedNodes() throws Exception {
+
+        Node retained = createNode("http://local:10");
+        givenActivatingChecker(retained);
+        when(discoverer.discover(anyString())).thenReturn(Collections.singletonList(retained));
+        givenDefaultBalancerWithDiscoverer(null, Collections.emptyList());
+        retained.recordLatency(1_000_000L);
+
+        Node rediscovered = createNode("http://local:10");
+        Node added = createNode("http://local:11");
+        givenActivatingChecker(added);
+        when(discoverer.discover(anyString())).thenReturn(Arrays.asList(rediscovered, added));
+        balancer.discover();
+
+        assertThat(balancer.getAll()).hasSize(2);
+        assertThat(balancer.getAll().get(0)).isSameAs(retained);
+        assertThat(retained.getLatency()).isGreaterThan(0.0);
+        assertThat(balancer.getSnapshot().getNodes()).containsOnly(retained, added);
+        verify(checker, times(1)).check(retained);
+        verify(checker, times(1)).check(added);
+    }
+
+    @Test
+    public void relabeledNodeKeepsItsState() throws Exception {
+
+        Node node = createNode("http://local:10");
+        givenActivatingChecker(node);
+        when(discoverer.discover(anyString())).thenReturn(Collections.singletonList(node));
+        givenDefaultBalancerWithDiscoverer(null, Collections.emptyList());
+        balancer.disable(n -> true);
+        node.recordLatency(1_000_000L);
+        for (int i = 0; i < 5; i++) {
+            node.recordResult(false);
+        }
+        Snapshot snapshot = balancer.getSnapshot();
+        List<NodeEvent> events = new ArrayList<>();
+        balancer.addListener(events::addAll);
+
+        Node relabeled = new Node(Collections.singletonMap(Node.WEIGHT_LABEL, "5"), node.getConnection(), node.getStatus());
+        when(discoverer.discover(anyString())).thenReturn(Collections.singletonList(relabeled));
+        balancer.discover();
+
+        assertThat(balancer.getAll()).hasSize(1);
+        assertThat(balancer.getAll().get(0)).isSameAs(node);
+        assertThat(node.getWeight()).isEqualTo(5);
+        assertThat(node.isActive()).isTrue();
+        assertThat(node.isEnabled()).isFalse();
+        assertThat(node.isEjected()).isTrue();
+        assertThat(node.getLatency()).isGreaterThan(0.0);
+        assertThat(balancer.getSnapshot()).isNotSameAs(snapshot);
+        assertThat(events).isEmpty();
+        verify(checker, times(1)).check(any(Node.class));
+    }
+
+    @Test
+    public void keepSnapshotWhenDiscoveredNodesUnchanged() throws Exception {
+
+        when(discoverer.discover(anyString())).thenReturn(Collections.singletonList(createNode("http://local:10")));
+        givenDefaultBalancerWithDiscoverer(null, Collections.emptyList());
+        Snapshot snapshot = balancer.getSnapshot();
+
+        when(discoverer.discover(anyString())).thenReturn(Collections.singletonList(createNode("http://local:10")));
+        balancer.discover();
+
+        assertThat(balancer.getSnapshot()).isSameAs(snapshot);
+    }
+
+    private void givenActivatingChecker(Node node) {
+
+        doAnswer(invocation -> {
+            node.setActive(true);
+            return null;
+        }).when(checker).check(node);
+    }
+
     private void givenDefaultBalancerWithDiscoverer(String id, List<Node> nodes) {
 
         balancer = new DefaultBalancer(id, strategy, discoverer, checker, nodes);
@@ -233,4 +573,128 @@ public class DefaultBalancerTest {
 
         balancer = new DefaultBalancer(null, strategy, discoverer, checker, Collections.emptyList());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getBalancedNodesWithSelector() throws Exception {
+
+        Node node1 = createNode("http://local:10");
+        Node node2 = createNode("http://local:11");
+        when(strategy.balance(any(Balancer.class), any(Context.class), eq(2))).thenReturn(Arrays.asList(node1, node2));
+        givenDefaultBalancer();
+
+        assertThat(balancer.getBalanced(2, e -> true)).containsExactly(node1, node2);
+    }
+
+    @Test
+    public void snapshotRefreshedWhenNodeIsEjected() throws Exception {
+
+        Node node1 = createNode("http://local:10");
+        Node node2 = createNode("http://local:11");
+        givenActivatingChecker(node1);
+        givenActivatingChecker(node2);
+        givenDefaultBalancerWithoutDiscoverer(null, Arrays.asList(node1, node2));
+
+        for (int i = 0; i < 5; i++) {
+            balancer.record(node1, false);
+        }
+
+        assertThat(balancer.getSnapshot().getNodes()).containsExactly(node2);
+        assertThat(balancer.getSnapshot().getEjected()).containsExactly(node1);
+    }
+
+    @Test
+    public void snapshotRefreshedWhenEjectionExpiresWithoutChecks() throws Exception {
+
+        AtomicBoolean ejected = new AtomicBoolean(true);
+        Node node1 = new Node(URI.create("http://local:10"), URI.create("http://local:10")) {
+            @Override
+            public boolean isEjected() {
+                return ejected.get();
+            }
+
+            @Override
+            public long getRemainingEjection(TimeUnit unit) {
+                return ejected.get() ? unit.convert(1, TimeUnit.MILLISECONDS) : 0L;
+            }
+        };
+        Node node2 = createNode("http://local:11");
+        givenActivatingChecker(node1);
+        givenActivatingChecker(node2);
+        givenDefaultBalancerWithoutDiscoverer(null, Arrays.asList(node1, node2));
+        assertThat(balancer.getSnapshot().getEjected()).containsExactly(node1);
+
+        ejected.set(false);
+        Thread.sleep(5);
+
+        assertThat(balancer.getSnapshot().getNodes()).containsExactly(node1, node2);
+        assertThat(balancer.getSnapshot().getEjected()).isEmpty();
+    }
+
+    @Test
+    public void keepEjectedNodesOverMaxEjectionPercent() throws Exception {
+
+        Node node1 = createNode("http://local:10");
+        Node node2 = createNode("http://local:11");
+        givenActivatingChecker(node1);
+        givenActivatingChecker(node2);
+        balancer = new DefaultBalancer(null, strategy, null, checker, Arrays.asList(node1, node2), new AffinityCache(),
+                null, ConcurrencyLimits.DISABLED, 0);
+
+        for (int i = 0; i < 5; i++) {
+            balancer.record(node1, false);
+        }
+
+        assertThat(node1.isEjected()).isTrue();
+        assertThat(balancer.getSnapshot().getNodes()).containsExactly(node1, node2);
+    }
+
+    @Test
+    public void snapshotRefreshedWhenLeasedNodeIsEjected() throws Exception {
+
+        Node node1 = createNode("http://local:10");
+        Node node2 = createNode("http://local:11");
+        givenActivatingChecker(node1);
+        givenActivatingChecker(node2);
+        givenDefaultBalancerWithoutDiscoverer(null, Arrays.asList(node1, node2));
+        when(strategy.balance(any(Balancer.class))).thenReturn(node1);
+
+        for (int i = 0; i < 5; i++) {
+            balancer.acquire().release(false);
+        }
+
+        assertThat(balancer.getSnapshot().getNodes()).containsExactly(node2);
+    }
+
+    @Test
+    public void getStickyNodeByAffinityKey() throws Exception {
+
+        Node node1 = createNode("http://local:10");
+        Node node2 = createNode("http://local:11");
+        givenActivatingChecker(node1);
+        givenActivatingChecker(node2);
+        givenDefaultBalancerWithoutDiscoverer(null, Arrays.asList(node1, node2));
+        when(strategy.balance(any(Balancer.class), any(Context.class))).thenReturn(node1, node2);
+
+        assertThat(balancer.getBalanced("session", null)).isEqualTo(node1);
+        assertThat(balancer.getBalanced("session", null)).isEqualTo(node1);
+        assertThat(balancer.getBalanced("other", null)).isEqualTo(node2);
+        assertThat(balancer.getAffinityCache().getHits()).isEqualTo(1L);
+    }
+
+    @Test
+    public void getBalancedNodeWhenStickyNodeIsDisabled() throws Exception {
+
+        Node node1 = createNode("http://local:10");
+        Node node2 = createNode("http://local:11");
+        givenActivatingChecker(node1);
+        givenActivatingChecker(node2);
+        givenDefaultBalancerWithoutDiscoverer(null, Arrays.asList(node1, node2));
+        when(strategy.balance(any(Balancer.class), any(Context.class))).thenReturn(node1, node2);
+
+        assertThat(balancer.getBalanced("session", null)).isEqualTo(node1);
+        balancer.disable(node -> node == node1);
+
+        assertThat(balancer.getBalanced("session", null)).isEqualTo(node2);
+        assertThat(balancer.getBalanced("session", null)).isEqualTo(node2);
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.jbalancer.affinity;
+
+import io.github.jbalancer.node.Node;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AffinityCacheTest {
+
+    private static Node createNode(String cnnPoint) {
+        return new Node(URI.create(cnnPoint), URI.create(cnnPoint));
+    }
+
+    @Test
+    public void getMappedNode() throws Exception {
+
+        AffinityCache cache = new AffinityCache();
+        Node node = createNode("http://localhost:9090");
+
+        cache.put("session", node);
+
+        assertThat(cache.get("session")).isSameAs(node);
+        assertThat(cache.get("other")).isNull();
+        assertThat(cache.getHits()).isEqualTo(1L);
+        assertThat(cache.getMisses()).isEqualTo(1L);
+    }
+
+    @Test
+    public void invalidateMapping() throws Exception {
+
+        AffinityCache cache = new AffinityCache();
+        cache.put("session", createNode("http://localhost:9090"));
+
+        cache.invalidate("session");
+
+        assertThat(cache.get("session")).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedWhenFull() throws Exception {
+
+        AffinityCache cache = new AffinityCache(1, 1, TimeUnit.MINUTES);
+        Node node1 = createNode("http://localhost:9090");
+        Node node2 = createNode("http://localhost:9091");
+
+        cache.put("first", node1);
+        cache.put("second", node2);
+
+        assertThat(cache.get("first")).isNull();
+        assertThat(cache.get("second")).isSameAs(node2);
+        assertThat(cache.getEvictions()).isEqualTo(1L);
+    }
+
+    @Test
+    public void sizeIsBounded() throws Exception {
+
+        AffinityCache cache = new AffinityCache(100, 1, TimeUnit.MINUTES);
+        Node node = createNode("http://localhost:9090");
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("session-" + i, node);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.getEvictions()).isGreaterThanOrEqualTo(900L);
+    }
+
+    @Test
+    public void mappingExpiresWhenNotAccessed() throws Exception {
+
+        AffinityCache cache = new AffinityCache(10, 20, TimeUnit.MILLISECONDS);
+        cache.put("session", createNode("http://localhost:9090"));
+
+        Thread.sleep(30);
+
+        assertThat(cache.get("session")).isNull();
+        assertThat(cache.getEvictions()).isEqualTo(1L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failWhenMaxSizeIsNotPositive() throws Exception {
+
+        new AffinityCache(0, 1, TimeUnit.MINUTES);
+    }
+}
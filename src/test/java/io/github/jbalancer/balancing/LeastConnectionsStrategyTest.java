@@ -0,0 +1,151 @@
+package io.github.jbalancer.balancing;
+
+import io.github.jbalancer.Balancer;
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.Snapshot;
+import io.github.jbalancer.strategy.Context;
+import io.github.jbalancer.strategy.LeastConnectionsStrategy;
+import io.github.jbalancer.strategy.SlowStart;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LeastConnectionsStrategyTest {
+
+    @Mock
+    private Context context;
+
+    @Mock
+    private Balancer balancer;
+
+    private LeastConnectionsStrategy leastConnectionsStrategy = new LeastConnectionsStrategy();
+
+    private static Node createNode(String cnnPoint, int inFlight) {
+
+        Node node = new Node(URI.create(cnnPoint), URI.create(cnnPoint));
+        node.setActive(true);
+        for (int i = 0; i < inFlight; i++) {
+            node.lease();
+        }
+        return node;
+    }
+
+    @Test
+    public void balanceNullWhenNoNodes() throws Exception {
+
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Collections.emptyList()));
+
+        assertThat(leastConnectionsStrategy.balance(balancer, context)).isNull();
+    }
+
+    @Test
+    public void balanceNodeWithLeastInFlightRequests() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", 3);
+        Node node2 = createNode("http://localhost:9090/second", 1);
+        Node node3 = createNode("http://localhost:9090/third", 2);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(leastConnectionsStrategy.balance(balancer, context)).isSameAs(node2);
+        }
+    }
+
+    @Test
+    public void balanceFollowsReleasedLeases() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", 0);
+        Node node2 = createNode("http://localhost:9090/second", 0);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2)));
+
+        node1.lease();
+        assertThat(leastConnectionsStrategy.balance(balancer, context)).isSameAs(node2);
+
+        node2.lease();
+        node2.lease();
+        assertThat(leastConnectionsStrategy.balance(balancer, context)).isSameAs(node1);
+    }
+
+    @Test
+    public void spreadTiesBetweenEquallyLoadedNodes() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", 1);
+        Node node2 = createNode("http://localhost:9090/second", 1);
+        Node node3 = createNode("http://localhost:9090/third", 1);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
+
+        Set<BalancedNode> balanced = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            balanced.add(leastConnectionsStrategy.balance(balancer, context));
+        }
+
+        assertThat(balanced).containsOnly(node1, node2, node3);
+    }
+
+    @Test
+    public void balanceWithSelector() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", 5);
+        Node node2 = createNode("http://localhost:9090/second", 0);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2)));
+        when(context.getSelector()).thenReturn(node -> node.getConnection().getPath().equals("/first"));
+
+        assertThat(leastConnectionsStrategy.balance(balancer, context)).isSameAs(node1);
+    }
+
+    @Test
+    public void balanceBatchOfNodesWithLeastInFlightRequests() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", 3);
+        Node node2 = createNode("http://localhost:9090/second", 1);
+        Node node3 = createNode("http://localhost:9090/third", 4);
+        Node node4 = createNode("http://localhost:9090/fourth", 2);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3, node4)));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(leastConnectionsStrategy.balance(balancer, context, 3)).containsExactly(node2, node4, node1);
+        }
+    }
+
+    @Test
+    public void balanceNodeInSlowStartOnlyWhenMuchLessLoaded() throws Exception {
+
+        Node warm = createNode("http://localhost:9090/warm", 2);
+        Node cold = createNode("http://localhost:9090/cold", 0);
+        leastConnectionsStrategy.setSlowStart(SlowStart.of(1, TimeUnit.SECONDS, 1.0, 0.1));
+        Thread.sleep(1100);
+        cold.setActive(false);
+        cold.setActive(true);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(warm, cold)));
+
+        assertThat(leastConnectionsStrategy.balance(balancer, context)).isEqualTo(warm);
+    }
+
+    @Test
+    public void balanceBatchWithNodeInSlowStartOnlyWhenMuchLessLoaded() throws Exception {
+
+        Node warm = createNode("http://localhost:9090/warm", 2);
+        Node busy = createNode("http://localhost:9090/busy", 3);
+        Node cold = createNode("http://localhost:9090/cold", 0);
+        leastConnectionsStrategy.setSlowStart(SlowStart.of(1, TimeUnit.SECONDS, 1.0, 0.1));
+        Thread.sleep(1100);
+        cold.setActive(false);
+        cold.setActive(true);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(warm, busy, cold)));
+
+        assertThat(leastConnectionsStrategy.balance(balancer, context, 2)).containsExactly(warm, busy);
+    }
+}
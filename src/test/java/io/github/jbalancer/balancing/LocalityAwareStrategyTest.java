@@ -0,0 +1,162 @@
+package io.github.jbalancer.balancing;
+
+import io.github.jbalancer.Balancer;
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.LabelSelector;
+import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.Snapshot;
+import io.github.jbalancer.strategy.Context;
+import io.github.jbalancer.strategy.LocalityAwareStrategy;
+import io.github.jbalancer.strategy.RoundRobinStrategy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LocalityAwareStrategyTest {
+
+    @Mock
+    private Balancer balancer;
+
+    private LocalityAwareStrategy localityAwareStrategy = new LocalityAwareStrategy("zone-a");
+
+    private static Node createNode(String cnnPoint, String zone, String priority, boolean active) {
+
+        Map<String, String> labels = new HashMap<>();
+        labels.put(LocalityAwareStrategy.ZONE_LABEL, zone);
+        if (null != priority) {
+            labels.put(LocalityAwareStrategy.PRIORITY_LABEL, priority);
+        }
+        Node node = new Node(labels, URI.create(cnnPoint), URI.create(cnnPoint));
+        node.setActive(active);
+        return node;
+    }
+
+    private static List<Node> createNodes(String zone, String priority, int active, int inactive) {
+
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < active + inactive; i++) {
+            nodes.add(createNode("http://" + zone + "-" + priority + ":" + (9000 + i), zone, priority, i < active));
+        }
+        return nodes;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void overprovisioningFactorMustBeAtLeastOne() throws Exception {
+        new LocalityAwareStrategy("zone-a", new RoundRobinStrategy(), 0.5);
+    }
+
+    @Test
+    public void balanceNullWhenNoNodes() throws Exception {
+
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Collections.emptyList()));
+
+        assertThat(localityAwareStrategy.balance(balancer)).isNull();
+    }
+
+    @Test
+    public void balanceOnlyLocalNodesWhenLocalZoneIsHealthy() throws Exception {
+
+        List<Node> nodes = new ArrayList<>(createNodes("zone-a", null, 4, 1));
+        nodes.addAll(createNodes("zone-b", null, 5, 0));
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, nodes));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(localityAwareStrategy.balance(balancer).getLabels())
+                    .containsEntry(LocalityAwareStrategy.ZONE_LABEL, "zone-a");
+        }
+        assertThat(localityAwareStrategy.getLoads(balancer.getSnapshot())).containsExactly(1.0, 0.0);
+    }
+
+    @Test
+    public void spillToRemoteZoneProportionallyToUnhealthyCapacity() throws Exception {
+
+        List<Node> nodes = new ArrayList<>(createNodes("zone-a", null, 2, 3));
+        nodes.addAll(createNodes("zone-b", null, 5, 0));
+        Snapshot snapshot = Snapshot.create(1L, nodes);
+        when(balancer.getSnapshot()).thenReturn(snapshot);
+
+        double[] loads = localityAwareStrategy.getLoads(snapshot);
+
+        assertThat(loads[0]).isCloseTo(0.56, within(1e-9));
+        assertThat(loads[1]).isCloseTo(0.44, within(1e-9));
+
+        int local = 0;
+        for (int i = 0; i < 10000; i++) {
+            if ("zone-a".equals(localityAwareStrategy.balance(balancer).getLabels().get(LocalityAwareStrategy.ZONE_LABEL))) {
+                local++;
+            }
+        }
+        assertThat(local).isBetween(5200, 6000);
+    }
+
+    @Test
+    public void balanceLowerPriorityOnlyWhenHigherPriorityIsUnhealthy() throws Exception {
+
+        LocalityAwareStrategy priorityStrategy = new LocalityAwareStrategy(null);
+        List<Node> nodes = new ArrayList<>(createNodes("zone-a", "0", 0, 2));
+        nodes.addAll(createNodes("zone-b", "0", 1, 1));
+        nodes.addAll(createNodes("zone-a", "1", 2, 0));
+        Snapshot snapshot = Snapshot.create(1L, nodes);
+
+        double[] loads = priorityStrategy.getLoads(snapshot);
+
+        assertThat(loads).hasSize(2);
+        assertThat(loads[0]).isCloseTo(0.35, within(1e-9));
+        assertThat(loads[1]).isCloseTo(0.65, within(1e-9));
+    }
+
+    @Test
+    public void normalizeLoadsWhenAllTiersAreUnhealthy() throws Exception {
+
+        List<Node> nodes = new ArrayList<>(createNodes("zone-a", null, 1, 3));
+        nodes.addAll(createNodes("zone-b", null, 1, 3));
+        Snapshot snapshot = Snapshot.create(1L, nodes);
+
+        double[] loads = localityAwareStrategy.getLoads(snapshot);
+
+        assertThat(loads[0]).isCloseTo(0.5, within(1e-9));
+        assertThat(loads[1]).isCloseTo(0.5, within(1e-9));
+    }
+
+    @Test
+    public void computeTiersOfSelectedNodes() throws Exception {
+
+        List<Node> nodes = new ArrayList<>(createNodes("zone-a", null, 0, 1));
+        nodes.add(createNode("http://zone-b:9000", "zone-b", null, true));
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, nodes));
+
+        BalancedNode balanced = localityAwareStrategy.balance(balancer,
+                new Context(LabelSelector.of(LocalityAwareStrategy.ZONE_LABEL, "zone-b")));
+
+        assertThat(balanced.getConnection()).isEqualTo(URI.create("http://zone-b:9000"));
+    }
+
+    @Test
+    public void balanceBatchStartingWithLocalNodes() throws Exception {
+
+        List<Node> nodes = new ArrayList<>(createNodes("zone-a", null, 2, 0));
+        nodes.addAll(createNodes("zone-b", null, 2, 0));
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, nodes));
+
+        List<BalancedNode> balanced = localityAwareStrategy.balance(balancer, (Context) null, 3);
+
+        assertThat(balanced).hasSize(3).doesNotHaveDuplicates();
+        assertThat(balanced.subList(0, 2)).allMatch(node -> "zone-a".equals(node.getLabels().get(LocalityAwareStrategy.ZONE_LABEL)));
+        assertThat(balanced.get(2).getLabels()).containsEntry(LocalityAwareStrategy.ZONE_LABEL, "zone-b");
+        assertThat(Arrays.asList(balanced.get(0), balanced.get(1))).containsAll(nodes.subList(0, 2));
+    }
+}
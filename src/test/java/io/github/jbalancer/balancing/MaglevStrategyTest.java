@@ -0,0 +1,216 @@
+package io.github.jbalancer.balancing;
+
+import io.github.jbalancer.Balancer;
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Lease;
+import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.Snapshot;
+import io.github.jbalancer.strategy.Context;
+import io.github.jbalancer.strategy.MaglevStrategy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MaglevStrategyTest {
+
+    @Mock
+    private Balancer balancer;
+
+    private MaglevStrategy maglevStrategy = new MaglevStrategy(1021, MaglevStrategy.DEFAULT_LOAD_FACTOR);
+
+    private static Node createNode(String cnnPoint) {
+
+        Node node = new Node(URI.create(cnnPoint), URI.create(cnnPoint));
+        node.setActive(true);
+        return node;
+    }
+
+    private static List<Node> createNodes(int count) {
+
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(createNode("http://localhost:" + (9000 + i)));
+        }
+        return nodes;
+    }
+
+    private BalancedNode balance(String key) {
+        return maglevStrategy.balance(balancer, new Context(null, key));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tableSizeMustBePrime() throws Exception {
+
+        new MaglevStrategy(1000, MaglevStrategy.DEFAULT_LOAD_FACTOR);
+    }
+
+    @Test
+    public void balanceNullWhenNoNodes() throws Exception {
+
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Collections.emptyList()));
+
+        assertThat(balance("key")).isNull();
+    }
+
+    @Test
+    public void balanceSameKeyToSameNode() throws Exception {
+
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, createNodes(5)));
+
+        BalancedNode node = balance("user-42");
+        for (int i = 0; i < 10; i++) {
+            assertThat(balance("user-42")).isSameAs(node);
+        }
+    }
+
+    @Test
+    public void spreadKeysOverAllNodes() throws Exception {
+
+        List<Node> nodes = createNodes(5);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, nodes));
+
+        Set<BalancedNode> balanced = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            balanced.add(balance("key-" + i));
+        }
+
+        assertThat(balanced).containsOnlyElementsOf(nodes).hasSize(5);
+    }
+
+    @Test
+    public void remapOnlyKeysOfRemovedNode() throws Exception {
+
+        List<Node> nodes = createNodes(5);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, nodes));
+        Map<String, BalancedNode> before = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            before.put("key-" + i, balance("key-" + i));
+        }
+
+        Node removed = nodes.get(2);
+        List<Node> remaining = new ArrayList<>(nodes);
+        remaining.remove(removed);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(2L, remaining));
+
+        int moved = 0;
+        for (Map.Entry<String, BalancedNode> entry : before.entrySet()) {
+            BalancedNode after = balance(entry.getKey());
+            assertThat(after).isNotSameAs(removed);
+            if (entry.getValue() != removed && after != entry.getValue()) {
+                moved++;
+            }
+        }
+
+        assertThat(moved).isLessThan(100);
+    }
+
+    @Test
+    public void spillOverWhenPreferredNodeIsOverloaded() throws Exception {
+
+        List<Node> nodes = createNodes(3);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, nodes));
+        Node preferred = (Node) balance("hot-key");
+
+        for (int i = 0; i < 10; i++) {
+            preferred.lease();
+        }
+
+        assertThat(balance("hot-key")).isNotSameAs(preferred);
+    }
+
+    @Test
+    public void returnToPreferredNodeWhenItsLoadDrops() throws Exception {
+
+        List<Node> nodes = createNodes(3);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, nodes));
+        Node preferred = (Node) balance("hot-key");
+
+        List<Lease> leases = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            leases.add(preferred.lease());
+        }
+        assertThat(balance("hot-key")).isNotSameAs(preferred);
+
+        leases.subList(1, leases.size()).forEach(Lease::release);
+        nodes.stream().filter(node -> node != preferred).forEach(Node::lease);
+        Thread.sleep(2);
+
+        assertThat(balance("hot-key")).isSameAs(preferred);
+    }
+
+    @Test
+    public void balanceSelectedNodesByKey() throws Exception {
+
+        List<Node> nodes = createNodes(5);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, nodes));
+        Context context = new Context(node -> node != nodes.get(0), "user-42");
+
+        BalancedNode node = maglevStrategy.balance(balancer, context);
+        assertThat(node).isNotSameAs(nodes.get(0));
+        for (int i = 0; i < 10; i++) {
+            assertThat(maglevStrategy.balance(balancer, context)).isSameAs(node);
+        }
+    }
+
+    @Test
+    public void balanceRandomlyWithoutKey() throws Exception {
+
+        List<Node> nodes = createNodes(3);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, nodes));
+
+        Set<BalancedNode> balanced = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            balanced.add(maglevStrategy.balance(balancer, (Context) null));
+        }
+
+        assertThat(balanced).containsOnlyElementsOf(nodes).hasSize(3);
+    }
+
+    @Test
+    public void balanceWithDefaultTable() throws Exception {
+
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(createNode("http://localhost:9090"))));
+
+        assertThat(new MaglevStrategy().balance(balancer, new Context(null, "key"))).isNotNull();
+    }
+
+    @Test
+    public void balanceBatchStartingWithKeyNode() throws Exception {
+
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, createNodes(5)));
+
+        List<BalancedNode> balanced = maglevStrategy.balance(balancer, new Context(null, "user-42"), 3);
+
+        assertThat(balanced).hasSize(3).doesNotHaveDuplicates();
+        assertThat(balanced.get(0)).isEqualTo(balance("user-42"));
+        assertThat(maglevStrategy.balance(balancer, new Context(null, "user-42"), 3)).isEqualTo(balanced);
+    }
+
+    @Test
+    public void balanceBatchOfSelectedNodesWithRendezvousHashing() throws Exception {
+
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, createNodes(5)));
+        Context context = new Context(node -> node.getConnection().getPort() != 9000, "user-42");
+
+        List<BalancedNode> balanced = maglevStrategy.balance(balancer, context, 4);
+
+        assertThat(balanced).hasSize(4).doesNotHaveDuplicates();
+        assertThat(balanced.get(0)).isEqualTo(maglevStrategy.balance(balancer, context));
+        assertThat(maglevStrategy.balance(balancer, context, 4)).isEqualTo(balanced);
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.jbalancer.balancing;
+
+import io.github.jbalancer.Balancer;
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.Snapshot;
+import io.github.jbalancer.strategy.Context;
+import io.github.jbalancer.strategy.PowerOfTwoChoicesStrategy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PowerOfTwoChoicesStrategyTest {
+
+    @Mock
+    private Context context;
+
+    @Mock
+    private Balancer balancer;
+
+    private PowerOfTwoChoicesStrategy powerOfTwoChoicesStrategy = new PowerOfTwoChoicesStrategy();
+
+    private static Node createNode(String cnnPoint, long latencyMillis) {
+
+        Node node = new Node(URI.create(cnnPoint), URI.create(cnnPoint));
+        node.setActive(true);
+        if (latencyMillis > 0) {
+            node.recordLatency(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        }
+        return node;
+    }
+
+    @Test
+    public void balanceNullWhenNoNodes() throws Exception {
+
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Collections.emptyList()));
+
+        assertThat(powerOfTwoChoicesStrategy.balance(balancer, context)).isNull();
+    }
+
+    @Test
+    public void balanceSingleNode() throws Exception {
+
+        Node node = createNode("http://localhost:9090/first", 10);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Collections.singletonList(node)));
+
+        assertThat(powerOfTwoChoicesStrategy.balance(balancer, context)).isSameAs(node);
+    }
+
+    @Test
+    public void balanceNodeWithLowerLatency() throws Exception {
+
+        Node slow = createNode("http://localhost:9090/slow", 500);
+        Node fast = createNode("http://localhost:9090/fast", 5);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(slow, fast)));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(powerOfTwoChoicesStrategy.balance(balancer, context)).isSameAs(fast);
+        }
+    }
+
+    @Test
+    public void balanceNodeWithLowerLoad() throws Exception {
+
+        Node busy = createNode("http://localhost:9090/busy", 10);
+        Node idle = createNode("http://localhost:9090/idle", 20);
+        for (int i = 0; i < 5; i++) {
+            busy.lease();
+        }
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(busy, idle)));
+
+        assertThat(powerOfTwoChoicesStrategy.balance(balancer, context)).isSameAs(idle);
+    }
+
+    @Test
+    public void penalizeBusyNodeWithoutLatency() throws Exception {
+
+        Node unknown = createNode("http://localhost:9090/unknown", 0);
+        Node known = createNode("http://localhost:9090/known", 100);
+        unknown.lease();
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(unknown, known)));
+
+        assertThat(powerOfTwoChoicesStrategy.balance(balancer, context)).isSameAs(known);
+    }
+
+    @Test
+    public void doNotPreferNodeWithFastFailures() throws Exception {
+
+        Node healthy = createNode("http://localhost:9090/healthy", 50);
+        Node failing = createNode("http://localhost:9090/failing", 0);
+        for (int i = 0; i < 3; i++) {
+            failing.lease().release(false);
+        }
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(failing, healthy)));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(powerOfTwoChoicesStrategy.balance(balancer, context)).isSameAs(healthy);
+        }
+    }
+
+    @Test
+    public void sampleAllNodes() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", 0);
+        Node node2 = createNode("http://localhost:9090/second", 0);
+        Node node3 = createNode("http://localhost:9090/third", 0);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
+
+        Set<BalancedNode> balanced = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            balanced.add(powerOfTwoChoicesStrategy.balance(balancer, context));
+        }
+
+        assertThat(balanced).containsOnly(node1, node2, node3);
+    }
+
+    @Test
+    public void balanceBatchOfDistinctNodesOrderedByScore() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", 30);
+        Node node2 = createNode("http://localhost:9090/second", 10);
+        Node node3 = createNode("http://localhost:9090/third", 20);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(powerOfTwoChoicesStrategy.balance(balancer, context, 2)).containsExactly(node2, node3);
+        }
+    }
+}
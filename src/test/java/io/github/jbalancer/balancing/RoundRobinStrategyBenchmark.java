@@ -0,0 +1,98 @@
+package io.github.jbalancer.balancing;
+
+import io.github.jbalancer.Balancer;
+import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.Snapshot;
+import io.github.jbalancer.strategy.Context;
+import io.github.jbalancer.strategy.RoundRobinStrategy;
+import io.github.jbalancer.strategy.Strategy;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput of shared counter and striped round robin strategies with 1 to 64 balancing threads.
+ *
+ * Not part of test suite, run manually with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=io.github.jbalancer.balancing.RoundRobinStrategyBenchmark}
+ */
+public class RoundRobinStrategyBenchmark {
+
+    private static final int NODES = 10;
+    private static final long WARMUP_MILLIS = 1000;
+    private static final long MEASURE_MILLIS = 2000;
+
+    public static void main(String[] args) throws Exception {
+
+        final List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            final Node node = new Node(URI.create("http://localhost:" + (9090 + i)), URI.create("http://localhost:" + (9090 + i)));
+            node.setActive(true);
+            nodes.add(node);
+        }
+        final Balancer balancer = snapshotBalancer(Snapshot.create(1L, nodes));
+
+        System.out.printf("%8s %20s %20s%n", "threads", "shared (ops/ms)", "striped (ops/ms)");
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            final long shared = measure(new RoundRobinStrategy(), balancer, threads);
+            final long striped = measure(RoundRobinStrategy.striped(), balancer, threads);
+            System.out.printf("%8d %20d %20d%n", threads, shared, striped);
+        }
+    }
+
+    /**
+     * Balancer which only provides snapshot; mocks record invocations and would distort measurement.
+     */
+    private static Balancer snapshotBalancer(Snapshot snapshot) {
+
+        return (Balancer) Proxy.newProxyInstance(Balancer.class.getClassLoader(), new Class<?>[]{Balancer.class}, (proxy, method, args) -> {
+            if (method.getName().equals("getSnapshot")) {
+                return snapshot;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static long measure(Strategy strategy, Balancer balancer, int threads) throws Exception {
+
+        run(strategy, balancer, threads, WARMUP_MILLIS);
+        return run(strategy, balancer, threads, MEASURE_MILLIS) / MEASURE_MILLIS;
+    }
+
+    private static long run(Strategy strategy, Balancer balancer, int threads, long millis) throws Exception {
+
+        final LongAdder operations = new LongAdder();
+        final CountDownLatch start = new CountDownLatch(1);
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        final List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                final Context context = new Context(null);
+                long count = 0;
+                while ((count & 1023) != 0 || System.nanoTime() < deadline) {
+                    strategy.balance(balancer, context);
+                    count++;
+                }
+                operations.add(count);
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum();
+    }
+}
@@ -2,9 +2,13 @@ package io.github.jbalancer.balancing;
 
 import io.github.jbalancer.Balancer;
 import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.ConcurrencyLimits;
+import io.github.jbalancer.node.CircuitBreaker;
 import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.Snapshot;
 import io.github.jbalancer.strategy.Context;
 import io.github.jbalancer.strategy.RoundRobinStrategy;
+import io.github.jbalancer.strategy.SlowStart;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -14,6 +18,7 @@ import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
@@ -42,7 +47,7 @@ public class RoundRobinStrategyTest {
     @Test
     public void balanceNullWhenNoNodes() throws Exception {
 
-        when(balancer.getAll()).thenReturn(Collections.emptyList());
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Collections.emptyList()));
 
         assertThat(roundRobinBalancing.balance(balancer, context)).isNull();
     }
@@ -54,7 +59,7 @@ public class RoundRobinStrategyTest {
         Node node2 = createNode("http://localhost:9090/second", true, true);
         Node node3 = createNode("http://localhost:9090/third", true, false);
 
-        when(balancer.getAll()).thenReturn(Arrays.asList(node1, node2, node3));
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
 
         assertThat(roundRobinBalancing.balance(balancer, context)).extracting(BalancedNode::getConnection)
                 .containsOnly(URI.create("http://localhost:9090/second"));
@@ -67,7 +72,7 @@ public class RoundRobinStrategyTest {
         Node node2 = createNode("http://localhost:9090/second", true, true);
         Node node3 = createNode("http://localhost:9090/third", true, false);
 
-        when(balancer.getAll()).thenReturn(Arrays.asList(node1, node2, node3));
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
 
         assertThat(roundRobinBalancing.balance(balancer, (Context) null)).extracting(BalancedNode::getConnection)
                 .containsOnly(URI.create("http://localhost:9090/second"));
@@ -80,7 +85,7 @@ public class RoundRobinStrategyTest {
         Node node2 = createNode("http://localhost:9090/second", false, false);
         Node node3 = createNode("http://localhost:9090/third", false, true);
 
-        when(balancer.getAll()).thenReturn(Arrays.asList(node1, node2, node3));
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
 
         assertThat(roundRobinBalancing.balance(balancer, context)).isNull();
     }
@@ -92,7 +97,7 @@ public class RoundRobinStrategyTest {
         Node node2 = createNode("http://localhost:9090/second", true, true);
         Node node3 = createNode("http://localhost:9090/third", true, true);
 
-        when(balancer.getAll()).thenReturn(Arrays.asList(node1, node2, node3));
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
 
         List<BalancedNode> balancedNodes = Arrays.asList(
                 roundRobinBalancing.balance(balancer, context),
@@ -116,7 +121,7 @@ public class RoundRobinStrategyTest {
         Node node2 = createNode("http://localhost:9090/second", true, true);
         Node node3 = createNode("http://localhost:9090/third", false, true);
 
-        when(balancer.getAll()).thenReturn(Arrays.asList(node1, node2, node3));
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
 
         List<BalancedNode> balancedNodes = Arrays.asList(
                 roundRobinBalancing.balance(balancer, context),
@@ -140,7 +145,7 @@ public class RoundRobinStrategyTest {
         Node node2 = createNode("http://localhost:9090/second", true, true);
         Node node3 = createNode("http://localhost:9090/third", false, true);
 
-        when(balancer.getAll()).thenReturn(Arrays.asList(node1, node2, node3));
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
 
         List<BalancedNode> balancedNodes = Arrays.asList(
                 roundRobinBalancing.balance(balancer, context),
@@ -162,7 +167,7 @@ public class RoundRobinStrategyTest {
         Node node1 = createNode("http://localhost:9090/first", true, true);
         Node node2 = createNode("http://localhost:9090/second", true, true);
         Node node3 = createNode("http://localhost:9090/third", true, true);
-        when(balancer.getAll()).thenReturn(Arrays.asList(node1, node2, node3));
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
         when(context.getSelector()).thenReturn(node -> node.getConnection().getPath().equals("/first"));
 
         List<BalancedNode> balancedNodes = Arrays.asList(
@@ -177,4 +182,135 @@ public class RoundRobinStrategyTest {
                 URI.create("http://localhost:9090/first")
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void stripedBalanceActiveAndEnabledInRound() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", true, true);
+        Node node2 = createNode("http://localhost:9090/second", true, true);
+        Node node3 = createNode("http://localhost:9090/third", true, true);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
+        RoundRobinStrategy striped = new RoundRobinStrategy(4);
+
+        List<BalancedNode> balancedNodes = Arrays.asList(
+                striped.balance(balancer, context),
+                striped.balance(balancer, context),
+                striped.balance(balancer, context)
+        );
+
+        assertThat(balancedNodes).containsOnly(node1, node2, node3);
+    }
+
+    @Test
+    public void balanceBatchOfConsecutiveNodes() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", true, true);
+        Node node2 = createNode("http://localhost:9090/second", true, true);
+        Node node3 = createNode("http://localhost:9090/third", true, true);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2, node3)));
+
+        assertThat(roundRobinBalancing.balance(balancer, context, 2)).containsExactly(node1, node2);
+        assertThat(roundRobinBalancing.balance(balancer, context, 2)).containsExactly(node2, node3);
+        assertThat(roundRobinBalancing.balance(balancer, context, 2)).containsExactly(node3, node1);
+        assertThat(roundRobinBalancing.balance(balancer, context, 5)).containsExactly(node1, node2, node3);
+    }
+
+    @Test
+    public void balanceEmptyBatchWhenNoNodes() throws Exception {
+
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Collections.emptyList()));
+
+        assertThat(roundRobinBalancing.balance(balancer, context, 3)).isEmpty();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failBatchWithNegativeCount() throws Exception {
+
+        roundRobinBalancing.balance(balancer, context, -1);
+    }
+
+    @Test
+    public void balanceSkipsSaturatedNodes() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", true, true);
+        Node node2 = createNode("http://localhost:9090/second", true, true);
+        saturate(node1);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2)));
+
+        assertThat(roundRobinBalancing.balance(balancer, context)).isEqualTo(node2);
+        assertThat(roundRobinBalancing.balance(balancer, context)).isEqualTo(node2);
+        assertThat(roundRobinBalancing.balance(balancer, context, 2)).containsExactly(node2);
+    }
+
+    @Test
+    public void refillBatchWithAcceptedNodesWhenBalancedNodesAreSaturated() throws Exception {
+
+        List<Node> nodes = Arrays.asList(createNode("http://localhost:9090/1", true, true),
+                createNode("http://localhost:9090/2", true, true), createNode("http://localhost:9090/3", true, true),
+                createNode("http://localhost:9090/4", true, true), createNode("http://localhost:9090/5", true, true),
+                createNode("http://localhost:9090/6", true, true));
+        saturate(nodes.get(0));
+        saturate(nodes.get(2));
+        saturate(nodes.get(4));
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, nodes));
+
+        for (int i = 0; i < 6; i++) {
+            assertThat(roundRobinBalancing.balance(balancer, context, 3))
+                    .containsOnly(nodes.get(1), nodes.get(3), nodes.get(5)).hasSize(3);
+        }
+        assertThat(roundRobinBalancing.balance(balancer, context, 5)).hasSize(3);
+    }
+
+    @Test
+    public void balanceNullWhenAllNodesAreSaturated() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", true, true);
+        saturate(node1);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Collections.singletonList(node1)));
+
+        assertThat(roundRobinBalancing.balance(balancer, context)).isNull();
+        assertThat(roundRobinBalancing.balance(balancer, context, 1)).isEmpty();
+    }
+
+    @Test
+    public void balanceSkipsNodesWithOpenCircuit() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", true, true);
+        Node node2 = createNode("http://localhost:9090/second", true, true);
+        for (int i = 0; i < 5; i++) {
+            node1.recordResult(false);
+        }
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2), 0));
+
+        assertThat(node1.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(roundRobinBalancing.balance(balancer, context)).isEqualTo(node2);
+        assertThat(roundRobinBalancing.balance(balancer, context)).isEqualTo(node2);
+    }
+
+    @Test
+    public void balanceReducedShareToNodesInSlowStart() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", true, true);
+        Node node2 = createNode("http://localhost:9090/second", true, true);
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(node1, node2)));
+        roundRobinBalancing.setSlowStart(SlowStart.of(1, TimeUnit.SECONDS, 1.0, 0.1));
+        Thread.sleep(1100);
+        node1.setActive(false);
+        node1.setActive(true);
+
+        int node1Count = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (roundRobinBalancing.balance(balancer, context) == node1) node1Count++;
+        }
+
+        assertThat(node1Count).isLessThan(200);
+    }
+
+    private static void saturate(Node node) {
+
+        node.setConcurrencyLimits(ConcurrencyLimits.adaptive());
+        while (!node.isSaturated()) {
+            node.lease();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.jbalancer.balancing;
+
+import io.github.jbalancer.Balancer;
+import io.github.jbalancer.node.BalancedNode;
+import io.github.jbalancer.node.LabelSelector;
+import io.github.jbalancer.node.Node;
+import io.github.jbalancer.node.Snapshot;
+import io.github.jbalancer.strategy.Context;
+import io.github.jbalancer.strategy.WeightedRoundRobinStrategy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WeightedRoundRobinStrategyTest {
+
+    @Mock
+    private Context context;
+
+    @Mock
+    private Balancer balancer;
+
+    private WeightedRoundRobinStrategy weightedRoundRobinStrategy = new WeightedRoundRobinStrategy();
+
+    private static Node createNode(String cnnPoint, String weight) {
+
+        Node node = new Node(null == weight ? Collections.emptyMap() : Collections.singletonMap(Node.WEIGHT_LABEL, weight),
+                URI.create(cnnPoint), URI.create(cnnPoint));
+        node.setActive(true);
+        return node;
+    }
+
+    private static Node createNode(String cnnPoint, String weight, String zone) {
+
+        Map<String, String> labels = new HashMap<>();
+        labels.put(Node.WEIGHT_LABEL, weight);
+        labels.put("zone", zone);
+        Node node = new Node(labels, URI.create(cnnPoint), URI.create(cnnPoint));
+        node.setActive(true);
+        return node;
+    }
+
+    private List<BalancedNode> balance(int count) {
+
+        List<BalancedNode> balanced = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            balanced.add(weightedRoundRobinStrategy.balance(balancer, context));
+        }
+        return balanced;
+    }
+
+    @Test
+    public void balanceNullWhenNoNodes() throws Exception {
+
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Collections.emptyList()));
+
+        assertThat(weightedRoundRobinStrategy.balance(balancer, context)).isNull();
+    }
+
+    @Test
+    public void balanceSmoothlyByWeight() throws Exception {
+
+        Node a = createNode("http://localhost:9090/a", "5");
+        Node b = createNode("http://localhost:9090/b", "1");
+        Node c = createNode("http://localhost:9090/c", "1");
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(a, b, c)));
+
+        assertThat(balance(14)).containsExactly(a, a, a, b, c, a, a, a, a, a, b, c, a, a);
+    }
+
+    @Test
+    public void balancePreparedSnapshotSmoothlyByWeight() throws Exception {
+
+        Node a = createNode("http://localhost:9090/a", "5");
+        Node b = createNode("http://localhost:9090/b", "1");
+        Node c = createNode("http://localhost:9090/c", "1");
+        Snapshot snapshot = Snapshot.create(1L, Arrays.asList(a, b, c));
+        weightedRoundRobinStrategy.prepare(snapshot);
+        weightedRoundRobinStrategy.prepare(Snapshot.create(2L, Collections.emptyList()));
+        when(balancer.getSnapshot()).thenReturn(snapshot);
+
+        assertThat(balance(7)).containsExactly(a, a, a, b, c, a, a);
+    }
+
+    @Test(timeout = 10000)
+    public void prepareScheduleOfLargeSnapshotQuickly() throws Exception {
+
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            nodes.add(createNode("http://localhost:9090/" + i, String.valueOf(Node.MAX_WEIGHT - i % 7)));
+        }
+        Snapshot snapshot = Snapshot.create(1L, nodes);
+        weightedRoundRobinStrategy.prepare(snapshot);
+        when(balancer.getSnapshot()).thenReturn(snapshot);
+
+        assertThat(weightedRoundRobinStrategy.balance(balancer, context, nodes.size()))
+                .hasSize(nodes.size())
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void balanceEvenlyWithoutWeights() throws Exception {
+
+        Node a = createNode("http://localhost:9090/a", null);
+        Node b = createNode("http://localhost:9090/b", "invalid");
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(a, b)));
+
+        assertThat(balance(4)).containsExactly(a, b, a, b);
+    }
+
+    @Test
+    public void skipNodesWithZeroWeight() throws Exception {
+
+        Node a = createNode("http://localhost:9090/a", "0");
+        Node b = createNode("http://localhost:9090/b", "3");
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(a, b)));
+
+        assertThat(balance(5)).containsOnly(b);
+    }
+
+    @Test
+    public void balanceNullWhenAllWeightsAreZero() throws Exception {
+
+        Node a = createNode("http://localhost:9090/a", "0");
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Collections.singletonList(a)));
+
+        assertThat(weightedRoundRobinStrategy.balance(balancer, context)).isNull();
+    }
+
+    @Test
+    public void recomputeScheduleWhenSnapshotChanges() throws Exception {
+
+        Node a = createNode("http://localhost:9090/a", "1");
+        Node b = createNode("http://localhost:9090/b", "1");
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(a, b)));
+        assertThat(balance(4)).containsOnly(a, b);
+
+        Node heavyB = createNode("http://localhost:9090/b", "3");
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(2L, Arrays.asList(a, heavyB)));
+
+        assertThat(balance(8)).filteredOn(n -> n == heavyB).hasSize(6);
+    }
+
+    @Test
+    public void balanceLabelSelectedNodesSmoothlyByWeight() throws Exception {
+
+        Node a = createNode("http://localhost:9090/a", "2", "eu-1");
+        Node b = createNode("http://localhost:9090/b", "1", "eu-1");
+        Node c = createNode("http://localhost:9090/c", "5", "eu-2");
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(a, b, c)));
+        when(context.getSelector()).thenReturn(LabelSelector.of("zone", "eu-1"));
+
+        assertThat(balance(6)).containsExactly(a, b, a, a, b, a);
+    }
+
+    @Test
+    public void balanceSelectedNodesByWeight() throws Exception {
+
+        Node a = createNode("http://localhost:9090/a", "5");
+        Node b = createNode("http://localhost:9090/b", "1");
+        Node c = createNode("http://localhost:9090/c", "0");
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(a, b, c)));
+        when(context.getSelector()).thenReturn(node -> !node.getConnection().getPath().equals("/a"));
+
+        assertThat(balance(10)).containsOnly(b);
+    }
+
+    @Test
+    public void balanceBatchOfDistinctNodesInScheduleOrder() throws Exception {
+
+        Node a = createNode("http://localhost:9090/a", "5");
+        Node b = createNode("http://localhost:9090/b", "1");
+        Node c = createNode("http://localhost:9090/c", "1");
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(a, b, c)));
+
+        assertThat(weightedRoundRobinStrategy.balance(balancer, context, 2)).containsExactly(a, b);
+        assertThat(weightedRoundRobinStrategy.balance(balancer, context, 3)).containsExactly(a, b, c);
+    }
+
+    @Test
+    public void balanceBatchWithoutZeroWeightNodes() throws Exception {
+
+        Node a = createNode("http://localhost:9090/a", "2");
+        Node b = createNode("http://localhost:9090/b", "0");
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(a, b)));
+
+        assertThat(weightedRoundRobinStrategy.balance(balancer, context, 2)).containsExactly(a);
+    }
+
+    @Test
+    public void balanceBatchOfSelectedNodesByWeight() throws Exception {
+
+        Node a = createNode("http://localhost:9090/a", "3");
+        Node b = createNode("http://localhost:9090/b", "1");
+        Node c = createNode("http://localhost:9090/c", "0");
+        when(balancer.getSnapshot()).thenReturn(Snapshot.create(1L, Arrays.asList(a, b, c)));
+        when(context.getSelector()).thenReturn(node -> true);
+
+        assertThat(weightedRoundRobinStrategy.balance(balancer, context, 3)).containsOnly(a, b).hasSize(2);
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.jbalancer.node;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker(TimeUnit.MILLISECONDS.toNanos(20));
+
+    @Test
+    public void closedCircuitAdmitsRequests() throws Exception {
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    public void circuitOpensAfterConsecutiveFailures() throws Exception {
+
+        for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD - 1; i++) {
+            circuitBreaker.record(false);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        circuitBreaker.record(false);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    public void successResetsConsecutiveFailures() throws Exception {
+
+        for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD - 1; i++) {
+            circuitBreaker.record(false);
+        }
+        circuitBreaker.record(true);
+        circuitBreaker.record(false);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void halfOpenCircuitAdmitsLimitedProbes() throws Exception {
+
+        open();
+        Thread.sleep(30);
+
+        for (int i = 0; i < CircuitBreaker.PROBES; i++) {
+            assertThat(circuitBreaker.allowRequest()).isTrue();
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    public void circuitClosesWhenProbesSucceed() throws Exception {
+
+        open();
+        Thread.sleep(30);
+
+        for (int i = 0; i < CircuitBreaker.PROBES; i++) {
+            circuitBreaker.allowRequest();
+            circuitBreaker.record(true);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    public void circuitOpensWhenProbeFails() throws Exception {
+
+        open();
+        Thread.sleep(30);
+
+        circuitBreaker.allowRequest();
+        circuitBreaker.record(false);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    public void probePermitsAreRenewedWithoutProbeResults() throws Exception {
+
+        open();
+        Thread.sleep(30);
+        for (int i = 0; i < CircuitBreaker.PROBES; i++) {
+            circuitBreaker.allowRequest();
+        }
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+
+        Thread.sleep(30);
+
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+    }
+
+    private void open() {
+
+        for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD; i++) {
+            circuitBreaker.record(false);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.jbalancer.node;
+
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LabelSelectorTest {
+
+    private static Node createNode(String zone, String version) {
+
+        Map<String, String> labels = new HashMap<>();
+        labels.put("zone", zone);
+        labels.put("version", version);
+        return new Node(labels, URI.create("http://localhost:9090"), URI.create("http://localhost:9090/status"));
+    }
+
+    @Test
+    public void selectNodeWithAllLabels() throws Exception {
+
+        LabelSelector selector = LabelSelector.of("zone", "eu-1").and("version", "v2");
+
+        assertThat(selector.test(createNode("eu-1", "v2"))).isTrue();
+        assertThat(selector.test(createNode("eu-1", "v1"))).isFalse();
+        assertThat(selector.test(createNode("eu-2", "v2"))).isFalse();
+    }
+
+    @Test
+    public void andCreatesNewSelector() throws Exception {
+
+        LabelSelector zone = LabelSelector.of("zone", "eu-1");
+        LabelSelector zoneAndVersion = zone.and("version", "v2");
+
+        assertThat(zone.getLabels()).hasSize(1);
+        assertThat(zoneAndVersion.getLabels()).hasSize(2);
+    }
+
+    @Test
+    public void selectorsWithSameLabelsAreEqual() throws Exception {
+
+        Map<String, String> labels = new HashMap<>();
+        labels.put("version", "v2");
+        labels.put("zone", "eu-1");
+
+        assertThat(LabelSelector.of("zone", "eu-1").and("version", "v2")).isEqualTo(LabelSelector.of(labels));
+        assertThat(LabelSelector.of("zone", "eu-1").hashCode()).isEqualTo(LabelSelector.of("zone", "eu-1").hashCode());
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.jbalancer.node;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void emptyHistogramHasZeroQuantile() throws Exception {
+
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getQuantileNanos(0.99)).isZero();
+    }
+
+    @Test
+    public void recordSampleInBucketWithInclusiveUpperBound() throws Exception {
+
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1) + 1);
+        histogram.record(-5);
+
+        long[] counts = histogram.getCounts();
+        assertThat(counts[0]).isEqualTo(1);
+        assertThat(histogram.getUpperBoundNanos(2)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(counts[2]).isEqualTo(1);
+        assertThat(counts[3]).isEqualTo(1);
+        assertThat(histogram.getCount()).isEqualTo(3);
+        assertThat(histogram.getSumNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(2) + 1);
+    }
+
+    @Test
+    public void recordSlowSampleInOverflowBucket() throws Exception {
+
+        histogram.record(TimeUnit.SECONDS.toNanos(60));
+
+        assertThat(histogram.getCounts()[histogram.getBucketCount() - 1]).isEqualTo(1);
+        assertThat(histogram.getUpperBoundNanos(histogram.getBucketCount() - 1)).isEqualTo(Long.MAX_VALUE);
+        assertThat(histogram.getQuantileNanos(0.5)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void quantileIsUpperBoundOfBucket() throws Exception {
+
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertThat(histogram.getQuantileNanos(0.5)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(histogram.getQuantileNanos(0.99)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(histogram.getQuantileNanos(1.0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(250));
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.jbalancer.node;
+
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NodeEventBusTest {
+
+    private final NodeEventBus bus = new NodeEventBus(2);
+
+    private final List<List<NodeEvent>> batches = new ArrayList<>();
+
+    private static NodeEvent createEvent(NodeEvent.Type type) {
+        return new NodeEvent(type, new Node(URI.create("http://local:10"), URI.create("http://local:10")));
+    }
+
+    @Test
+    public void deliverPublishedEventImmediately() throws Exception {
+
+        bus.addListener(batches::add);
+
+        bus.publish(createEvent(NodeEvent.Type.ACTIVATED));
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).extracting(NodeEvent::getType).containsExactly(NodeEvent.Type.ACTIVATED);
+    }
+
+    @Test
+    public void deliverHeldEventsInBatchesOnRelease() throws Exception {
+
+        bus.addListener(batches::add);
+
+        bus.hold();
+        bus.hold();
+        bus.publish(createEvent(NodeEvent.Type.ACTIVATED));
+        bus.publish(createEvent(NodeEvent.Type.DISABLED));
+        bus.publish(createEvent(NodeEvent.Type.REMOVED));
+        bus.release();
+        assertThat(batches).isEmpty();
+        bus.release();
+
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).extracting(NodeEvent::getType)
+                .containsExactly(NodeEvent.Type.ACTIVATED, NodeEvent.Type.DISABLED);
+        assertThat(batches.get(1)).extracting(NodeEvent::getType).containsExactly(NodeEvent.Type.REMOVED);
+    }
+
+    @Test
+    public void deliverHeldEventsOnOwnReleaseWhileOtherThreadHolds() throws Exception {
+
+        bus.addListener(batches::add);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread slowCall = new Thread(() -> {
+            bus.hold();
+            try {
+                held.countDown();
+                done.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                bus.release();
+            }
+        });
+        slowCall.start();
+        held.await(5, TimeUnit.SECONDS);
+
+        bus.hold();
+        bus.publish(createEvent(NodeEvent.Type.DEACTIVATED));
+        bus.release();
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).extracting(NodeEvent::getType).containsExactly(NodeEvent.Type.DEACTIVATED);
+        done.countDown();
+        slowCall.join();
+    }
+
+    @Test
+    public void deliverEventOfThreadWithoutHoldWhileOtherThreadHolds() throws Exception {
+
+        bus.addListener(batches::add);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread slowCall = new Thread(() -> {
+            bus.hold();
+            try {
+                held.countDown();
+                done.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                bus.release();
+            }
+        });
+        slowCall.start();
+        held.await(5, TimeUnit.SECONDS);
+
+        bus.publish(createEvent(NodeEvent.Type.DEACTIVATED));
+        bus.onEvents(Collections.singletonList(createEvent(NodeEvent.Type.DISABLED)));
+
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).extracting(NodeEvent::getType).containsExactly(NodeEvent.Type.DEACTIVATED);
+        assertThat(batches.get(1)).extracting(NodeEvent::getType).containsExactly(NodeEvent.Type.DISABLED);
+        done.countDown();
+        slowCall.join();
+    }
+
+    @Test
+    public void failingListenerDoesNotStopDelivery() throws Exception {
+
+        bus.addListener(events -> {
+            throw new IllegalStateException("listener failure");
+        });
+        bus.addListener(batches::add);
+
+        bus.publish(createEvent(NodeEvent.Type.ACTIVATED));
+
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    public void nodePublishesOnlyStateChanges() throws Exception {
+
+        Node node = new Node(URI.create("http://local:10"), URI.create("http://local:10"));
+        node.addListener(bus);
+        node.addListener(bus);
+        bus.addListener(batches::add);
+
+        node.setActive(true);
+        node.setActive(true);
+        node.setActive(false);
+        node.enable();
+        node.disable();
+        node.removeListener(bus);
+        node.enable();
+
+        assertThat(batches).flatExtracting(events -> events).extracting("type").containsExactly(
+                NodeEvent.Type.ACTIVATED, NodeEvent.Type.DEACTIVATED, NodeEvent.Type.DISABLED);
+    }
+}
@@ -3,7 +3,11 @@ package io.github.jbalancer.node;
 import org.junit.Test;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -27,6 +31,67 @@ public class NodeTest {
         assertThat(new Node(URI.create("http://localhost:9090"), URI.create("http://localhost:9090/status")).isEnabled()).isTrue();
     }
 
+    @Test
+    public void firstCheckChangesActiveness() throws Exception {
+
+        Node node = createNode();
+
+        assertThat(node.recordCheck(true, 3, 3)).isTrue();
+        assertThat(node.isActive()).isTrue();
+    }
+
+    @Test
+    public void deactivateAfterFallConsecutiveFailedChecks() throws Exception {
+
+        Node node = createNode();
+        node.recordCheck(true, 2, 3);
+
+        assertThat(node.recordCheck(false, 2, 3)).isFalse();
+        assertThat(node.recordCheck(false, 2, 3)).isFalse();
+        assertThat(node.isActive()).isTrue();
+        assertThat(node.recordCheck(false, 2, 3)).isTrue();
+        assertThat(node.isActive()).isFalse();
+    }
+
+    @Test
+    public void activateAfterRiseConsecutiveSuccessfulChecks() throws Exception {
+
+        Node node = createNode();
+        node.recordCheck(false, 2, 3);
+
+        assertThat(node.recordCheck(true, 2, 3)).isFalse();
+        assertThat(node.isActive()).isFalse();
+        assertThat(node.recordCheck(true, 2, 3)).isTrue();
+        assertThat(node.isActive()).isTrue();
+        assertThat(node.recordCheck(true, 2, 3)).isFalse();
+    }
+
+    @Test
+    public void flappingNodeKeepsActiveness() throws Exception {
+
+        Node node = createNode();
+        node.recordCheck(true, 2, 2);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(node.recordCheck(i % 2 == 0, 2, 2)).isFalse();
+        }
+        assertThat(node.isActive()).isTrue();
+    }
+
+    @Test
+    public void appliedCheckKeepsThresholds() throws Exception {
+
+        Node checked = createNode();
+        checked.recordCheck(true, 1, 3);
+        Node node = createNode();
+        node.applyCheck(checked);
+
+        assertThat(node.recordCheck(false, 1, 3)).isFalse();
+        assertThat(node.recordCheck(false, 1, 3)).isFalse();
+        assertThat(node.isActive()).isTrue();
+        assertThat(node.recordCheck(false, 1, 3)).isTrue();
+    }
+
     @Test
     public void markNodeAliveDead() throws Exception {
 
@@ -53,6 +118,20 @@ public class NodeTest {
         assertThat(node.isActive()).isFalse();
     }
 
+    @Test
+    public void activeTimeIsMeasuredFromActivation() throws Exception {
+
+        Node node = createNode();
+        assertThat(node.getActiveNanos()).isEqualTo(0L);
+
+        node.setActive(true);
+        Thread.sleep(5);
+        assertThat(node.getActiveNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+
+        node.setActive(false);
+        assertThat(node.getActiveNanos()).isEqualTo(0L);
+    }
+
     @Test
     public void enableDisableNode() throws Exception {
 
@@ -84,7 +163,301 @@ public class NodeTest {
         assertThat(node.isAlive() == node.setAliveAndGetPrevious(!current));
     }
 
+    @Test
+    public void leaseTracksInFlightRequests() throws Exception {
+
+        Node node = createNode();
+        assertThat(node.getInFlight()).isEqualTo(0);
+
+        Lease lease1 = node.lease();
+        Lease lease2 = node.lease();
+        assertThat(node.getInFlight()).isEqualTo(2);
+
+        lease1.release();
+        lease2.close();
+        assertThat(node.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void leaseIsReleasedOnlyOnce() throws Exception {
+
+        Node node = createNode();
+        node.lease();
+        Lease lease = node.lease();
+
+        lease.release();
+        lease.release();
+
+        assertThat(node.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    public void latencyIsZeroByDefault() throws Exception {
+
+        assertThat(createNode().getLatency()).isEqualTo(0.0);
+    }
+
+    @Test
+    public void latencyFollowsPeakImmediately() throws Exception {
+
+        Node node = createNode();
+
+        node.recordLatency(TimeUnit.MILLISECONDS.toNanos(10));
+        node.recordLatency(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertThat(node.getLatency()).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(400));
+    }
+
+    @Test
+    public void latencyDecreasesGraduallyAfterPeak() throws Exception {
+
+        Node node = createNode();
+
+        node.recordLatency(TimeUnit.MILLISECONDS.toNanos(500));
+        node.recordLatency(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(node.getLatency())
+                .isGreaterThan(TimeUnit.MILLISECONDS.toNanos(400))
+                .isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void releasedLeaseRecordsLatency() throws Exception {
+
+        Node node = createNode();
+
+        Lease lease = node.lease();
+        Thread.sleep(5);
+        lease.release();
+
+        assertThat(node.getLatency()).isGreaterThan(0.0);
+    }
+
+    @Test
+    public void failedLeaseRecordsPenaltyLatency() throws Exception {
+
+        Node node = createLimitedNode();
+
+        node.lease().release(false);
+
+        assertThat(node.getLatency()).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(900));
+        assertThat(node.getConcurrencyLimit()).isEqualTo(ConcurrencyLimits.DEFAULT_INITIAL_LIMIT);
+    }
+
+    @Test
+    public void weightIsReadFromLabel() throws Exception {
+
+        assertThat(createNode(Collections.singletonMap(Node.WEIGHT_LABEL, "4")).getWeight()).isEqualTo(4);
+        assertThat(createNode(Collections.singletonMap(Node.WEIGHT_LABEL, "0")).getWeight()).isEqualTo(0);
+    }
+
+    @Test
+    public void weightFollowsReplacedLabels() throws Exception {
+
+        Node node = createNode(Collections.singletonMap(Node.WEIGHT_LABEL, "4"));
+
+        node.setLabels(Collections.singletonMap(Node.WEIGHT_LABEL, "7"));
+        assertThat(node.getWeight()).isEqualTo(7);
+
+        node.setLabels(null);
+        assertThat(node.getLabels()).isEmpty();
+        assertThat(node.getWeight()).isEqualTo(Node.DEFAULT_WEIGHT);
+    }
+
+    @Test
+    public void defaultWeightWhenLabelMissingOrInvalid() throws Exception {
+
+        assertThat(createNode().getWeight()).isEqualTo(Node.DEFAULT_WEIGHT);
+        assertThat(createNode(Collections.singletonMap(Node.WEIGHT_LABEL, "heavy")).getWeight()).isEqualTo(Node.DEFAULT_WEIGHT);
+    }
+
+    @Test
+    public void weightIsLimited() throws Exception {
+
+        assertThat(createNode(Collections.singletonMap(Node.WEIGHT_LABEL, "-3")).getWeight()).isEqualTo(0);
+        assertThat(createNode(Collections.singletonMap(Node.WEIGHT_LABEL, "100000")).getWeight()).isEqualTo(Node.MAX_WEIGHT);
+    }
+
+    @Test
+    public void concurrencyLimitIsDisabledByDefault() throws Exception {
+
+        Node node = createNode();
+        leaseTimes(node, ConcurrencyLimits.DEFAULT_INITIAL_LIMIT * 2);
+
+        assertThat(node.isSaturated()).isFalse();
+        assertThat(node.getConcurrencyLimit()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void nodeIsSaturatedAtConcurrencyLimit() throws Exception {
+
+        Node node = createLimitedNode();
+        assertThat(node.getConcurrencyLimit()).isEqualTo(ConcurrencyLimits.DEFAULT_INITIAL_LIMIT);
+
+        for (int i = 0; i < ConcurrencyLimits.DEFAULT_INITIAL_LIMIT - 1; i++) {
+            node.lease();
+        }
+        assertThat(node.isSaturated()).isFalse();
+
+        Lease lease = node.lease();
+        assertThat(node.isSaturated()).isTrue();
+
+        lease.release();
+        assertThat(node.isSaturated()).isFalse();
+    }
+
+    @Test
+    public void concurrencyLimitGrowsWhileLatencyIsStable() throws Exception {
+
+        Node node = createLimitedNode();
+        leaseTimes(node, 15);
+
+        for (int i = 0; i < 10; i++) {
+            node.recordLatency(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertThat(node.getConcurrencyLimit()).isGreaterThan(ConcurrencyLimits.DEFAULT_INITIAL_LIMIT);
+    }
+
+    @Test
+    public void concurrencyLimitShrinksWhenLatencyRises() throws Exception {
+
+        Node node = createLimitedNode();
+        leaseTimes(node, 15);
+
+        node.recordLatency(TimeUnit.MILLISECONDS.toNanos(10));
+        for (int i = 0; i < 10; i++) {
+            node.recordLatency(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        assertThat(node.getConcurrencyLimit()).isLessThan(ConcurrencyLimits.DEFAULT_INITIAL_LIMIT);
+    }
+
+    @Test
+    public void concurrencyLimitDoesNotCollapseWithBimodalLatency() throws Exception {
+
+        Node node = createLimitedNode();
+        leaseTimes(node, 15);
+
+        for (int i = 0; i < 200; i++) {
+            node.recordLatency(TimeUnit.MILLISECONDS.toNanos(i % 2 == 0 ? 5 : 50));
+        }
+
+        assertThat(node.getConcurrencyLimit()).isGreaterThanOrEqualTo(ConcurrencyLimits.DEFAULT_INITIAL_LIMIT);
+    }
+
+    @Test
+    public void concurrencyLimitIsNotUpdatedWhenNodeIsUnderused() throws Exception {
+
+        Node node = createLimitedNode();
+
+        for (int i = 0; i < 10; i++) {
+            node.recordLatency(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertThat(node.getConcurrencyLimit()).isEqualTo(ConcurrencyLimits.DEFAULT_INITIAL_LIMIT);
+    }
+
+    @Test
+    public void nodeIsNotEjectedByDefault() throws Exception {
+
+        assertThat(createNode().isEjected()).isFalse();
+    }
+
+    @Test
+    public void nodeIsEjectedAfterConsecutiveFailures() throws Exception {
+
+        Node node = createNode();
+
+        for (int i = 0; i < OutlierDetector.CONSECUTIVE_FAILURES - 1; i++) {
+            assertThat(node.recordResult(false)).isFalse();
+        }
+        assertThat(node.isEjected()).isFalse();
+
+        assertThat(node.recordResult(false)).isTrue();
+        assertThat(node.isEjected()).isTrue();
+        assertThat(node.recordResult(false)).isFalse();
+    }
+
+    @Test
+    public void successResetsConsecutiveFailures() throws Exception {
+
+        Node node = createNode();
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < OutlierDetector.CONSECUTIVE_FAILURES - 1; i++) {
+                node.recordResult(false);
+            }
+            for (int i = 0; i < 2 * OutlierDetector.CONSECUTIVE_FAILURES; i++) {
+                node.recordResult(true);
+            }
+        }
+
+        assertThat(node.isEjected()).isFalse();
+    }
+
+    @Test
+    public void nodeIsEjectedWhenFailureRateIsExceeded() throws Exception {
+
+        Node node = createNode();
+
+        boolean ejected = false;
+        for (int i = 0; i < OutlierDetector.MIN_REQUESTS && !ejected; i++) {
+            ejected = node.recordResult(i % 2 == 0);
+        }
+
+        assertThat(ejected).isTrue();
+        assertThat(node.isEjected()).isTrue();
+    }
+
+    @Test
+    public void remainingEjectionFollowsEjectionPeriod() throws Exception {
+
+        Node node = createNode();
+        assertThat(node.getRemainingEjection(TimeUnit.NANOSECONDS)).isEqualTo(0L);
+
+        for (int i = 0; i < OutlierDetector.CONSECUTIVE_FAILURES; i++) {
+            node.recordResult(false);
+        }
+
+        assertThat(node.getRemainingEjection(TimeUnit.NANOSECONDS))
+                .isGreaterThan(0L)
+                .isLessThanOrEqualTo(OutlierDetector.BASE_EJECTION_NANOS);
+    }
+
+    @Test
+    public void releasedLeaseNotifiesEjection() throws Exception {
+
+        Node node = createNode();
+        List<Node> ejected = new ArrayList<>();
+
+        for (int i = 0; i < OutlierDetector.CONSECUTIVE_FAILURES; i++) {
+            node.lease(ejected::add).release(false);
+        }
+
+        assertThat(ejected).containsExactly(node);
+        assertThat(node.getInFlight()).isEqualTo(0);
+    }
+
+    private static Node createLimitedNode() {
+
+        Node node = createNode();
+        node.setConcurrencyLimits(ConcurrencyLimits.adaptive());
+        return node;
+    }
+
+    private static void leaseTimes(Node node, int times) {
+
+        for (int i = 0; i < times; i++) {
+            node.lease();
+        }
+    }
+
+    private static Node createNode(Map<String, String> labels) {
+        return new Node(labels, URI.create("http://localhost:9090"), URI.create("http://localhost:9090/status"));
+    }
+
     private static Node createNode() {
         return new Node(Collections.emptyMap(),URI.create("http://localhost:9090"), URI.create("http://localhost:9090/status"));
     }
-}
\ No newline at end of file
+}
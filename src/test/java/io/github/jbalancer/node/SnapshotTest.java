@@ -0,0 +1,197 @@
+package io.github.jbalancer.node;
+
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SnapshotTest {
+
+    private static Node createNode(String connection, boolean active, boolean enabled) {
+
+        Node node = new Node(URI.create(connection), URI.create(connection));
+        node.setActive(active);
+        if (!enabled) node.disable();
+        return node;
+    }
+
+    private static Node createNode(String connection, String zone, String version) {
+
+        Map<String, String> labels = new HashMap<>();
+        labels.put("zone", zone);
+        labels.put("version", version);
+        Node node = new Node(labels, URI.create(connection), URI.create(connection));
+        node.setActive(true);
+        return node;
+    }
+
+    @Test
+    public void emptySnapshotHasNoNodes() throws Exception {
+
+        assertThat(Snapshot.empty().isEmpty()).isTrue();
+        assertThat(Snapshot.empty().getNodes()).isEmpty();
+    }
+
+    @Test
+    public void containsOnlyEnabledAndActiveNodes() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", true, true);
+        Node node2 = createNode("http://localhost:9090/second", false, true);
+        Node node3 = createNode("http://localhost:9090/third", true, false);
+
+        Snapshot snapshot = Snapshot.create(3L, Arrays.asList(node1, node2, node3));
+
+        assertThat(snapshot.getVersion()).isEqualTo(3L);
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.get(0)).isSameAs(node1);
+        assertThat(snapshot.getNodes()).containsExactly(node1);
+    }
+
+    @Test
+    public void unavailableContainsEnabledInactiveNodes() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", true, true);
+        Node node2 = createNode("http://localhost:9090/second", false, true);
+        Node node3 = createNode("http://localhost:9090/third", false, false);
+
+        Snapshot snapshot = Snapshot.create(1L, Arrays.asList(node1, node2, node3));
+
+        assertThat(snapshot.getUnavailable()).containsExactly(node2);
+        assertThat(snapshot.select(node -> false).getUnavailable()).isEmpty();
+    }
+
+    @Test
+    public void attachmentIsComputedOncePerSnapshot() throws Exception {
+
+        Snapshot snapshot = Snapshot.create(1L, Arrays.asList(createNode("http://localhost:9090/first", true, true)));
+        AtomicInteger computations = new AtomicInteger();
+
+        Object first = snapshot.getAttachment("key", s -> computations.incrementAndGet());
+        Object second = snapshot.getAttachment("key", s -> computations.incrementAndGet());
+
+        assertThat(first).isSameAs(second);
+        assertThat(computations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void createWithoutEjectedNodes() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", true, true);
+        Node node2 = createNode("http://localhost:9090/second", true, true);
+        Node node3 = createNode("http://localhost:9090/third", true, true);
+        eject(node2);
+
+        Snapshot snapshot = Snapshot.create(1L, Arrays.asList(node1, node2, node3));
+
+        assertThat(snapshot.getNodes()).containsExactly(node1, node3);
+        assertThat(snapshot.getEjected()).containsExactly(node2);
+    }
+
+    @Test
+    public void createWithLimitedPercentOfEjectedNodes() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", true, true);
+        Node node2 = createNode("http://localhost:9090/second", true, true);
+        Node node3 = createNode("http://localhost:9090/third", true, true);
+        Node node4 = createNode("http://localhost:9090/fourth", true, true);
+        eject(node1);
+        eject(node2);
+        eject(node3);
+
+        Snapshot snapshot = Snapshot.create(1L, Arrays.asList(node1, node2, node3, node4), 50);
+
+        assertThat(snapshot.getNodes()).containsExactly(node3, node4);
+        assertThat(snapshot.getEjected()).containsExactly(node1, node2);
+    }
+
+    @Test
+    public void singleEjectedNodeStaysAvailable() throws Exception {
+
+        Node node = createNode("http://localhost:9090/first", true, true);
+        eject(node);
+
+        assertThat(Snapshot.create(1L, Collections.singletonList(node)).getNodes()).containsExactly(node);
+    }
+
+    private static void eject(Node node) {
+
+        while (!node.isEjected()) {
+            node.recordResult(false);
+        }
+    }
+
+    @Test
+    public void selectWithPredicateCreatesTransientSnapshot() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", "eu-1", "v1");
+        Node node2 = createNode("http://localhost:9090/second", "eu-2", "v1");
+        Snapshot snapshot = Snapshot.create(1L, Arrays.asList(node1, node2));
+
+        Snapshot selected = snapshot.select(node -> node.getConnection().getPath().equals("/second"));
+
+        assertThat(selected.getNodes()).containsExactly(node2);
+        assertThat(selected.isTransient()).isTrue();
+        assertThat(snapshot.isTransient()).isFalse();
+    }
+
+    @Test
+    public void selectWithNullSelectorReturnsSameSnapshot() throws Exception {
+
+        Snapshot snapshot = Snapshot.create(1L, Arrays.asList(createNode("http://localhost:9090/first", true, true)));
+
+        assertThat(snapshot.select(null)).isSameAs(snapshot);
+    }
+
+    @Test
+    public void selectWithLabelSelector() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", "eu-1", "v1");
+        Node node2 = createNode("http://localhost:9090/second", "eu-1", "v2");
+        Node node3 = createNode("http://localhost:9090/third", "eu-2", "v2");
+        Node node4 = createNode("http://localhost:9090/fourth", "eu-1", "v2");
+        Snapshot snapshot = Snapshot.create(1L, Arrays.asList(node1, node2, node3, node4));
+
+        assertThat(snapshot.select(LabelSelector.of("zone", "eu-1")).getNodes()).containsExactly(node1, node2, node4);
+        assertThat(snapshot.select(LabelSelector.of("zone", "eu-1").and("version", "v2")).getNodes()).containsExactly(node2, node4);
+        assertThat(snapshot.select(LabelSelector.of("zone", "us-1")).isEmpty()).isTrue();
+        assertThat(snapshot.select(LabelSelector.of("rack", "r1")).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void labelSelectionIsCachedInSnapshot() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", "eu-1", "v1");
+        Node node2 = createNode("http://localhost:9090/second", "eu-2", "v1");
+        Snapshot snapshot = Snapshot.create(1L, Arrays.asList(node1, node2));
+
+        Snapshot selected = snapshot.select(LabelSelector.of("zone", "eu-2"));
+
+        assertThat(selected.isTransient()).isFalse();
+        assertThat(selected.getVersion()).isEqualTo(1L);
+        assertThat(snapshot.select(LabelSelector.of("zone", "eu-2"))).isSameAs(selected);
+    }
+
+    @Test
+    public void labelSelectionIgnoresUnavailableNodes() throws Exception {
+
+        Node node1 = createNode("http://localhost:9090/first", "eu-1", "v1");
+        Node node2 = createNode("http://localhost:9090/second", "eu-1", "v1");
+        node2.disable();
+        Snapshot snapshot = Snapshot.create(1L, Arrays.asList(node1, node2));
+
+        assertThat(snapshot.select(LabelSelector.of("zone", "eu-1")).getNodes()).containsExactly(node1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void nodesAreUnmodifiable() throws Exception {
+
+        Snapshot.create(1L, Arrays.asList(createNode("http://localhost:9090/first", true, true)))
+                .getNodes().clear();
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.jbalancer.node;
+
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SubsettingTest {
+
+    private static List<Node> createNodes(int count) {
+
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(createNode("http://local:" + (8000 + i)));
+        }
+        return nodes;
+    }
+
+    private static Node createNode(String connection) {
+        return new Node(URI.create(connection), URI.create(connection));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void subsetSizeMustBePositive() throws Exception {
+        new Subsetting("proxy-1", 0);
+    }
+
+    @Test
+    public void returnAllNodesWhenSubsetIsNotSmaller() throws Exception {
+
+        List<Node> nodes = createNodes(3);
+
+        assertThat(new Subsetting("proxy-1", 3).select(nodes)).isSameAs(nodes);
+    }
+
+    @Test
+    public void selectDeterministicSubsetInNodeOrder() throws Exception {
+
+        List<Node> nodes = createNodes(20);
+
+        List<Node> subset = new Subsetting("proxy-1", 5).select(nodes);
+
+        assertThat(subset).hasSize(5);
+        assertThat(subset).isEqualTo(new Subsetting("proxy-1", 5).select(new ArrayList<>(nodes)));
+        assertThat(nodes).containsSubsequence(subset.toArray(new Node[0]));
+    }
+
+    @Test
+    public void differentInstancesSelectDifferentSubsets() throws Exception {
+
+        List<Node> nodes = createNodes(20);
+
+        Set<List<Node>> subsets = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            subsets.add(new Subsetting("proxy-" + i, 5).select(nodes));
+        }
+
+        assertThat(subsets.size()).isGreaterThan(1);
+    }
+
+    @Test
+    public void addingNodeReplacesAtMostOneNode() throws Exception {
+
+        List<Node> nodes = createNodes(20);
+        Subsetting subsetting = new Subsetting("proxy-1", 5);
+        List<Node> before = subsetting.select(nodes);
+
+        nodes.add(createNode("http://local:9000"));
+        List<Node> after = subsetting.select(nodes);
+
+        Set<Node> kept = new HashSet<>(after);
+        kept.retainAll(before);
+        assertThat(kept.size()).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    public void removingUnselectedNodesKeepsSubset() throws Exception {
+
+        List<Node> nodes = createNodes(20);
+        Subsetting subsetting = new Subsetting("proxy-1", 5);
+        List<Node> before = subsetting.select(nodes);
+
+        nodes.removeIf(node -> !before.contains(node));
+
+        assertThat(subsetting.select(nodes)).isEqualTo(before);
+    }
+
+    @Test
+    public void removingSelectedNodeKeepsOtherSelectedNodes() throws Exception {
+
+        List<Node> nodes = createNodes(20);
+        Subsetting subsetting = new Subsetting("proxy-1", 5);
+        List<Node> before = subsetting.select(nodes);
+
+        nodes.remove(before.get(0));
+        List<Node> after = subsetting.select(nodes);
+
+        assertThat(after).hasSize(5);
+        assertThat(after).containsAll(before.subList(1, before.size()));
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.jbalancer.node.checker;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.jbalancer.node.Node;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AsyncHttpCheckerTest {
+
+    private HttpServer httpServer;
+
+    private AsyncHttpChecker asyncHttpChecker;
+
+    @Before
+    public void setUp() throws Exception {
+
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getByName("localhost"), 0), 0);
+        httpServer.createContext("/ok", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        httpServer.createContext("/error", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        httpServer.start();
+
+        asyncHttpChecker = new AsyncHttpChecker.Builder()
+                .setConnectionTimeout(1000)
+                .setRequestTimeout(1000)
+                .setMaxConcurrentChecks(4)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+
+        asyncHttpChecker.close();
+        httpServer.stop(0);
+    }
+
+    private Node createNode(String path) {
+
+        URI status = URI.create("http://localhost:" + httpServer.getAddress().getPort() + path);
+        return new Node(status, status);
+    }
+
+    @Test
+    public void nodeAliveAndActiveWhenHead200() throws Exception {
+
+        Node node = createNode("/ok");
+
+        asyncHttpChecker.check(node);
+
+        assertThat(node.isActive()).isTrue();
+        assertThat(node.isAlive()).isTrue();
+        assertThat(node.getCheckStatus()).isNull();
+        assertThat(node.getCheckLatency()).isPositive();
+    }
+
+    @Test
+    public void recordConnectAndResponseTimes() throws Exception {
+
+        Node node = createNode("/ok");
+
+        asyncHttpChecker.check(node);
+        asyncHttpChecker.check(node);
+
+        assertThat(node.getCheckResponseTimes().getCount()).isEqualTo(2);
+        assertThat(node.getCheckConnectTimes().getCount()).isBetween(1L, 2L);
+        assertThat(node.getCheckResponseTimes().getSumNanos()).isPositive();
+    }
+
+    @Test
+    public void nodeAliveAndNotActiveWhenHeadNot200() throws Exception {
+
+        Node node = createNode("/error");
+        node.setActive(true);
+
+        asyncHttpChecker.check(node);
+
+        assertThat(node.isActive()).isFalse();
+        assertThat(node.isAlive()).isTrue();
+    }
+
+    @Test
+    public void nodeNotAliveAndNotActiveWhenConnectionRefused() throws Exception {
+
+        int port;
+        try (ServerSocket closed = new ServerSocket(0, 1, InetAddress.getByName("localhost"))) {
+            port = closed.getLocalPort();
+        }
+        URI status = URI.create("http://localhost:" + port + "/ok");
+        Node node = new Node(status, status);
+        node.setActive(true);
+        node.setAlive(true);
+
+        asyncHttpChecker.check(node);
+
+        assertThat(node.isActive()).isFalse();
+        assertThat(node.isAlive()).isFalse();
+        assertThat(node.getCheckStatus()).isNotNull();
+    }
+
+    @Test
+    public void checkAllNodesBeforeReturning() throws Exception {
+
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            nodes.add(createNode(i % 2 == 0 ? "/ok" : "/error"));
+        }
+
+        asyncHttpChecker.check(nodes);
+
+        for (int i = 0; i < nodes.size(); i++) {
+            assertThat(nodes.get(i).isAlive()).isTrue();
+            assertThat(nodes.get(i).isActive()).isEqualTo(i % 2 == 0);
+        }
+    }
+}
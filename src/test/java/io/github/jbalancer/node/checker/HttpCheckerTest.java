@@ -3,10 +3,10 @@ package io.github.jbalancer.node.checker;
 import io.github.jbalancer.node.Node;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpHead;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -27,9 +27,13 @@ public class HttpCheckerTest {
     @Mock
     private Node node;
 
-    @InjectMocks
     private HttpChecker httpChecker;
 
+    @Before
+    public void setUp() throws Exception {
+        httpChecker = new HttpChecker(httpClient);
+    }
+
     @Test
     public void noInteractionsWhenStatusNodeIsNull() throws Exception {
 
@@ -38,7 +42,7 @@ public class HttpCheckerTest {
         httpChecker.check(node);
 
         verifyNoMoreInteractions(httpClient);
-        verify(node, never()).setActive(anyBoolean());
+        verify(node, never()).recordCheck(anyBoolean(), anyInt(), anyInt());
         verify(node, never()).setAlive(anyBoolean());
     }
 
@@ -51,7 +55,7 @@ public class HttpCheckerTest {
 
         httpChecker.check(node);
 
-        verify(node, times(1)).setActive(true);
+        verify(node, times(1)).recordCheck(true, 1, 1);
         verify(node, times(1)).setAlive(true);
     }
 
@@ -64,7 +68,7 @@ public class HttpCheckerTest {
 
         httpChecker.check(node);
 
-        verify(node, times(1)).setActive(false);
+        verify(node, times(1)).recordCheck(false, 1, 1);
         verify(node, times(1)).setAlive(true);
     }
 
@@ -76,7 +80,7 @@ public class HttpCheckerTest {
 
         httpChecker.check(node);
 
-        verify(node, times(0)).setActive(anyBoolean());
+        verify(node, times(0)).recordCheck(anyBoolean(), anyInt(), anyInt());
         verify(node, times(0)).setAlive(anyBoolean());
         verify(node, times(1)).setCheckStatus(anyString());
     }
@@ -89,7 +93,7 @@ public class HttpCheckerTest {
 
         httpChecker.check(node);
 
-        verify(node, times(0)).setActive(anyBoolean());
+        verify(node, times(0)).recordCheck(anyBoolean(), anyInt(), anyInt());
         verify(node, times(0)).setAlive(anyBoolean());
         verify(node, times(1)).setCheckStatus(anyString());
     }
@@ -1,13 +1,15 @@
 package io.github.jbalancer.node.checker;
 
 import io.github.jbalancer.node.Node;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
 
 import static org.mockito.Mockito.*;
 
@@ -23,9 +25,13 @@ public class SchemaAwareCheckerTest {
     @Mock
     private Node node;
 
-    @InjectMocks
     private SchemaAwareChecker schemaAwareChecker;
 
+    @Before
+    public void setUp() throws Exception {
+        schemaAwareChecker = new SchemaAwareChecker(tcpChecker, httpChecker);
+    }
+
     @Test
     public void invokeHttpCheckerWhenSchemaHttp() throws Exception {
 
@@ -84,4 +90,28 @@ public class SchemaAwareCheckerTest {
 
         verifyNoMoreInteractions(httpChecker, tcpChecker);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void checkNodesTogetherBySchema() throws Exception {
+
+        Node httpNode = mock(Node.class);
+        when(httpNode.getStatus()).thenReturn(URI.create("http://localhost:9090"));
+        when(node.getStatus()).thenReturn(URI.create("tcp://localhost:9090"));
+        Node tcpNode = mock(Node.class);
+        when(tcpNode.getStatus()).thenReturn(URI.create("tcp://localhost:9091"));
+
+        schemaAwareChecker.check(Arrays.asList(node, httpNode, tcpNode));
+
+        verify(tcpChecker, times(1)).check(Arrays.asList(node, tcpNode));
+        verify(tcpChecker, never()).check(any(Node.class));
+        verify(httpChecker, times(1)).check(Collections.singletonList(httpNode));
+    }
+
+    @Test
+    public void noChecksWhenNoNodesWithSchema() throws Exception {
+
+        schemaAwareChecker.check(Collections.singletonList(node));
+
+        verifyNoMoreInteractions(httpChecker, tcpChecker);
+    }
+}
@@ -10,7 +10,10 @@ import org.mockito.runners.MockitoJUnitRunner;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -39,7 +42,7 @@ public class TcpCheckerTest {
 
         tcpChecker.check(node);
 
-        verify(node, never()).setActive(anyBoolean());
+        verify(node, never()).recordCheck(anyBoolean(), anyInt(), anyInt());
         verify(node, never()).setAlive(anyBoolean());
     }
 
@@ -52,7 +55,7 @@ public class TcpCheckerTest {
 
         tcpChecker.check(node);
 
-        verify(node, times(1)).setActive(true);
+        verify(node, times(1)).recordCheck(true, 1, 1);
         verify(node, times(1)).setAlive(true);
     }
 
@@ -64,11 +67,52 @@ public class TcpCheckerTest {
 
         tcpChecker.check(node);
 
-        verify(node, times(1)).setActive(false);
+        verify(node, times(1)).recordCheck(false, 1, 1);
         verify(node, times(1)).setAlive(false);
         verify(node, times(1)).setCheckStatus(anyString());
     }
 
+    @Test
+    public void checkNodesConcurrently() throws Exception {
+
+        int port = givenServerSocket();
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Node refused = mock(Node.class);
+            when(refused.getStatus()).thenReturn(URI.create("tcp://localhost:" + givenClosedPort()));
+            nodes.add(refused);
+        }
+        when(node.getStatus()).thenReturn(URI.create("tcp://localhost:" + port));
+        nodes.add(node);
+        tcpChecker = new TcpChecker(1000, 8);
+
+        tcpChecker.check(nodes);
+
+        verify(node, times(1)).recordCheck(true, 1, 1);
+        verify(node, times(1)).setAlive(true);
+        for (Node refused : nodes.subList(0, 20)) {
+            verify(refused, times(1)).recordCheck(false, 1, 1);
+            verify(refused, times(1)).setAlive(false);
+            verify(refused, times(1)).setCheckStatus(anyString());
+        }
+    }
+
+    @Test
+    public void deactivateNodeAfterFallFailedChecks() throws Exception {
+
+        Node checked = new Node(null, URI.create("tcp://localhost:" + givenClosedPort()));
+        checked.setActive(true);
+        checked.recordCheck(true, 1, 2);
+        tcpChecker = new TcpChecker(1000, 8, CheckThresholds.of(1, 2));
+
+        tcpChecker.check(checked);
+        assertThat(checked.isActive()).isTrue();
+        assertThat(checked.isAlive()).isFalse();
+
+        tcpChecker.check(checked);
+        assertThat(checked.isActive()).isFalse();
+    }
+
     private void givenTcpChecker(int connectionTimeout) {
 
         tcpChecker = new TcpChecker(connectionTimeout);
@@ -79,6 +123,13 @@ public class TcpCheckerTest {
         givenTcpChecker(1000);
     }
 
+    private int givenClosedPort() throws Exception {
+
+        try (ServerSocket closed = new ServerSocket(0, 1, InetAddress.getByName("localhost"))) {
+            return closed.getLocalPort();
+        }
+    }
+
     private int givenServerSocket() throws Exception {
 
         serverSocket = new ServerSocket(0, 1, InetAddress.getByName("localhost"));
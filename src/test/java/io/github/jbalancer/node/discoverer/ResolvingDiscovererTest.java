@@ -0,0 +1,86 @@
+package io.github.jbalancer.node.discoverer;
+
+import io.github.jbalancer.node.Node;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResolvingDiscovererTest {
+
+    private final AtomicReference<List<Node>> nodes = new AtomicReference<>();
+
+    private final AtomicReference<List<InetAddress>> addresses = new AtomicReference<>();
+
+    private final ResolvingDiscoverer discoverer = new ResolvingDiscoverer(balancerId -> nodes.get(), host -> {
+        if (!"service".equals(host)) {
+            throw new UnknownHostException(host);
+        }
+        return addresses.get();
+    });
+
+    private static InetAddress createAddress(int last) throws Exception {
+        return InetAddress.getByAddress(new byte[]{10, 0, 0, (byte) last});
+    }
+
+    private static Node createNode(String connection, String status) {
+        return new Node(Collections.singletonMap("zone", "a"), URI.create(connection), URI.create(status));
+    }
+
+    @Test
+    public void expandNodeIntoNodePerAddress() throws Exception {
+
+        nodes.set(Collections.singletonList(createNode("http://service:8080/api", "http://service:8081/status")));
+        addresses.set(Arrays.asList(createAddress(1), createAddress(2)));
+
+        List<Node> discovered = discoverer.discover("balancer");
+
+        assertThat(discovered).extracting(Node::getConnection)
+                .containsExactly(URI.create("http://10.0.0.1:8080/api"), URI.create("http://10.0.0.2:8080/api"));
+        assertThat(discovered).extracting(Node::getStatus)
+                .containsExactly(URI.create("http://10.0.0.1:8081/status"), URI.create("http://10.0.0.2:8081/status"));
+        assertThat(discovered.get(0).getLabels()).containsEntry("zone", "a").containsEntry(ResolvingDiscoverer.HOST_LABEL, "service");
+    }
+
+    @Test
+    public void keepLiteralAndUnresolvedNodes() throws Exception {
+
+        Node literal = createNode("tcp://127.0.0.1:3000", "tcp://127.0.0.1:3000");
+        Node unresolved = createNode("tcp://unknown:3000", "tcp://unknown:3000");
+        nodes.set(Arrays.asList(literal, unresolved));
+
+        assertThat(discoverer.discover("balancer")).containsExactly(literal, unresolved);
+    }
+
+    @Test
+    public void keepStatusOfOtherHost() throws Exception {
+
+        nodes.set(Collections.singletonList(createNode("tcp://service:3000", "tcp://127.0.0.1:3001")));
+        addresses.set(Collections.singletonList(createAddress(1)));
+
+        assertThat(discoverer.discover("balancer")).extracting(Node::getStatus)
+                .containsExactly(URI.create("tcp://127.0.0.1:3001"));
+    }
+
+    @Test
+    public void discoverAddressChangesWhenNodesAreUnchanged() throws Exception {
+
+        nodes.set(Collections.singletonList(createNode("tcp://service:3000", "tcp://service:3000")));
+        addresses.set(Collections.singletonList(createAddress(1)));
+        discoverer.discover("balancer");
+        nodes.set(null);
+
+        assertThat(discoverer.discover("balancer")).isNull();
+
+        addresses.set(Arrays.asList(createAddress(1), createAddress(2)));
+
+        assertThat(discoverer.discover("balancer")).hasSize(2);
+    }
+}
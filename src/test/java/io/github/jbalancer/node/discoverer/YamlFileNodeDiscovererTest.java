@@ -10,6 +10,10 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -41,6 +45,94 @@ public class YamlFileNodeDiscovererTest {
         assertThat(yamlFileNodeDiscoverer.discover("balancer1")).isNull();
     }
 
+    @Test
+    public void discoverNodeLabelsAsStrings() throws Exception {
+
+        givenBalancerNodeFile("balancer1","nodes:\n" +
+                "- connection: http://localhost:9090\n" +
+                "  status: http://localhost:9090/status\n" +
+                "  labels:\n" +
+                "    id: 1\n" +
+                "    weight: 4\n");
+
+        givenFileDiscoverer();
+
+        Node node = yamlFileNodeDiscoverer.discover("balancer1").get(0);
+        assertThat(node.getLabels()).containsEntry("id", "1").containsEntry("weight", "4");
+        assertThat(node.getWeight()).isEqualTo(4);
+    }
+
+    @Test
+    public void discoverBalancerFilesIndependently() throws Exception {
+
+        givenBalancerNodeFile("balancer1", "nodes:\n- connection: http://localhost:9090\n  status: http://localhost:9090/status\n");
+        givenBalancerNodeFile("balancer2", "nodes:\n- connection: http://localhost:8080\n  status: http://localhost:8080/status\n");
+
+        givenFileDiscoverer();
+
+        assertThat(yamlFileNodeDiscoverer.discover("balancer1")).extracting(Node::getConnection).containsExactly(URI.create("http://localhost:9090"));
+        assertThat(yamlFileNodeDiscoverer.discover("balancer2")).extracting(Node::getConnection).containsExactly(URI.create("http://localhost:8080"));
+        assertThat(yamlFileNodeDiscoverer.discover("balancer1")).isNull();
+        assertThat(yamlFileNodeDiscoverer.discover("balancer2")).isNull();
+    }
+
+    @Test
+    public void notifyWatcherWhenBalancerFileChanges() throws Exception {
+
+        File nodesFile = givenBalancerNodeFile("balancer1", "nodes:\n- connection: http://localhost:9090\n  status: http://localhost:9090/status\n");
+
+        CountDownLatch changed = new CountDownLatch(1);
+        try (YamlFileNodeDiscoverer watchingDiscoverer = new YamlFileNodeDiscoverer(discovererFolder.getRoot(), 10L)) {
+            watchingDiscoverer.watch("balancer1", changed::countDown);
+            assertThat(watchingDiscoverer.discover("balancer1")).hasSize(1);
+
+            IOUtils.write("nodes:\n- connection: http://localhost:9090\n  status: http://localhost:9090/status\n- connection: http://localhost:8080\n  status: http://localhost:8080/status\n",
+                    new FileOutputStream(nodesFile), Charset.defaultCharset());
+
+            assertThat(changed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(watchingDiscoverer.discover("balancer1")).extracting(Node::getConnection)
+                    .containsExactly(URI.create("http://localhost:9090"), URI.create("http://localhost:8080"));
+        }
+    }
+
+    @Test
+    public void rediscoverFileWhichFailedToParse() throws Exception {
+
+        String nodes = "nodes:\n- connection: http://localhost:9090\n  status: http://localhost:9090/status\n";
+        File nodesFile = givenBalancerNodeFile("balancer1", nodes.replace("http:", "http "));
+        FileTime lastModified = Files.getLastModifiedTime(nodesFile.toPath());
+
+        givenFileDiscoverer();
+        assertThat(yamlFileNodeDiscoverer.discover("balancer1")).isNull();
+
+        IOUtils.write(nodes, new FileOutputStream(nodesFile), Charset.defaultCharset());
+        Files.setLastModifiedTime(nodesFile.toPath(), lastModified);
+
+        assertThat(yamlFileNodeDiscoverer.discover("balancer1")).extracting(Node::getConnection)
+                .containsExactly(URI.create("http://localhost:9090"));
+    }
+
+    @Test
+    public void rediscoverWatchedFileWhenChangeKeepsModificationTimeAndSize() throws Exception {
+
+        String nodes = "nodes:\n- connection: http://localhost:9090\n  status: http://localhost:9090/status\n";
+        File nodesFile = givenBalancerNodeFile("balancer1", nodes);
+        FileTime lastModified = Files.getLastModifiedTime(nodesFile.toPath());
+
+        CountDownLatch changed = new CountDownLatch(1);
+        try (YamlFileNodeDiscoverer watchingDiscoverer = new YamlFileNodeDiscoverer(discovererFolder.getRoot(), 10L)) {
+            watchingDiscoverer.watch("balancer1", changed::countDown);
+            assertThat(watchingDiscoverer.discover("balancer1")).hasSize(1);
+
+            IOUtils.write(nodes.replace("9090", "8080"), new FileOutputStream(nodesFile), Charset.defaultCharset());
+            Files.setLastModifiedTime(nodesFile.toPath(), lastModified);
+
+            assertThat(changed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(watchingDiscoverer.discover("balancer1")).extracting(Node::getConnection)
+                    .containsExactly(URI.create("http://localhost:8080"));
+        }
+    }
+
     private File givenBalancerNodeFile(String balancerId, String nodes) throws Exception {
 
         File nodesFile = discovererFolder.newFile(balancerId + ".yml");
@@ -0,0 +1,133 @@
+package io.github.jbalancer.node.resolver;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class CachingResolverTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final AtomicReference<InetAddress> address = new AtomicReference<>();
+
+    private CachingResolver resolver;
+
+    @After
+    public void tearDown() throws Exception {
+
+        if (null != resolver) {
+            resolver.close();
+        }
+    }
+
+    private void givenResolver(long ttl, long negativeTtl) {
+
+        resolver = new CachingResolver(host -> {
+            lookups.incrementAndGet();
+            if (null == address.get()) {
+                throw new UnknownHostException(host);
+            }
+            return Collections.singletonList(address.get());
+        }, ttl, negativeTtl, TimeUnit.MILLISECONDS, Executors.newSingleThreadExecutor());
+    }
+
+    private static InetAddress createAddress(int last) throws Exception {
+        return InetAddress.getByAddress(new byte[]{10, 0, 0, (byte) last});
+    }
+
+    @Test
+    public void cacheResolvedAddresses() throws Exception {
+
+        address.set(createAddress(1));
+        givenResolver(10000, 10000);
+
+        List<InetAddress> first = resolver.resolve("service");
+        List<InetAddress> second = resolver.resolve("service");
+
+        assertThat(first).containsExactly(createAddress(1));
+        assertThat(second).isSameAs(first);
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void cacheFailedResolution() throws Exception {
+
+        givenResolver(10000, 10000);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                resolver.resolve("unknown");
+                fail("Resolution must fail");
+            } catch (UnknownHostException e) {
+                assertThat(e.getMessage()).isEqualTo("unknown");
+            }
+        }
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void resolveAgainWhenFailedResolutionExpired() throws Exception {
+
+        givenResolver(10000, 10);
+        try {
+            resolver.resolve("service");
+            fail("Resolution must fail");
+        } catch (UnknownHostException expected) {
+        }
+
+        address.set(createAddress(1));
+        Thread.sleep(20);
+
+        assertThat(resolver.resolve("service")).containsExactly(createAddress(1));
+    }
+
+    @Test
+    public void returnExpiredAddressesAndRefreshInBackground() throws Exception {
+
+        address.set(createAddress(1));
+        givenResolver(10, 10000);
+        resolver.resolve("service");
+
+        address.set(createAddress(2));
+        Thread.sleep(20);
+
+        assertThat(resolver.resolve("service")).containsExactly(createAddress(1));
+        long end = System.currentTimeMillis() + 1000;
+        while (lookups.get() < 2 && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(20);
+        assertThat(resolver.resolve("service")).containsExactly(createAddress(2));
+    }
+
+    @Test
+    public void keepExpiredAddressesWhenRefreshFails() throws Exception {
+
+        address.set(createAddress(1));
+        givenResolver(10, 10000);
+        resolver.resolve("service");
+
+        address.set(null);
+        Thread.sleep(20);
+        resolver.resolve("service");
+        long end = System.currentTimeMillis() + 1000;
+        while (lookups.get() < 2 && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(20);
+
+        assertThat(resolver.resolve("service")).containsExactly(createAddress(1));
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.jbalancer.strategy;
+
+import io.github.jbalancer.node.BalancedNode;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SlowStartTest {
+
+    @Mock
+    private BalancedNode node;
+
+    @Test
+    public void noSlowStartGivesFullShare() throws Exception {
+
+        when(node.getActiveNanos()).thenReturn(0L);
+
+        assertThat(SlowStart.NONE.factor(node)).isEqualTo(1.0);
+    }
+
+    @Test
+    public void linearSlowStartRampsShare() throws Exception {
+
+        SlowStart slowStart = SlowStart.linear(10, TimeUnit.SECONDS);
+
+        when(node.getActiveNanos()).thenReturn(0L);
+        assertThat(slowStart.factor(node)).isEqualTo(SlowStart.DEFAULT_MIN_FACTOR);
+
+        when(node.getActiveNanos()).thenReturn(TimeUnit.SECONDS.toNanos(5));
+        assertThat(slowStart.factor(node)).isCloseTo(0.5, within(0.001));
+
+        when(node.getActiveNanos()).thenReturn(TimeUnit.SECONDS.toNanos(10));
+        assertThat(slowStart.factor(node)).isEqualTo(1.0);
+    }
+
+    @Test
+    public void aggressiveSlowStartRampsShareFaster() throws Exception {
+
+        SlowStart slowStart = SlowStart.of(10, TimeUnit.SECONDS, 2.0, 0.05);
+        when(node.getActiveNanos()).thenReturn(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(slowStart.factor(node)).isCloseTo(Math.sqrt(0.1), within(0.001));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failWhenMinFactorIsNotPositive() throws Exception {
+
+        SlowStart.of(10, TimeUnit.SECONDS, 1.0, 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failWhenAggressionIsNotPositive() throws Exception {
+
+        SlowStart.of(10, TimeUnit.SECONDS, 0.0, 0.1);
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.jbalancer.strategy;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StripedCounterTest {
+
+    @Test
+    public void singleStripeCountsInOrder() throws Exception {
+
+        StripedCounter counter = new StripedCounter(1);
+
+        assertThat(counter.next()).isEqualTo(0L);
+        assertThat(counter.next()).isEqualTo(1L);
+        assertThat(counter.next()).isEqualTo(2L);
+    }
+
+    @Test
+    public void stripesAreRoundedToPowerOfTwo() throws Exception {
+
+        assertThat(new StripedCounter(1).getStripes()).isEqualTo(1);
+        assertThat(new StripedCounter(3).getStripes()).isEqualTo(4);
+        assertThat(new StripedCounter(8).getStripes()).isEqualTo(8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failWhenStripesAreNotPositive() throws Exception {
+
+        new StripedCounter(0);
+    }
+
+    @Test
+    public void stripeVisitsAllPositionsInRound() throws Exception {
+
+        StripedCounter counter = new StripedCounter(4);
+
+        int first = counter.nextIndex(3);
+        assertThat(counter.nextIndex(3)).isEqualTo((first + 1) % 3);
+        assertThat(counter.nextIndex(3)).isEqualTo((first + 2) % 3);
+        assertThat(counter.nextIndex(3)).isEqualTo(first);
+    }
+
+    @Test
+    public void distributeEvenlyFromManyThreads() throws Exception {
+
+        StripedCounter counter = new StripedCounter(4);
+        AtomicIntegerArray hits = new AtomicIntegerArray(3);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 3000; i++) {
+                        hits.incrementAndGet(counter.nextIndex(3));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(hits.get(i)).isBetween(8000 - 4, 8000 + 4);
+        }
+    }
+}
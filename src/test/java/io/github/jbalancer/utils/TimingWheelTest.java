@@ -0,0 +1,82 @@
+package io.github.jbalancer.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTest {
+
+    private static final long TICK = 10L;
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 0L);
+
+    private List<String> advance(long now) {
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(now, expired::add);
+        return expired;
+    }
+
+    @Test
+    public void wheelSizeIsRoundedToPowerOfTwo() throws Exception {
+
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 5, 0L);
+        wheel.schedule("a", 8 * TICK);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(7 * TICK, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(8 * TICK, expired::add);
+        assertThat(expired).containsExactly("a");
+    }
+
+    @Test
+    public void expireItemsNotBeforeDeadline() throws Exception {
+
+        wheel.schedule("a", 25L);
+        wheel.schedule("b", 30L);
+        wheel.schedule("c", 31L);
+
+        assertThat(advance(29L)).isEmpty();
+        assertThat(advance(30L)).containsExactly("a", "b");
+        assertThat(advance(39L)).isEmpty();
+        assertThat(advance(40L)).containsExactly("c");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void expireItemsAfterMultipleRounds() throws Exception {
+
+        wheel.schedule("far", 20 * TICK);
+        wheel.schedule("near", 4 * TICK);
+
+        assertThat(advance(4 * TICK)).containsExactly("near");
+        assertThat(advance(12 * TICK)).isEmpty();
+        assertThat(advance(19 * TICK)).isEmpty();
+        assertThat(advance(20 * TICK)).containsExactly("far");
+    }
+
+    @Test
+    public void expirePastDeadlineOnNextTick() throws Exception {
+
+        advance(50L);
+        wheel.schedule("past", 10L);
+
+        assertThat(advance(55L)).isEmpty();
+        assertThat(advance(60L)).containsExactly("past");
+    }
+
+    @Test
+    public void expireItemsInDeadlineOrderWhenAdvancingManyTicks() throws Exception {
+
+        wheel.schedule("c", 300L);
+        wheel.schedule("a", 15L);
+        wheel.schedule("b", 95L);
+
+        assertThat(advance(1000L)).containsExactly("a", "b", "c");
+    }
+}